@@ -24,7 +24,6 @@ package org.sjmvc.binding;
 
 import java.lang.reflect.Array;
 import java.lang.reflect.Field;
-import java.lang.reflect.Modifier;
 import java.util.ArrayList;
 import java.util.Collection;
 
@@ -32,7 +31,7 @@ import org.apache.commons.lang.StringUtils;
 import org.sjmvc.error.Error;
 import org.sjmvc.error.ErrorType;
 import org.sjmvc.error.Errors;
-import org.sjmvc.util.ReflectionUtils;
+import org.sjmvc.util.ClassCache;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -51,6 +50,41 @@ public abstract class AbstractBinder<T, S> implements Binder<T, S>
 	private static final Logger LOGGER = LoggerFactory
 			.getLogger(AbstractBinder.class);
 
+	/** Whether each binder class overrides the deprecated hooks. */
+	private static final ClassCache<Boolean> LEGACY_HOOKS = new ClassCache<Boolean>() {
+		@Override
+		protected Boolean compute(Class<?> type)
+		{
+			for (Class<?> current = type; current != AbstractBinder.class; current = current
+					.getSuperclass())
+			{
+				if (declares(current, "setSimpleValue", String.class)
+						|| declares(current, "setCollectionValues",
+								String[].class)
+						|| declares(current, "setArrayValues", String[].class))
+				{
+					return Boolean.TRUE;
+				}
+			}
+
+			return Boolean.FALSE;
+		}
+
+		private boolean declares(Class<?> type, String name, Class<?> values)
+		{
+			try
+			{
+				type.getDeclaredMethod(name, Field.class, Object.class,
+						String.class, values);
+				return true;
+			}
+			catch (NoSuchMethodException ex)
+			{
+				return false;
+			}
+		}
+	};
+
 	/** The object target of the binding. */
 	protected T target;
 
@@ -60,6 +94,9 @@ public abstract class AbstractBinder<T, S> implements Binder<T, S>
 	/** The binding errors. */
 	protected Errors errors;
 
+	/** Whether the binder overrides the deprecated {@link Field} based hooks. */
+	private final boolean legacyHooks;
+
 	/**
 	 * Creates the binder.
 	 * 
@@ -72,6 +109,7 @@ public abstract class AbstractBinder<T, S> implements Binder<T, S>
 		this.target = target;
 		this.source = source;
 		errors = new Errors();
+		legacyHooks = LEGACY_HOOKS.get(getClass());
 	}
 
 	@Override
@@ -105,45 +143,21 @@ public abstract class AbstractBinder<T, S> implements Binder<T, S>
 	protected void bindField(Object currentObject, String name,
 			String... values)
 	{
-		String[] path = name.split("\\.");
-
 		try
 		{
-			if (path.length == 1)
-			{
-				LOGGER.trace("Binding simple property {} to {}", name,
-						currentObject.getClass().getName());
+			PropertyPath path = BindingMetadata.forClass(
+					currentObject.getClass()).getPath(name);
 
-				// Bind simple property
-				setValue(currentObject, path[0], values);
-			}
-			else
+			if (LOGGER.isTraceEnabled())
 			{
-				LOGGER.trace("Binding nested property {} to {}", name,
-						currentObject.getClass().getName());
-
-				// Recursively bind the nested values
-				String remainingPath = StringUtils.join(path, "", 1,
-						path.length);
-				Object nestedObject = ReflectionUtils.getProperty(
-						currentObject, path[0]);
-
-				// If nested object is null, create it
-				if (nestedObject == null)
-				{
-					LOGGER.trace("Nested property {} is null. Creating it.",
-							name);
-
-					Class<?> nestedType = ReflectionUtils.getFieldType(path[0],
-							currentObject.getClass());
-					nestedObject = nestedType.newInstance();
-
-					ReflectionUtils.setValue(currentObject, path[0],
-							nestedObject);
-				}
-
-				bindField(nestedObject, remainingPath, values);
+				LOGGER.trace("Binding {} property {} to {}", new Object[] {
+						path.isNested() ? "nested" : "simple", name,
+						currentObject.getClass().getName() });
 			}
+
+			// Walk the nested properties and bind the value to the last one
+			setValue(path.resolve(currentObject), path.getPropertyName(),
+					values);
 		}
 		catch (Exception ex)
 		{
@@ -167,24 +181,28 @@ public abstract class AbstractBinder<T, S> implements Binder<T, S>
 	{
 		try
 		{
-			Field field = currentObject.getClass().getDeclaredField(name);
-			int modifiers = field.getModifiers();
+			PropertyMetadata property = BindingMetadata.forClass(
+					currentObject.getClass()).getProperty(name);
 
-			if (!Modifier.isTransient(modifiers)
-					&& !Modifier.isStatic(modifiers))
+			if (property.isBindable())
 			{
-				// If property is a collection, iterate over the values
-				if (Collection.class.isAssignableFrom(field.getType()))
-				{
-					setCollectionValues(field, currentObject, name, values);
-				}
-				else if (field.getType().isArray())
+				if (legacyHooks)
 				{
-					setArrayValues(field, currentObject, name, values);
+					setLegacyValue(property, currentObject, name, values);
+					return;
 				}
-				else
+
+				switch (property.getKind())
 				{
-					setSimpleValue(field, currentObject, name, values[0]);
+					case COLLECTION:
+						setCollectionValues(property, currentObject, values);
+						break;
+					case ARRAY:
+						setArrayValues(property, currentObject, values);
+						break;
+					default:
+						setSimpleValue(property, currentObject, values[0]);
+						break;
 				}
 			}
 			else
@@ -200,6 +218,31 @@ public abstract class AbstractBinder<T, S> implements Binder<T, S>
 		}
 	}
 
+	/**
+	 * Sets the given value to the given property through the deprecated
+	 * {@link Field} based hooks, overridden by the binder.
+	 */
+	@SuppressWarnings("deprecation")
+	private void setLegacyValue(PropertyMetadata property,
+			Object currentObject, String name, String values[])
+			throws Exception
+	{
+		switch (property.getKind())
+		{
+			case COLLECTION:
+				setCollectionValues(property.getField(), currentObject, name,
+						values);
+				break;
+			case ARRAY:
+				setArrayValues(property.getField(), currentObject, name, values);
+				break;
+			default:
+				setSimpleValue(property.getField(), currentObject, name,
+						values[0]);
+				break;
+		}
+	}
+
 	/**
 	 * Set the value in a simple property.
 	 * 
@@ -208,14 +251,15 @@ public abstract class AbstractBinder<T, S> implements Binder<T, S>
 	 * @param name The name of the property.
 	 * @param value The value to set.
 	 * @throws Exception If the value cannot be set in the property.
+	 * @deprecated Only called when a subclass overrides it. Override
+	 *             {@link #setSimpleValue(PropertyMetadata, Object, String)}
+	 *             instead.
 	 */
+	@Deprecated
 	protected void setSimpleValue(Field field, Object currentObject,
 			String name, String value) throws Exception
 	{
-		LOGGER.trace("Setting {} to {}", value, name);
-
-		// Value should be a single element array
-		ReflectionUtils.transformAndSet(currentObject, name, value);
+		setSimpleValue(getProperty(currentObject, name), currentObject, value);
 	}
 
 	/**
@@ -226,25 +270,110 @@ public abstract class AbstractBinder<T, S> implements Binder<T, S>
 	 * @param name The name of the collection property.
 	 * @param values The values to set.
 	 * @throws Exception If the values cannot be set in the collection property.
+	 * @deprecated Only called when a subclass overrides it. Override
+	 *             {@link #setCollectionValues(PropertyMetadata, Object, String[])}
+	 *             instead.
 	 */
+	@Deprecated
 	protected void setCollectionValues(Field field, Object currentObject,
 			String name, String values[]) throws Exception
 	{
-		LOGGER.trace("Setting [{}] to {} collection",
-				StringUtils.join(values, ", "), name);
+		setCollectionValues(getProperty(currentObject, name), currentObject,
+				values);
+	}
+
+	/**
+	 * Set the values in an array property.
+	 * 
+	 * @param field The field to set.
+	 * @param currentObject The object being processed.
+	 * @param name The name of the array property.
+	 * @param values The values to set.
+	 * @throws Exception If the values cannot be set in the array property.
+	 * @deprecated Only called when a subclass overrides it. Override
+	 *             {@link #setArrayValues(PropertyMetadata, Object, String[])}
+	 *             instead.
+	 */
+	@Deprecated
+	protected void setArrayValues(Field field, Object currentObject,
+			String name, String values[]) throws Exception
+	{
+		setArrayValues(getProperty(currentObject, name), currentObject, values);
+	}
+
+	/**
+	 * Get the cached metadata of the given property.
+	 */
+	private static PropertyMetadata getProperty(Object currentObject,
+			String name) throws NoSuchFieldException
+	{
+		return BindingMetadata.forClass(currentObject.getClass()).getProperty(
+				name);
+	}
+
+	/**
+	 * Set the value in a simple property.
+	 * <p>
+	 * The value is written with the {@link PropertyWriter} precomputed for the
+	 * property. Properties without a writer are set reflectively.
+	 * 
+	 * @param property The property to set.
+	 * @param currentObject The object being processed.
+	 * @param value The value to set.
+	 * @throws Exception If the value cannot be set in the property.
+	 */
+	protected void setSimpleValue(PropertyMetadata property,
+			Object currentObject, String value) throws Exception
+	{
+		LOGGER.trace("Setting {} to {}", value, property.getName());
+
+		PropertyWriter writer = property.getWriter();
+
+		if (writer != null)
+		{
+			writer.write(currentObject, value);
+		}
+		else
+		{
+			property.getField().set(currentObject, property.convert(value));
+		}
+	}
+
+	/**
+	 * Set the values in a collection property.
+	 * 
+	 * @param property The collection property to set.
+	 * @param currentObject The object being processed.
+	 * @param values The values to set.
+	 * @throws Exception If the values cannot be set in the collection property.
+	 */
+	protected void setCollectionValues(PropertyMetadata property,
+			Object currentObject, String values[]) throws Exception
+	{
+		if (LOGGER.isTraceEnabled())
+		{
+			LOGGER.trace("Setting [{}] to {} collection",
+					StringUtils.join(values, ", "), property.getName());
+		}
 
 		// Get the type of the elements in the collection
-		Class<?> elementsType = ReflectionUtils.getFieldCollectionType(name,
-				currentObject.getClass());
+		Class<?> elementsType = property.getElementType();
+
+		if (elementsType == null)
+		{
+			throw new Exception("Could not determine the type of the elements "
+					+ "of the collection property [" + property.getName() + "]");
+		}
 
 		// Get the collection and clear it
 		@SuppressWarnings("unchecked")
-		Collection<Object> col = (Collection<Object>) ReflectionUtils
-				.getProperty(currentObject, name);
+		Collection<Object> col = (Collection<Object>) property.getField().get(
+				currentObject);
 
 		if (col == null)
 		{
-			LOGGER.trace("Collection property {} is null. Creating it", name);
+			LOGGER.trace("Collection property {} is null. Creating it",
+					property.getName());
 
 			col = new ArrayList<Object>();
 		}
@@ -254,39 +383,55 @@ public abstract class AbstractBinder<T, S> implements Binder<T, S>
 
 		for (String currentValue : values)
 		{
-			col.add(ReflectionUtils.fromString(elementsType, currentValue));
+			col.add(property.convert(currentValue));
 		}
 
 		// Save the collection in the object
-		ReflectionUtils.setValue(currentObject, name, col);
+		property.getField().set(currentObject, col);
 	}
 
 	/**
 	 * Set the values in an array property.
+	 * <p>
+	 * Primitive <code>int</code>, <code>long</code> and <code>double</code>
+	 * arrays are parsed directly, and also accept a single comma separated
+	 * value. Their elements are trimmed and the empty ones are ignored.
 	 * 
-	 * @param field The field to set.
+	 * @param property The array property to set.
 	 * @param currentObject The object being processed.
-	 * @param name The name of the array property.
 	 * @param values The values to set.
 	 * @throws Exception If the values cannot be set in the array property.
 	 */
-	protected void setArrayValues(Field field, Object currentObject,
-			String name, String values[]) throws Exception
+	protected void setArrayValues(PropertyMetadata property,
+			Object currentObject, String values[]) throws Exception
 	{
-		LOGGER.trace("Setting [{}] to {} array",
-				StringUtils.join(values, ", "), name);
+		if (LOGGER.isTraceEnabled())
+		{
+			LOGGER.trace("Setting [{}] to {} array",
+					StringUtils.join(values, ", "), property.getName());
+		}
 
-		Class<?> elementsType = field.getType().getComponentType();
-		Object array = Array.newInstance(elementsType, values.length);
+		Class<?> elementsType = property.getElementType();
+		Object array;
 
-		for (int i = 0; i < values.length; i++)
+		if (PrimitiveArrays.isSupported(elementsType))
+		{
+			// Parse numeric arrays without boxing each element
+			array = PrimitiveArrays.parse(elementsType,
+					property.getConverter(), values);
+		}
+		else
 		{
-			Array.set(array, i,
-					ReflectionUtils.fromString(elementsType, values[i]));
+			array = Array.newInstance(elementsType, values.length);
+
+			for (int i = 0; i < values.length; i++)
+			{
+				Array.set(array, i, property.convert(values[i]));
+			}
 		}
 
 		// Save the array in the object
-		ReflectionUtils.setValue(currentObject, name, array);
+		property.getField().set(currentObject, array);
 	}
 
 	@Override
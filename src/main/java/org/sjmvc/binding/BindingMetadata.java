@@ -0,0 +1,158 @@
+/**
+ * Copyright (c) 2010 Ignasi Barrera
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package org.sjmvc.binding;
+
+import java.lang.reflect.Field;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.sjmvc.util.BoundedCache;
+import org.sjmvc.util.ClassCache;
+
+/**
+ * Binding information of a model class.
+ * <p>
+ * The metadata of each class is computed the first time it is requested and
+ * cached, so binders do not need to look up fields, modifiers, generic types
+ * and converters on each request. The cache does not prevent the model classes
+ * from being unloaded.
+ * 
+ * @author Ignasi Barrera
+ * 
+ * @see PropertyMetadata
+ * @see AbstractBinder
+ */
+public final class BindingMetadata
+{
+	/** The metadata of each inspected class. */
+	private static final ClassCache<BindingMetadata> CACHE = new ClassCache<BindingMetadata>() {
+		@Override
+		protected BindingMetadata compute(Class<?> type)
+		{
+			return new BindingMetadata(type);
+		}
+	};
+
+	/** The class described by this metadata. */
+	private final Class<?> type;
+
+	/** The maximum number of parsed parameter names cached per class. */
+	private static final int PATH_CACHE_SIZE = 256;
+
+	/** The metadata of each declared property, indexed by name. */
+	private final Map<String, PropertyMetadata> properties;
+
+	/** The parsed parameter names. */
+	private final BoundedCache<String, PropertyPath> paths = new BoundedCache<String, PropertyPath>(
+			PATH_CACHE_SIZE);
+
+	/**
+	 * Creates the metadata of the given class.
+	 * 
+	 * @param type The class to inspect.
+	 */
+	private BindingMetadata(Class<?> type)
+	{
+		super();
+		this.type = type;
+
+		Map<String, PropertyMetadata> declared = new HashMap<String, PropertyMetadata>();
+		for (Field field : type.getDeclaredFields())
+		{
+			field.setAccessible(true);
+			declared.put(field.getName(), new PropertyMetadata(field));
+		}
+
+		properties = Collections.unmodifiableMap(declared);
+	}
+
+	/**
+	 * Get the binding metadata of the given class.
+	 * 
+	 * @param type The class to inspect.
+	 * @return The binding metadata of the class.
+	 */
+	public static BindingMetadata forClass(Class<?> type)
+	{
+		return CACHE.get(type);
+	}
+
+	/**
+	 * Get the metadata of the given property.
+	 * 
+	 * @param name The name of the property.
+	 * @return The metadata of the property.
+	 * @throws NoSuchFieldException If the class does not declare the given
+	 *             property.
+	 */
+	public PropertyMetadata getProperty(String name)
+			throws NoSuchFieldException
+	{
+		PropertyMetadata property = properties.get(name);
+
+		if (property == null)
+		{
+			throw new NoSuchFieldException(name);
+		}
+
+		return property;
+	}
+
+	/**
+	 * Get the parsed path of the given parameter name.
+	 * <p>
+	 * Parameter names are parsed once and cached, up to a maximum number of
+	 * names per class.
+	 * 
+	 * @param name The parameter name, relative to this class.
+	 * @return The parsed path.
+	 * @throws NoSuchFieldException If a property in the path does not exist or
+	 *             is not a nested property.
+	 */
+	public PropertyPath getPath(String name) throws NoSuchFieldException
+	{
+		PropertyPath path = paths.get(name);
+
+		if (path == null)
+		{
+			path = PropertyPath.parse(this, name);
+			paths.put(name, path);
+		}
+
+		return path;
+	}
+
+	// Getters
+
+	public Class<?> getType()
+	{
+		return type;
+	}
+
+	public Map<String, PropertyMetadata> getProperties()
+	{
+		return properties;
+	}
+
+}
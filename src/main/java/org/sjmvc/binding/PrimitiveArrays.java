@@ -0,0 +1,228 @@
+/**
+ * Copyright (c) 2010 Ignasi Barrera
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package org.sjmvc.binding;
+
+import java.util.Arrays;
+
+import org.sjmvc.util.Converter;
+import org.sjmvc.util.DoubleConverter;
+import org.sjmvc.util.IntConverter;
+import org.sjmvc.util.LongConverter;
+
+/**
+ * Parses request values straight into primitive <code>int</code>,
+ * <code>long</code> and <code>double</code> arrays, without creating a boxed
+ * object for each element when the registered converters support it.
+ * <p>
+ * Besides one value per element, a single value with the elements separated by
+ * commas is also accepted (<code>model.ids=1,2,3</code>). The elements are
+ * trimmed in both cases, and the empty ones are ignored.
+ * 
+ * @author Ignasi Barrera
+ * 
+ * @see AbstractBinder#setArrayValues(PropertyMetadata, Object, String[])
+ */
+final class PrimitiveArrays
+{
+	/** The separator of the elements in a single value. */
+	private static final char SEPARATOR = ',';
+
+	/**
+	 * Utility class.
+	 */
+	private PrimitiveArrays()
+	{
+		throw new AssertionError("PrimitiveArrays can not be instantiated");
+	}
+
+	/**
+	 * Checks if arrays of the given type can be parsed.
+	 * 
+	 * @param elementType The type of the elements of the array.
+	 * @return Boolean indicating if arrays of the given type can be parsed.
+	 */
+	public static boolean isSupported(Class<?> elementType)
+	{
+		return elementType == int.class || elementType == long.class
+				|| elementType == double.class;
+	}
+
+	/**
+	 * Parse the given values into a primitive array.
+	 * <p>
+	 * The values are converted with the converter registered for the type of
+	 * the elements in the {@link org.sjmvc.util.ConverterRegistry}. They are not boxed if the
+	 * converter is an {@link IntConverter}, a {@link LongConverter} or a
+	 * {@link DoubleConverter}.
+	 * 
+	 * @param elementType The type of the elements of the array.
+	 * @param converter The converter registered for the type of the elements.
+	 * @param values The values to parse.
+	 * @return The primitive array.
+	 * @throws Exception If a value cannot be converted.
+	 */
+	public static Object parse(Class<?> elementType, Converter<?> converter,
+			String[] values) throws Exception
+	{
+		String[] elements = values.length == 1 && values[0] != null ? split(values[0])
+				: trim(values);
+
+		if (elementType == int.class)
+		{
+			int[] array = new int[elements.length];
+			if (converter instanceof IntConverter)
+			{
+				IntConverter ints = (IntConverter) converter;
+				for (int i = 0; i < elements.length; i++)
+				{
+					array[i] = ints.convertInt(required(elements[i]));
+				}
+			}
+			else
+			{
+				for (int i = 0; i < elements.length; i++)
+				{
+					array[i] = (Integer) converter.convert(required(elements[i]));
+				}
+			}
+			return array;
+		}
+		else if (elementType == long.class)
+		{
+			long[] array = new long[elements.length];
+			if (converter instanceof LongConverter)
+			{
+				LongConverter longs = (LongConverter) converter;
+				for (int i = 0; i < elements.length; i++)
+				{
+					array[i] = longs.convertLong(required(elements[i]));
+				}
+			}
+			else
+			{
+				for (int i = 0; i < elements.length; i++)
+				{
+					array[i] = (Long) converter.convert(required(elements[i]));
+				}
+			}
+			return array;
+		}
+		else if (elementType == double.class)
+		{
+			double[] array = new double[elements.length];
+			if (converter instanceof DoubleConverter)
+			{
+				DoubleConverter doubles = (DoubleConverter) converter;
+				for (int i = 0; i < elements.length; i++)
+				{
+					array[i] = doubles.convertDouble(required(elements[i]));
+				}
+			}
+			else
+			{
+				for (int i = 0; i < elements.length; i++)
+				{
+					array[i] = (Double) converter.convert(required(elements[i]));
+				}
+			}
+			return array;
+		}
+
+		throw new IllegalArgumentException("Unsupported array type: "
+				+ elementType.getName());
+	}
+
+	/**
+	 * Split the given value in its comma separated elements.
+	 * 
+	 * @param value The value to split.
+	 * @return The trimmed elements of the value, without the empty ones.
+	 */
+	static String[] split(String value)
+	{
+		int count = 1;
+		for (int i = value.indexOf(SEPARATOR); i >= 0; i = value.indexOf(
+				SEPARATOR, i + 1))
+		{
+			count++;
+		}
+
+		String[] elements = new String[count];
+		int found = 0;
+		int start = 0;
+
+		for (int i = 0; i < count; i++)
+		{
+			int end = i < count - 1 ? value.indexOf(SEPARATOR, start) : value
+					.length();
+			String element = value.substring(start, end).trim();
+			if (element.length() > 0)
+			{
+				elements[found++] = element;
+			}
+			start = end + 1;
+		}
+
+		return found == count ? elements : Arrays.copyOf(elements, found);
+	}
+
+	/**
+	 * Trim the given values, and remove the empty ones.
+	 * <p>
+	 * <code>null</code> values are kept, so they fail when they are converted.
+	 * 
+	 * @param values The values to trim.
+	 * @return The trimmed values, without the empty ones.
+	 */
+	static String[] trim(String[] values)
+	{
+		String[] elements = new String[values.length];
+		int found = 0;
+
+		for (String value : values)
+		{
+			String element = value == null ? null : value.trim();
+			if (element == null || element.length() > 0)
+			{
+				elements[found++] = element;
+			}
+		}
+
+		return found == values.length ? elements : Arrays.copyOf(elements,
+				found);
+	}
+
+	/**
+	 * Check that the given element is not <code>null</code>, since primitive
+	 * arrays can not hold <code>null</code> elements.
+	 */
+	private static String required(String value)
+	{
+		if (value == null)
+		{
+			throw new NumberFormatException("null");
+		}
+
+		return value;
+	}
+}
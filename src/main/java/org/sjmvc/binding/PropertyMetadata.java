@@ -0,0 +1,276 @@
+/**
+ * Copyright (c) 2010 Ignasi Barrera
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package org.sjmvc.binding;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.util.Collection;
+
+import org.sjmvc.util.Converter;
+import org.sjmvc.util.ConverterRegistry;
+
+/**
+ * Binding information of a single property of a model class.
+ * <p>
+ * Instances are computed once by {@link BindingMetadata} and hold everything
+ * the {@link AbstractBinder} needs to bind a value to the property without
+ * inspecting the class again. The converter of the property is looked up in the
+ * {@link ConverterRegistry} when the metadata is computed, so converters must
+ * be registered before the model class is first bound.
+ * 
+ * @author Ignasi Barrera
+ * 
+ * @see BindingMetadata
+ */
+public final class PropertyMetadata
+{
+	/** The accessible field of the property. */
+	private final Field field;
+
+	/** The kind of the property. */
+	private final PropertyKind kind;
+
+	/** The type of the elements of collection and array properties. */
+	private final Class<?> elementType;
+
+	/** Whether the property can be bound. */
+	private final boolean bindable;
+
+	/** The default constructor of nested properties. */
+	private final Constructor<?> instantiator;
+
+	/**
+	 * The converter of simple properties, or of the elements of collection and
+	 * array properties.
+	 */
+	private final Converter<?> converter;
+
+	/** The writer of simple properties. */
+	private final PropertyWriter writer;
+
+	/**
+	 * Creates the metadata of the given field.
+	 * 
+	 * @param field The accessible field of the property.
+	 */
+	PropertyMetadata(Field field)
+	{
+		super();
+		this.field = field;
+
+		int modifiers = field.getModifiers();
+		bindable = !Modifier.isStatic(modifiers)
+				&& !Modifier.isTransient(modifiers);
+
+		Class<?> type = field.getType();
+
+		if (Collection.class.isAssignableFrom(type))
+		{
+			kind = PropertyKind.COLLECTION;
+			elementType = collectionType(field);
+		}
+		else if (type.isArray())
+		{
+			kind = PropertyKind.ARRAY;
+			elementType = type.getComponentType();
+		}
+		else if (isSimpleType(type))
+		{
+			kind = PropertyKind.SIMPLE;
+			elementType = null;
+		}
+		else
+		{
+			kind = PropertyKind.NESTED;
+			elementType = null;
+		}
+
+		instantiator = kind == PropertyKind.NESTED ? defaultConstructor(type)
+				: null;
+
+		if (kind == PropertyKind.SIMPLE)
+		{
+			converter = ConverterRegistry.getConverter(type);
+		}
+		else
+		{
+			converter = elementType == null ? null : ConverterRegistry
+					.getConverter(elementType);
+		}
+
+		writer = PropertyWriters.forProperty(field, kind, converter);
+	}
+
+	/**
+	 * Creates a new instance of a nested property.
+	 * 
+	 * @return The new instance.
+	 * @throws Exception If the type of the property cannot be instantiated.
+	 */
+	public Object newInstance() throws Exception
+	{
+		if (instantiator == null)
+		{
+			throw new InstantiationException("Could not create the property ["
+					+ getName() + "] of type [" + getType().getName()
+					+ "]. It must be a concrete class with a default constructor");
+		}
+
+		return instantiator.newInstance();
+	}
+
+	/**
+	 * Convert the given value with the converter of the property.
+	 * 
+	 * @param value The value to convert.
+	 * @return The converted value, or <code>null</code> if the value is
+	 *         <code>null</code>.
+	 * @throws Exception If there is no converter for the property or the value
+	 *             cannot be converted.
+	 */
+	public Object convert(String value) throws Exception
+	{
+		if (value == null)
+		{
+			return null;
+		}
+
+		if (converter == null)
+		{
+			Class<?> type = elementType == null ? getType() : elementType;
+			throw new Exception("Could not transform [" + value
+					+ "] to an object of class [" + type.getName() + "]");
+		}
+
+		return converter.convert(value);
+	}
+
+	/**
+	 * Get the accessible default constructor of the given type.
+	 * 
+	 * @param type The type to instantiate.
+	 * @return The default constructor, or <code>null</code> if the type cannot
+	 *         be instantiated.
+	 */
+	private static Constructor<?> defaultConstructor(Class<?> type)
+	{
+		if (type.isInterface() || Modifier.isAbstract(type.getModifiers()))
+		{
+			return null;
+		}
+
+		try
+		{
+			Constructor<?> constructor = type.getDeclaredConstructor();
+			constructor.setAccessible(true);
+			return constructor;
+		}
+		catch (NoSuchMethodException ex)
+		{
+			return null;
+		}
+	}
+
+	/**
+	 * Get the type of the elements of the given collection field.
+	 * 
+	 * @param field The collection field.
+	 * @return The type of the elements, or <code>null</code> if it is not
+	 *         declared as a class.
+	 */
+	private static Class<?> collectionType(Field field)
+	{
+		Type type = field.getGenericType();
+
+		if (type instanceof ParameterizedType)
+		{
+			Type[] arguments = ((ParameterizedType) type)
+					.getActualTypeArguments();
+
+			if (arguments.length == 1 && arguments[0] instanceof Class)
+			{
+				return (Class<?>) arguments[0];
+			}
+		}
+
+		return null;
+	}
+
+	/**
+	 * Checks if the given type holds single values instead of nested beans.
+	 * 
+	 * @param type The type to check.
+	 * @return Boolean indicating if the type holds single values.
+	 */
+	private static boolean isSimpleType(Class<?> type)
+	{
+		return type.isPrimitive() || type.isEnum()
+				|| type.getName().startsWith("java.");
+	}
+
+	// Getters
+
+	public Field getField()
+	{
+		return field;
+	}
+
+	public String getName()
+	{
+		return field.getName();
+	}
+
+	public Class<?> getType()
+	{
+		return field.getType();
+	}
+
+	public PropertyKind getKind()
+	{
+		return kind;
+	}
+
+	public Class<?> getElementType()
+	{
+		return elementType;
+	}
+
+	public boolean isBindable()
+	{
+		return bindable;
+	}
+
+	public Converter<?> getConverter()
+	{
+		return converter;
+	}
+
+	public PropertyWriter getWriter()
+	{
+		return writer;
+	}
+
+}
@@ -0,0 +1,249 @@
+/**
+ * Copyright (c) 2010 Ignasi Barrera
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package org.sjmvc.binding;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A parameter name parsed against a model class.
+ * <p>
+ * The path holds the nested properties to walk from the model object to the
+ * object that owns the bound property, resolved once when the path is parsed.
+ * Paths are cached by the {@link BindingMetadata} of the model class, so
+ * binding a nested parameter such as <code>address.geo.lat</code> only walks
+ * the cached fields, creating the nested objects that are <code>null</code>.
+ * <p>
+ * Nested properties are parsed against their declared types. When a nested
+ * object is an instance of a subclass of the declared type, the rest of the
+ * path is resolved against the class of the object, using the paths cached
+ * by the {@link BindingMetadata} of that class. Properties that are not
+ * declared by the declared type of a non final nested property are also left
+ * to be resolved against the class of the nested object.
+ * 
+ * @author Ignasi Barrera
+ * 
+ * @see BindingMetadata#getPath(String)
+ */
+public final class PropertyPath
+{
+	/** The separator of the properties in a path. */
+	private static final char SEPARATOR = '.';
+
+	/** The parameter name. */
+	private final String name;
+
+	/** The nested properties to walk. */
+	private final PropertyMetadata[] nested;
+
+	/**
+	 * The position in the parameter name where the rest of the path starts,
+	 * after each nested property.
+	 */
+	private final int[] remaining;
+
+	/**
+	 * Whether the rest of the path after the last nested property must be
+	 * resolved against the class of the nested object.
+	 */
+	private final boolean deferred;
+
+	/** The name of the bound property. */
+	private final String propertyName;
+
+	/**
+	 * Creates the path.
+	 * 
+	 * @param name The parameter name.
+	 * @param nested The nested properties to walk.
+	 * @param remaining The position where the rest of the path starts after
+	 *            each nested property.
+	 * @param deferred Whether the rest of the path after the last nested
+	 *            property must be resolved against the class of the nested
+	 *            object.
+	 */
+	private PropertyPath(String name, PropertyMetadata[] nested,
+			int[] remaining, boolean deferred)
+	{
+		super();
+		this.name = name;
+		this.nested = nested;
+		this.remaining = remaining;
+		this.deferred = deferred;
+		this.propertyName = name.substring(name.lastIndexOf(SEPARATOR) + 1);
+	}
+
+	/**
+	 * Parse the given parameter name.
+	 * 
+	 * @param root The metadata of the model class.
+	 * @param name The parameter name.
+	 * @return The parsed path.
+	 * @throws NoSuchFieldException If a property in the path does not exist or
+	 *             is not a nested property.
+	 */
+	static PropertyPath parse(BindingMetadata root, String name)
+			throws NoSuchFieldException
+	{
+		List<PropertyMetadata> nested = new ArrayList<PropertyMetadata>();
+		List<Integer> remaining = new ArrayList<Integer>();
+		BindingMetadata metadata = root;
+		int start = 0;
+		int end;
+
+		while ((end = name.indexOf(SEPARATOR, start)) >= 0)
+		{
+			PropertyMetadata property = metadata.getProperties().get(
+					name.substring(start, end));
+
+			if (property == null)
+			{
+				return deferred(metadata, name, nested, remaining);
+			}
+			if (property.getKind() != PropertyKind.NESTED)
+			{
+				throw new NoSuchFieldException(name.substring(end + 1));
+			}
+
+			nested.add(property);
+			remaining.add(end + 1);
+			metadata = BindingMetadata.forClass(property.getType());
+			start = end + 1;
+		}
+
+		// Fail early for unexisting properties so they are not cached
+		if (!metadata.getProperties().containsKey(name.substring(start)))
+		{
+			return deferred(metadata, name, nested, remaining);
+		}
+
+		return create(name, nested, remaining, false);
+	}
+
+	/**
+	 * Create the path whose rest must be resolved against the class of the
+	 * last nested object, or fail if the rest cannot be declared by a
+	 * subclass.
+	 */
+	private static PropertyPath deferred(BindingMetadata metadata,
+			String name, List<PropertyMetadata> nested, List<Integer> remaining)
+			throws NoSuchFieldException
+	{
+		int start = nested.isEmpty() ? 0 : remaining.get(remaining.size() - 1);
+
+		if (nested.isEmpty()
+				|| Modifier.isFinal(metadata.getType().getModifiers()))
+		{
+			throw new NoSuchFieldException(name.substring(start));
+		}
+
+		return create(name, nested, remaining, true);
+	}
+
+	/**
+	 * Create the path with the given nested properties.
+	 */
+	private static PropertyPath create(String name,
+			List<PropertyMetadata> nested, List<Integer> remaining,
+			boolean deferred)
+	{
+		int[] positions = new int[remaining.size()];
+		for (int i = 0; i < positions.length; i++)
+		{
+			positions[i] = remaining.get(i);
+		}
+
+		return new PropertyPath(name, nested
+				.toArray(new PropertyMetadata[nested.size()]), positions,
+				deferred);
+	}
+
+	/**
+	 * Get the object that owns the bound property, creating the nested objects
+	 * that are <code>null</code>.
+	 * 
+	 * @param root The model object.
+	 * @return The object that owns the bound property.
+	 * @throws Exception If a nested object cannot be read or created, or a
+	 *             property in the path does not exist in the class of a nested
+	 *             object.
+	 */
+	public Object resolve(Object root) throws Exception
+	{
+		Object current = root;
+
+		for (int i = 0; i < nested.length; i++)
+		{
+			PropertyMetadata property = nested[i];
+			Field field = property.getField();
+			Object next = field.get(current);
+
+			if (next == null)
+			{
+				next = property.newInstance();
+				field.set(current, next);
+			}
+			else if (next.getClass() != property.getType()
+					&& (deferred || i < nested.length - 1))
+			{
+				// Walk the rest of the path through the class of the object
+				return resolveRemaining(next, remaining[i]);
+			}
+
+			current = next;
+		}
+
+		return deferred ? resolveRemaining(current,
+				remaining[remaining.length - 1]) : current;
+	}
+
+	/**
+	 * Resolve the rest of the path against the class of the given object.
+	 */
+	private Object resolveRemaining(Object current, int start) throws Exception
+	{
+		return BindingMetadata.forClass(current.getClass())
+				.getPath(name.substring(start)).resolve(current);
+	}
+
+	/**
+	 * Checks if the bound property belongs to a nested object.
+	 * 
+	 * @return Boolean indicating if the bound property belongs to a nested
+	 *         object.
+	 */
+	public boolean isNested()
+	{
+		return nested.length > 0;
+	}
+
+	// Getters
+
+	public String getPropertyName()
+	{
+		return propertyName;
+	}
+
+}
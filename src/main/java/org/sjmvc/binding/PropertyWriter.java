@@ -0,0 +1,46 @@
+/**
+ * Copyright (c) 2010 Ignasi Barrera
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package org.sjmvc.binding;
+
+/**
+ * Writes a request value to a single simple property of a model object.
+ * <p>
+ * Writers are created once per property, along with its
+ * {@link PropertyMetadata}, and hold the field and the converter of the
+ * property.
+ * 
+ * @author Ignasi Barrera
+ * 
+ * @see PropertyWriters
+ */
+public interface PropertyWriter
+{
+	/**
+	 * Converts the given value and writes it to the property.
+	 * 
+	 * @param target The object that has the property.
+	 * @param value The value to write.
+	 * @throws Exception If the value cannot be written.
+	 */
+	public void write(Object target, String value) throws Exception;
+}
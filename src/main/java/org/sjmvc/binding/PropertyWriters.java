@@ -0,0 +1,197 @@
+/**
+ * Copyright (c) 2010 Ignasi Barrera
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package org.sjmvc.binding;
+
+import java.lang.reflect.Field;
+
+import org.sjmvc.util.Converter;
+import org.sjmvc.util.DoubleConverter;
+import org.sjmvc.util.IntConverter;
+import org.sjmvc.util.LongConverter;
+
+/**
+ * Creates the {@link PropertyWriter} of the simple properties of the model
+ * classes.
+ * <p>
+ * Writers always write the field of the property, as the reflective binding
+ * does, and never call setters. Primitive <code>int</code>, <code>long</code>
+ * and <code>double</code> fields are written without boxing when their
+ * converter is an {@link IntConverter}, a {@link LongConverter} or a
+ * {@link DoubleConverter}.
+ * 
+ * @author Ignasi Barrera
+ * 
+ * @see PropertyMetadata#getWriter()
+ */
+final class PropertyWriters
+{
+	/**
+	 * Utility class.
+	 */
+	private PropertyWriters()
+	{
+		throw new AssertionError("PropertyWriters can not be instantiated");
+	}
+
+	/**
+	 * Create the writer of the given property.
+	 * 
+	 * @param field The accessible field of the property.
+	 * @param kind The kind of the property.
+	 * @param converter The converter of the property.
+	 * @return The writer, or <code>null</code> if the property must be bound
+	 *         by the reflective {@link AbstractBinder} methods.
+	 */
+	static PropertyWriter forProperty(Field field, PropertyKind kind,
+			Converter<?> converter)
+	{
+		if (kind != PropertyKind.SIMPLE || converter == null)
+		{
+			return null;
+		}
+
+		Class<?> type = field.getType();
+
+		if (type == int.class && converter instanceof IntConverter)
+		{
+			return new IntFieldWriter(field, (IntConverter) converter);
+		}
+		if (type == long.class && converter instanceof LongConverter)
+		{
+			return new LongFieldWriter(field, (LongConverter) converter);
+		}
+		if (type == double.class && converter instanceof DoubleConverter)
+		{
+			return new DoubleFieldWriter(field, (DoubleConverter) converter);
+		}
+
+		return new FieldWriter(field, converter);
+	}
+
+	/**
+	 * Check that the given value can be written to a primitive field.
+	 */
+	private static String required(Field field, String value)
+	{
+		if (value == null)
+		{
+			throw new IllegalArgumentException("Can not set the primitive "
+					+ "property [" + field.getName() + "] to null");
+		}
+
+		return value;
+	}
+
+	/**
+	 * Writes the converted value to the field.
+	 */
+	private static final class FieldWriter implements PropertyWriter
+	{
+		private final Field field;
+
+		private final Converter<?> converter;
+
+		public FieldWriter(Field field, Converter<?> converter)
+		{
+			super();
+			this.field = field;
+			this.converter = converter;
+		}
+
+		@Override
+		public void write(Object target, String value) throws Exception
+		{
+			field.set(target, value == null ? null : converter.convert(value));
+		}
+	}
+
+	/**
+	 * Writes <code>int</code> fields without boxing the values.
+	 */
+	private static final class IntFieldWriter implements PropertyWriter
+	{
+		private final Field field;
+
+		private final IntConverter converter;
+
+		public IntFieldWriter(Field field, IntConverter converter)
+		{
+			super();
+			this.field = field;
+			this.converter = converter;
+		}
+
+		@Override
+		public void write(Object target, String value) throws Exception
+		{
+			field.setInt(target, converter.convertInt(required(field, value)));
+		}
+	}
+
+	/**
+	 * Writes <code>long</code> fields without boxing the values.
+	 */
+	private static final class LongFieldWriter implements PropertyWriter
+	{
+		private final Field field;
+
+		private final LongConverter converter;
+
+		public LongFieldWriter(Field field, LongConverter converter)
+		{
+			super();
+			this.field = field;
+			this.converter = converter;
+		}
+
+		@Override
+		public void write(Object target, String value) throws Exception
+		{
+			field.setLong(target, converter.convertLong(required(field, value)));
+		}
+	}
+
+	/**
+	 * Writes <code>double</code> fields without boxing the values.
+	 */
+	private static final class DoubleFieldWriter implements PropertyWriter
+	{
+		private final Field field;
+
+		private final DoubleConverter converter;
+
+		public DoubleFieldWriter(Field field, DoubleConverter converter)
+		{
+			super();
+			this.field = field;
+			this.converter = converter;
+		}
+
+		@Override
+		public void write(Object target, String value) throws Exception
+		{
+			field.setDouble(target, converter.convertDouble(required(field,
+					value)));
+		}
+	}
+}
@@ -70,7 +70,8 @@ public class RequestParameterBinder<T> extends
 			// Only bind the bindable parameters
 			if (paramName.startsWith(BIND_PARAMETER_PREFIX))
 			{
-				String name = paramName.replaceFirst(BIND_PARAMETER_PREFIX, "");
+				String name = paramName.substring(BIND_PARAMETER_PREFIX
+						.length());
 				bindField(target, name, values);
 			}
 		}
@@ -22,10 +22,14 @@
 
 package org.sjmvc.config;
 
+import java.io.File;
+import java.net.URISyntaxException;
+import java.net.URL;
 import java.util.Properties;
 
 import org.sjmvc.controller.Controller;
 import org.sjmvc.web.dispatch.path.AntPathMatcher;
+import org.sjmvc.web.dispatch.path.DispatcherMode;
 import org.sjmvc.web.dispatch.path.PathMatcher;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -64,6 +68,12 @@ public class Configuration
 	/** The attribute name where the current view will be published. */
 	public static final String CURRENT_VIEW_ATTRIBUTE = "currentView";
 
+	/** The attribute name where the URI template variables will be published. */
+	public static final String PATH_VARIABLES_ATTRIBUTE = "pathVariables";
+
+	/** The attribute name where the requested path will be published. */
+	public static final String REQUESTED_PATH_ATTRIBUTE = "requestedPath";
+
 	// Controller configuration
 
 	/** The prefix for controller mapping properties. */
@@ -78,6 +88,28 @@ public class Configuration
 	/** The suffix for controller class mapping properties. */
 	public static final String CONTROLLER_CLASS_SUFFIX = ".class";
 
+	/** The suffix for controller HTTP method mapping properties. */
+	public static final String CONTROLLER_METHODS_SUFFIX = ".methods";
+
+	/** The suffix for controller factory class mapping properties. */
+	public static final String CONTROLLER_FACTORY_SUFFIX = ".factory";
+
+	/** The suffix for controller scope mapping properties. */
+	public static final String CONTROLLER_SCOPE_SUFFIX = ".scope";
+
+	/** The suffix for the minimum size of pooled controller mappings. */
+	public static final String CONTROLLER_POOL_MIN_SUFFIX = ".pool.min";
+
+	/** The suffix for the maximum size of pooled controller mappings. */
+	public static final String CONTROLLER_POOL_MAX_SUFFIX = ".pool.max";
+
+	/** The default minimum size of pooled controller mappings. */
+	public static final int DEFAULT_CONTROLLER_POOL_MIN = 0;
+
+	/** The default maximum size of pooled controller mappings. */
+	public static final int DEFAULT_CONTROLLER_POOL_MAX = 2 * Runtime
+			.getRuntime().availableProcessors();
+
 	// Dipatcher configuration
 
 	/** The suffix for controller class mapping properties. */
@@ -86,17 +118,29 @@ public class Configuration
 	/** The default {@link PathMatcher} to use if none is configured. */
 	public static final Class<? extends PathMatcher> DEFAULT_PATH_MATCHER = AntPathMatcher.class;
 
+	/** The property used to configure the dispatcher mode. */
+	public static final String DISPATCHER_MODE_PROPERTY = "sjmvc.dispatcher.mode";
+
+	/** The default {@link DispatcherMode} to use if none is configured. */
+	public static final DispatcherMode DEFAULT_DISPATCHER_MODE = DispatcherMode.LINEAR;
+
+	/** The property used to configure the size of the resolved route cache. */
+	public static final String DISPATCHER_CACHE_SIZE_PROPERTY = "sjmvc.dispatcher.cache.size";
+
+	/** The default size of the resolved route cache (disabled). */
+	public static final int DEFAULT_DISPATCHER_CACHE_SIZE = 0;
+
+	/** The property used to configure the configuration reload interval. */
+	public static final String RELOAD_INTERVAL_PROPERTY = "sjmvc.config.reload.interval";
+
+	/** The default configuration reload interval (disabled). */
+	public static final long DEFAULT_RELOAD_INTERVAL = 0;
+
 	// Main configuration
 
 	/** The main configuration file. */
 	private static final String CONFIG_FILE = "sjmvc.properties";
 
-	/** The singleton instance of the configuration object. */
-	private static Configuration instance;
-
-	/** The configuration properties. */
-	private Properties properties;
-
 	/**
 	 * Private constructor. This class should ot be instantiated.
 	 */
@@ -107,36 +151,87 @@ public class Configuration
 
 	/**
 	 * Gets the configuration properties.
+	 * <p>
+	 * The properties are loaded the first time they are used. Changes made to
+	 * the returned properties are only visible to the snapshots created after
+	 * them.
 	 * 
 	 * @return The configuration properties.
+	 * @see #createSnapshot()
 	 */
 	public static Properties getConfiguration()
 	{
-		if (instance == null)
+		if (ConfigurationHolder.FAILURE != null)
 		{
-			instance = new Configuration();
+			throw new ConfigurationException(
+					ConfigurationHolder.FAILURE.getMessage(),
+					ConfigurationHolder.FAILURE);
+		}
 
-			LOGGER.debug("Loading configuration from {}", CONFIG_FILE);
+		return ConfigurationHolder.PROPERTIES;
+	}
 
-			// Load properties
-			ClassLoader cl = Thread.currentThread().getContextClassLoader();
-			instance.properties = new Properties();
+	/**
+	 * Creates an immutable snapshot of the current configuration.
+	 * 
+	 * @return The configuration snapshot.
+	 * @throws ConfigurationException If the configuration is not valid.
+	 */
+	public static ConfigurationSnapshot createSnapshot()
+			throws ConfigurationException
+	{
+		return new ConfigurationSnapshot(getConfiguration());
+	}
 
-			try
-			{
-				instance.properties.load(cl.getResourceAsStream(CONFIG_FILE));
-			}
-			catch (Exception ex)
-			{
-				throw new ConfigurationException(
-						"Could not load configuration file: " + ex.getMessage());
-			}
+	/**
+	 * Get the configuration file.
+	 * 
+	 * @return The configuration file, or <code>null</code> if the
+	 *         configuration is not loaded from a file in the file system.
+	 */
+	public static File getConfigurationFile()
+	{
+		ClassLoader cl = Thread.currentThread().getContextClassLoader();
+		URL url = cl.getResource(CONFIG_FILE);
 
-			LOGGER.debug("Loaded {} configuration properties",
-					instance.properties.size());
+		if (url == null || !"file".equals(url.getProtocol()))
+		{
+			return null;
 		}
 
-		return instance.properties;
+		try
+		{
+			return new File(url.toURI());
+		}
+		catch (URISyntaxException ex)
+		{
+			return null;
+		}
+	}
+
+	/**
+	 * Load the configuration properties.
+	 */
+	private static Properties load()
+	{
+		LOGGER.debug("Loading configuration from {}", CONFIG_FILE);
+
+		ClassLoader cl = Thread.currentThread().getContextClassLoader();
+		Properties properties = new Properties();
+
+		try
+		{
+			properties.load(cl.getResourceAsStream(CONFIG_FILE));
+		}
+		catch (Exception ex)
+		{
+			throw new ConfigurationException(
+					"Could not load configuration file: " + ex.getMessage());
+		}
+
+		LOGGER.debug("Loaded {} configuration properties", properties.size());
+
+		return properties;
 	}
 
 	/**
@@ -169,11 +264,43 @@ public class Configuration
 	 * 
 	 * @return The configured
 	 */
-	@SuppressWarnings("unchecked")
 	public static Class<? extends PathMatcher> getPathMatcherClass()
 	{
-		String configuredPathMatcher = getConfigValue(PATH_MATCHER_PROPERTY);
+		return parsePathMatcherClass(getConfigValue(PATH_MATCHER_PROPERTY));
+	}
 
+	/**
+	 * Get the configured mode used to resolve the {@link Controller} mappings.
+	 * 
+	 * @return The configured dispatcher mode.
+	 */
+	public static DispatcherMode getDispatcherMode()
+	{
+		return parseDispatcherMode(getConfigValue(DISPATCHER_MODE_PROPERTY));
+	}
+
+	/**
+	 * Get the configured number of resolved routes to cache.
+	 * 
+	 * @return The configured cache size. Zero means that the cache is
+	 *         disabled.
+	 */
+	public static int getDispatcherCacheSize()
+	{
+		return parseDispatcherCacheSize(getConfigValue(DISPATCHER_CACHE_SIZE_PROPERTY));
+	}
+
+	/**
+	 * Parse the configured path matcher class.
+	 * 
+	 * @param configuredPathMatcher The configured class name, or
+	 *            <code>null</code> to use the default path matcher.
+	 * @return The path matcher class.
+	 */
+	@SuppressWarnings("unchecked")
+	static Class<? extends PathMatcher> parsePathMatcherClass(
+			final String configuredPathMatcher)
+	{
 		if (configuredPathMatcher != null)
 		{
 			try
@@ -194,4 +321,130 @@ public class Configuration
 			return DEFAULT_PATH_MATCHER;
 		}
 	}
+
+	/**
+	 * Parse the configured dispatcher mode.
+	 * 
+	 * @param configuredMode The configured mode, or <code>null</code> to use
+	 *            the default mode.
+	 * @return The dispatcher mode.
+	 */
+	static DispatcherMode parseDispatcherMode(final String configuredMode)
+	{
+		if (configuredMode != null)
+		{
+			try
+			{
+				return DispatcherMode.valueOf(configuredMode.trim()
+						.toUpperCase());
+			}
+			catch (IllegalArgumentException ex)
+			{
+				throw new ConfigurationException(
+						"Invalid dispatcher mode: " + configuredMode);
+			}
+		}
+		else
+		{
+			return DEFAULT_DISPATCHER_MODE;
+		}
+	}
+
+	/**
+	 * Parse the configured number of resolved routes to cache.
+	 * 
+	 * @param configuredSize The configured size, or <code>null</code> to use
+	 *            the default size.
+	 * @return The cache size.
+	 */
+	static int parseDispatcherCacheSize(final String configuredSize)
+	{
+		if (configuredSize != null)
+		{
+			try
+			{
+				int size = Integer.parseInt(configuredSize.trim());
+				if (size >= 0)
+				{
+					return size;
+				}
+			}
+			catch (NumberFormatException ex)
+			{
+				// Handled below
+			}
+
+			throw new ConfigurationException("Invalid dispatcher cache size: "
+					+ configuredSize);
+		}
+		else
+		{
+			return DEFAULT_DISPATCHER_CACHE_SIZE;
+		}
+	}
+
+	/**
+	 * Parse the configured configuration reload interval.
+	 * 
+	 * @param configuredInterval The configured interval in milliseconds, or
+	 *            <code>null</code> to use the default interval.
+	 * @return The reload interval. Zero means that reloading is disabled.
+	 */
+	static long parseReloadInterval(final String configuredInterval)
+	{
+		if (configuredInterval != null)
+		{
+			try
+			{
+				long interval = Long.parseLong(configuredInterval.trim());
+				if (interval >= 0)
+				{
+					return interval;
+				}
+			}
+			catch (NumberFormatException ex)
+			{
+				// Handled below
+			}
+
+			throw new ConfigurationException(
+					"Invalid configuration reload interval: "
+							+ configuredInterval);
+		}
+		else
+		{
+			return DEFAULT_RELOAD_INTERVAL;
+		}
+	}
+
+	/**
+	 * Holds the configuration properties, so they are loaded once, the first
+	 * time they are used, without synchronization.
+	 */
+	private static class ConfigurationHolder
+	{
+		/** The configuration properties. */
+		private static final Properties PROPERTIES;
+
+		/** The error found loading the properties, if any. */
+		private static final ConfigurationException FAILURE;
+
+		static
+		{
+			Properties properties = null;
+			ConfigurationException failure = null;
+
+			try
+			{
+				properties = load();
+			}
+			catch (ConfigurationException ex)
+			{
+				failure = ex;
+			}
+
+			PROPERTIES = properties;
+			FAILURE = failure;
+		}
+	}
 }
@@ -0,0 +1,130 @@
+/**
+ * Copyright (c) 2010 Ignasi Barrera
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.sjmvc.config;
+
+import static org.sjmvc.config.Configuration.DISPATCHER_CACHE_SIZE_PROPERTY;
+import static org.sjmvc.config.Configuration.DISPATCHER_MODE_PROPERTY;
+import static org.sjmvc.config.Configuration.PATH_MATCHER_PROPERTY;
+import static org.sjmvc.config.Configuration.RELOAD_INTERVAL_PROPERTY;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.TreeMap;
+
+import org.sjmvc.web.dispatch.path.DispatcherMode;
+import org.sjmvc.web.dispatch.path.PathMatcher;
+
+/**
+ * Immutable snapshot of the application configuration.
+ * <p>
+ * The configuration properties are parsed and validated once, when the
+ * snapshot is created, so the components that use the snapshot do not need to
+ * read the {@link Properties} again. Snapshots can be safely shared between
+ * threads.
+ * 
+ * @author Ignasi Barrera
+ * 
+ * @see Configuration#createSnapshot()
+ */
+public final class ConfigurationSnapshot
+{
+	/** The path matcher class. */
+	private final Class<? extends PathMatcher> pathMatcherClass;
+
+	/** The dispatcher mode. */
+	private final DispatcherMode dispatcherMode;
+
+	/** The number of resolved routes to cache. */
+	private final int dispatcherCacheSize;
+
+	/**
+	 * The interval between configuration file checks, in milliseconds. Zero
+	 * means that the configuration is not reloaded.
+	 */
+	private final long reloadInterval;
+
+	/** The controller mappings, sorted by name. */
+	private final List<MappingDefinition> mappings;
+
+	/**
+	 * Creates the snapshot of the given configuration properties.
+	 * 
+	 * @param properties The configuration properties.
+	 * @throws ConfigurationException If the configuration is not valid.
+	 */
+	public ConfigurationSnapshot(final Properties properties)
+			throws ConfigurationException
+	{
+		super();
+
+		// Copy the properties, as they may be modified while being parsed
+		Map<String, String> config = new TreeMap<String, String>();
+		for (String name : properties.stringPropertyNames())
+		{
+			String value = properties.getProperty(name);
+			if (value != null)
+			{
+				config.put(name, value);
+			}
+		}
+
+		pathMatcherClass = Configuration.parsePathMatcherClass(config
+				.get(PATH_MATCHER_PROPERTY));
+		dispatcherMode = Configuration.parseDispatcherMode(config
+				.get(DISPATCHER_MODE_PROPERTY));
+		dispatcherCacheSize = Configuration.parseDispatcherCacheSize(config
+				.get(DISPATCHER_CACHE_SIZE_PROPERTY));
+		reloadInterval = Configuration.parseReloadInterval(config
+				.get(RELOAD_INTERVAL_PROPERTY));
+		mappings = Collections.unmodifiableList(MappingParser
+				.parseMappings(config));
+	}
+
+	// Getters
+
+	public Class<? extends PathMatcher> getPathMatcherClass()
+	{
+		return pathMatcherClass;
+	}
+
+	public DispatcherMode getDispatcherMode()
+	{
+		return dispatcherMode;
+	}
+
+	public int getDispatcherCacheSize()
+	{
+		return dispatcherCacheSize;
+	}
+
+	public long getReloadInterval()
+	{
+		return reloadInterval;
+	}
+
+	public List<MappingDefinition> getMappings()
+	{
+		return mappings;
+	}
+}
@@ -0,0 +1,191 @@
+/**
+ * Copyright (c) 2010 Ignasi Barrera
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.sjmvc.config;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.InputStream;
+import java.util.Properties;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Watches the configuration file and notifies a {@link ConfigurationListener}
+ * when it is modified.
+ * <p>
+ * The file is checked periodically from a daemon thread, so the configuration
+ * is parsed outside the request processing threads. Invalid configurations are
+ * logged and ignored, so the listener only receives valid ones.
+ * 
+ * @author Ignasi Barrera
+ * 
+ * @see Configuration#RELOAD_INTERVAL_PROPERTY
+ */
+public class ConfigurationWatcher implements Runnable
+{
+	/** The logger. */
+	private static final Logger LOGGER = LoggerFactory
+			.getLogger(ConfigurationWatcher.class);
+
+	/** The watched configuration file. */
+	private final File file;
+
+	/** The interval between file checks, in milliseconds. */
+	private final long interval;
+
+	/** The listener to notify. */
+	private final ConfigurationListener listener;
+
+	/** The thread that checks the file. */
+	private volatile Thread thread;
+
+	/** The last modification time of the file. */
+	private long lastModified;
+
+	/** The last size of the file. */
+	private long length;
+
+	/**
+	 * Creates the watcher.
+	 * 
+	 * @param file The configuration file.
+	 * @param interval The interval between file checks, in milliseconds.
+	 * @param listener The listener to notify.
+	 */
+	public ConfigurationWatcher(final File file, final long interval,
+			final ConfigurationListener listener)
+	{
+		super();
+		this.file = file;
+		this.interval = interval;
+		this.listener = listener;
+		this.lastModified = file.lastModified();
+		this.length = file.length();
+	}
+
+	/**
+	 * Start watching the configuration file.
+	 */
+	public synchronized void start()
+	{
+		if (thread == null)
+		{
+			LOGGER.info("Watching {} for changes every {} ms", file, interval);
+
+			thread = new Thread(this, "sjmvc-configuration-watcher");
+			thread.setDaemon(true);
+			thread.start();
+		}
+	}
+
+	/**
+	 * Stop watching the configuration file.
+	 */
+	public synchronized void stop()
+	{
+		if (thread != null)
+		{
+			thread.interrupt();
+			thread = null;
+		}
+	}
+
+	@Override
+	public void run()
+	{
+		Thread current = Thread.currentThread();
+
+		while (thread == current)
+		{
+			try
+			{
+				Thread.sleep(interval);
+			}
+			catch (InterruptedException ex)
+			{
+				break;
+			}
+
+			check();
+		}
+	}
+
+	/**
+	 * Check if the configuration file has been modified and notify the
+	 * listener if it has.
+	 * 
+	 * @return Boolean indicating if the listener has been notified.
+	 */
+	boolean check()
+	{
+		long currentLastModified = file.lastModified();
+		long currentLength = file.length();
+
+		if (currentLastModified == lastModified && currentLength == length)
+		{
+			return false;
+		}
+
+		lastModified = currentLastModified;
+		length = currentLength;
+
+		LOGGER.info("Reloading configuration from {}", file);
+
+		ConfigurationSnapshot configuration = null;
+
+		try
+		{
+			configuration = new ConfigurationSnapshot(load());
+		}
+		catch (Exception ex)
+		{
+			LOGGER.error("Could not reload the configuration. "
+					+ "The current configuration will be kept: "
+					+ ex.getMessage(), ex);
+			return false;
+		}
+
+		listener.configurationChanged(configuration);
+		return true;
+	}
+
+	/**
+	 * Load the configuration file.
+	 */
+	private Properties load() throws Exception
+	{
+		Properties properties = new Properties();
+		InputStream in = new FileInputStream(file);
+
+		try
+		{
+			properties.load(in);
+		}
+		finally
+		{
+			in.close();
+		}
+
+		return properties;
+	}
+}
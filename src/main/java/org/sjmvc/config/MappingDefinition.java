@@ -0,0 +1,130 @@
+/**
+ * Copyright (c) 2010 Ignasi Barrera
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.sjmvc.config;
+
+import java.util.Set;
+
+import org.sjmvc.controller.ControllerScope;
+
+/**
+ * The configuration of a controller mapping.
+ * <p>
+ * Instances of this class are immutable. The controller and factory classes
+ * are not loaded until the mapping is used by the dispatcher.
+ * 
+ * @author Ignasi Barrera
+ * 
+ * @see ConfigurationSnapshot
+ */
+public final class MappingDefinition
+{
+	/** The name of the mapping in the configuration file. */
+	private final String name;
+
+	/** The mapped resource path. */
+	private final String path;
+
+	/** The name of the controller class. */
+	private final String controllerClass;
+
+	/** The layout, or <code>null</code> if no layout is used. */
+	private final String layout;
+
+	/** The accepted HTTP methods, or <code>null</code> to accept all methods. */
+	private final Set<String> methods;
+
+	/** The name of the factory class, or <code>null</code> to use the default. */
+	private final String factoryClass;
+
+	/** The scope of the controller instances. */
+	private final ControllerScope scope;
+
+	/** The minimum size of the pool of controllers. */
+	private final int poolMin;
+
+	/** The maximum size of the pool of controllers. */
+	private final int poolMax;
+
+	MappingDefinition(final String name, final String path,
+			final String controllerClass, final String layout,
+			final Set<String> methods, final String factoryClass,
+			final ControllerScope scope, final int poolMin, final int poolMax)
+	{
+		super();
+		this.name = name;
+		this.path = path;
+		this.controllerClass = controllerClass;
+		this.layout = layout;
+		this.methods = methods;
+		this.factoryClass = factoryClass;
+		this.scope = scope;
+		this.poolMin = poolMin;
+		this.poolMax = poolMax;
+	}
+
+	// Getters
+
+	public String getName()
+	{
+		return name;
+	}
+
+	public String getPath()
+	{
+		return path;
+	}
+
+	public String getControllerClass()
+	{
+		return controllerClass;
+	}
+
+	public String getLayout()
+	{
+		return layout;
+	}
+
+	public Set<String> getMethods()
+	{
+		return methods;
+	}
+
+	public String getFactoryClass()
+	{
+		return factoryClass;
+	}
+
+	public ControllerScope getScope()
+	{
+		return scope;
+	}
+
+	public int getPoolMin()
+	{
+		return poolMin;
+	}
+
+	public int getPoolMax()
+	{
+		return poolMax;
+	}
+}
@@ -0,0 +1,236 @@
+/**
+ * Copyright (c) 2010 Ignasi Barrera
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package org.sjmvc.config;
+
+import static org.sjmvc.config.Configuration.CONTROLLER_CLASS_SUFFIX;
+import static org.sjmvc.config.Configuration.CONTROLLER_FACTORY_SUFFIX;
+import static org.sjmvc.config.Configuration.CONTROLLER_LAYOUT_SUFFIX;
+import static org.sjmvc.config.Configuration.CONTROLLER_METHODS_SUFFIX;
+import static org.sjmvc.config.Configuration.CONTROLLER_PATH_SUFFIX;
+import static org.sjmvc.config.Configuration.CONTROLLER_POOL_MAX_SUFFIX;
+import static org.sjmvc.config.Configuration.CONTROLLER_POOL_MIN_SUFFIX;
+import static org.sjmvc.config.Configuration.CONTROLLER_PREFIX;
+import static org.sjmvc.config.Configuration.CONTROLLER_SCOPE_SUFFIX;
+import static org.sjmvc.config.Configuration.DEFAULT_CONTROLLER_POOL_MAX;
+import static org.sjmvc.config.Configuration.DEFAULT_CONTROLLER_POOL_MIN;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+import org.sjmvc.controller.ControllerScope;
+
+/**
+ * Parses the controller mappings defined in the configuration properties.
+ * <p>
+ * This is the only place where the mapping properties are interpreted, so the
+ * configuration snapshot, the route generator and the generated route
+ * providers parse them the same way.
+ * 
+ * @author Ignasi Barrera
+ * 
+ * @see MappingDefinition
+ */
+public final class MappingParser
+{
+	/** The GET HTTP method. */
+	private static final String METHOD_GET = "GET";
+
+	/** The HEAD HTTP method. */
+	private static final String METHOD_HEAD = "HEAD";
+
+	/**
+	 * Utility class.
+	 */
+	private MappingParser()
+	{
+		throw new AssertionError("MappingParser can not be instantiated");
+	}
+
+	/**
+	 * Parse all the controller mappings of the given configuration.
+	 * 
+	 * @param config The configuration properties.
+	 * @return The controller mappings, in the iteration order of the
+	 *         configuration.
+	 * @throws ConfigurationException If any mapping is not valid.
+	 */
+	public static List<MappingDefinition> parseMappings(
+			final Map<String, String> config) throws ConfigurationException
+	{
+		List<MappingDefinition> mappings = new ArrayList<MappingDefinition>();
+
+		for (String key : config.keySet())
+		{
+			if (Configuration.isControllerPathProperty(key))
+			{
+				mappings.add(parseMapping(config, key));
+			}
+		}
+
+		return mappings;
+	}
+
+	/**
+	 * Parse the controller mapping defined by the given path property.
+	 * 
+	 * @param config The configuration properties.
+	 * @param key The name of the path property of the mapping.
+	 * @return The controller mapping.
+	 * @throws ConfigurationException If the mapping is not valid.
+	 */
+	public static MappingDefinition parseMapping(
+			final Map<String, String> config, final String key)
+			throws ConfigurationException
+	{
+		String path = config.get(key);
+		String name = key.substring(CONTROLLER_PREFIX.length(), key.length()
+				- CONTROLLER_PATH_SUFFIX.length());
+		String clazz = getMappingProperty(config, key, CONTROLLER_CLASS_SUFFIX);
+
+		if (clazz == null)
+		{
+			throw new ConfigurationException(
+					"Missing controller class for path: " + path);
+		}
+
+		return new MappingDefinition(name, path, clazz.trim(),
+				getMappingProperty(config, key, CONTROLLER_LAYOUT_SUFFIX),
+				parseMethods(getMappingProperty(config, key,
+						CONTROLLER_METHODS_SUFFIX)),
+				getMappingProperty(config, key, CONTROLLER_FACTORY_SUFFIX),
+				parseScope(getMappingProperty(config, key,
+						CONTROLLER_SCOPE_SUFFIX)),
+				parsePoolSize(getMappingProperty(config, key,
+						CONTROLLER_POOL_MIN_SUFFIX), DEFAULT_CONTROLLER_POOL_MIN),
+				parsePoolSize(getMappingProperty(config, key,
+						CONTROLLER_POOL_MAX_SUFFIX), DEFAULT_CONTROLLER_POOL_MAX));
+	}
+
+	/**
+	 * Get the property of the mapping defined by the given path property.
+	 * 
+	 * @param config The configuration properties.
+	 * @param key The name of the path property of the mapping.
+	 * @param suffix The suffix of the property to get.
+	 * @return The value of the property, or <code>null</code> if it is not
+	 *         defined.
+	 */
+	public static String getMappingProperty(final Map<String, String> config,
+			final String key, final String suffix)
+	{
+		return config.get(key.substring(0, key.length()
+				- CONTROLLER_PATH_SUFFIX.length())
+				+ suffix);
+	}
+
+	/**
+	 * Parse the scope of the controllers of a mapping.
+	 * 
+	 * @param scope The configured scope.
+	 * @return The scope of the controllers.
+	 * @throws ConfigurationException If the scope is not valid.
+	 */
+	public static ControllerScope parseScope(final String scope)
+			throws ConfigurationException
+	{
+		if (scope == null)
+		{
+			return ControllerScope.PROTOTYPE;
+		}
+
+		try
+		{
+			return ControllerScope.valueOf(scope.trim().toUpperCase());
+		}
+		catch (IllegalArgumentException ex)
+		{
+			throw new ConfigurationException("Invalid controller scope: "
+					+ scope);
+		}
+	}
+
+	/**
+	 * Parse the size of a pool of controllers.
+	 * 
+	 * @param size The configured size.
+	 * @param defaultSize The size to use if none is configured.
+	 * @return The size of the pool.
+	 * @throws ConfigurationException If the size is not a number.
+	 */
+	public static int parsePoolSize(final String size, final int defaultSize)
+			throws ConfigurationException
+	{
+		if (size == null)
+		{
+			return defaultSize;
+		}
+
+		try
+		{
+			return Integer.parseInt(size.trim());
+		}
+		catch (NumberFormatException ex)
+		{
+			throw new ConfigurationException(
+					"Invalid controller pool size: " + size);
+		}
+	}
+
+	/**
+	 * Parse the HTTP methods accepted by a mapping.
+	 * <p>
+	 * Mappings that accept <code>GET</code> requests also accept
+	 * <code>HEAD</code> requests.
+	 * 
+	 * @param methods The comma separated list of methods.
+	 * @return The accepted methods, or <code>null</code> if all methods are
+	 *         accepted.
+	 */
+	public static Set<String> parseMethods(final String methods)
+	{
+		if (methods == null || methods.trim().length() == 0)
+		{
+			return null;
+		}
+
+		Set<String> parsed = new TreeSet<String>();
+		for (String method : methods.split(","))
+		{
+			if (method.trim().length() > 0)
+			{
+				parsed.add(method.trim().toUpperCase());
+			}
+		}
+
+		if (parsed.contains(METHOD_GET))
+		{
+			parsed.add(METHOD_HEAD);
+		}
+
+		return Collections.unmodifiableSet(parsed);
+	}
+}
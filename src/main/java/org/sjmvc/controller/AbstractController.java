@@ -22,6 +22,8 @@
 
 package org.sjmvc.controller;
 
+import java.util.List;
+
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 
@@ -31,6 +33,7 @@ import org.sjmvc.binding.RequestParameterBinder;
 import org.sjmvc.config.Configuration;
 import org.sjmvc.error.Error;
 import org.sjmvc.error.ErrorType;
+import org.sjmvc.error.Errors;
 import org.sjmvc.validation.BeanValidator;
 import org.sjmvc.validation.Validator;
 import org.slf4j.Logger;
@@ -38,6 +41,10 @@ import org.slf4j.LoggerFactory;
 
 /**
  * Base class for {@link Controller} implementations.
+ * <p>
+ * The state of each request (the view, the model and the messages) is kept in a
+ * {@link ControllerContext} bound to the current thread, so subclasses that do not keep request
+ * state in their own fields can be used as singletons.
  * 
  * @author Ignasi Barrera
  * @see Binder
@@ -48,18 +55,28 @@ public abstract class AbstractController implements Controller
     /** The logger. */
     private static final Logger LOGGER = LoggerFactory.getLogger(AbstractController.class);
 
-    /** The list of messages. */
-    protected final Messages messages = new Messages();
+    /** The state of the request being handled by each thread. */
+    private final ThreadLocal<ControllerContext> context = new ThreadLocal<ControllerContext>()
+    {
+        @Override
+        protected ControllerContext initialValue()
+        {
+            return new ControllerContext();
+        }
+    };
+
+    /**
+     * The messages of the request being handled by the current thread.
+     * 
+     * @deprecated Use {@link #getMessages()}. This field delegates to the messages of the current
+     *             request and is kept only for compatibility with existing subclasses.
+     */
+    @Deprecated
+    protected final Messages messages = new CurrentMessages();
 
     /** The validator used to validate model objects. */
     private Validator validator;
 
-    /** The view to return. */
-    private String returnView;
-
-    /** The model to render. */
-    private Object model;
-
     /**
      * Creates a new <code>AbstractController</code> with default values.
      */
@@ -86,33 +103,34 @@ public abstract class AbstractController implements Controller
             // Execute controller logic
             doExecute(request, response);
 
-            if (returnView == null)
+            if (getView() == null)
             {
                 throw new Exception("There was no view set. "
                     + "Use the setView method to set the view to render");
             }
         }
+        catch (ControllerException ex)
+        {
+            // If it is a Controller exception, just propagate it
+            throw ex;
+        }
         catch (Exception ex)
         {
-            if (ex.getCause() instanceof ControllerException)
-            {
-                // If it is a Controller exception, just propagate it
-                throw (ControllerException) ex.getCause();
-            }
-
             throw new ControllerException("Could not execute the Controller logic at "
-                + this.getClass().getName(), ex.getCause() == null ? ex : ex.getCause());
+                + this.getClass().getName(), ex);
         }
 
         // Populate model and errors
-        if (model != null)
+        ControllerContext current = context.get();
+
+        if (current.getModel() != null)
         {
-            request.setAttribute(Configuration.MODEL_ATTRIBUTE, model);
+            request.setAttribute(Configuration.MODEL_ATTRIBUTE, current.getModel());
         }
 
-        request.setAttribute(Configuration.MESSAGES_ATTRIBUTE, messages);
+        request.setAttribute(Configuration.MESSAGES_ATTRIBUTE, current.getMessages());
 
-        return returnView;
+        return current.getView();
     }
 
     /**
@@ -175,7 +193,7 @@ public abstract class AbstractController implements Controller
     {
         RequestParameterBinder<T> binder = new RequestParameterBinder<T>(model, request);
         BindingResult<T> bindingErrors = binder.bind();
-        messages.getErrors().addAll(bindingErrors.getErrors());
+        getMessages().getErrors().addAll(bindingErrors.getErrors());
     }
 
     /**
@@ -187,7 +205,7 @@ public abstract class AbstractController implements Controller
      */
     protected <T> void validate(final T model)
     {
-        messages.getErrors().addAll(validator.validate(model));
+        getMessages().getErrors().addAll(validator.validate(model));
     }
 
     /**
@@ -215,7 +233,7 @@ public abstract class AbstractController implements Controller
      */
     protected void message(final String message)
     {
-        messages.add(message);
+        getMessages().add(message);
     }
 
     /**
@@ -225,7 +243,7 @@ public abstract class AbstractController implements Controller
      */
     protected void error(final String error)
     {
-        messages.getErrors().add(new Error(ErrorType.CONTROLLER, error));
+        getMessages().getErrors().add(new Error(ErrorType.CONTROLLER, error));
     }
 
     /**
@@ -235,20 +253,35 @@ public abstract class AbstractController implements Controller
      */
     public boolean errors()
     {
-        return messages.getErrors().hasErrors();
+        return getMessages().getErrors().hasErrors();
     }
 
     /**
      * Cleanup previous execution data.
      * <p>
-     * This method should only be necessary when using singleton controllers.
+     * A new {@link ControllerContext} is used for each request, so the messages published in
+     * previous requests are not modified. The context is also removed when the controller is
+     * released by its factory, so it does not stay in the thread once the request is handled.
+     */
+    void cleanUp()
+    {
+        context.remove();
+    }
+
+    /**
+     * Removes the request state that the given controller keeps for the current thread.
+     * <p>
+     * {@link ControllerFactory} implementations must call this method when a controller is
+     * released, so the state of the request is not kept by the container threads.
+     * 
+     * @param controller The released controller.
      */
-    private void cleanUp()
+    public static void releaseContext(final Controller controller)
     {
-        // Clear previous data
-        messages.clear();
-        returnView = null;
-        model = null;
+        if (controller instanceof AbstractController)
+        {
+            ((AbstractController) controller).cleanUp();
+        }
     }
 
     // Getters and setters
@@ -257,22 +290,22 @@ public abstract class AbstractController implements Controller
     {
         LOGGER.debug("Setting view to: {}", viewName);
 
-        returnView = viewName;
+        context.get().setView(viewName);
     }
 
     protected String getView()
     {
-        return returnView;
+        return context.get().getView();
     }
 
     public Object getModel()
     {
-        return model;
+        return context.get().getModel();
     }
 
     public void setModel(final Object model)
     {
-        this.model = model;
+        context.get().setModel(model);
     }
 
     public Validator getValidator()
@@ -287,7 +320,66 @@ public abstract class AbstractController implements Controller
 
     public Messages getMessages()
     {
-        return messages;
+        return context.get().getMessages();
+    }
+
+    protected ControllerContext getContext()
+    {
+        return context.get();
+    }
+
+    /**
+     * {@link Messages} that delegate to the messages of the request being handled by the current
+     * thread.
+     * 
+     * @author Ignasi Barrera
+     */
+    private class CurrentMessages extends Messages
+    {
+        /** Serial UID. */
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        public void add(final String message)
+        {
+            AbstractController.this.getMessages().add(message);
+        }
+
+        @Override
+        public boolean hasMessages()
+        {
+            return AbstractController.this.getMessages().hasMessages();
+        }
+
+        @Override
+        public void clear()
+        {
+            AbstractController.this.getMessages().clear();
+        }
+
+        @Override
+        public int messageCount()
+        {
+            return AbstractController.this.getMessages().messageCount();
+        }
+
+        @Override
+        public List<String> getMessages()
+        {
+            return AbstractController.this.getMessages().getMessages();
+        }
+
+        @Override
+        public void setMessages(final List<String> messages)
+        {
+            AbstractController.this.getMessages().setMessages(messages);
+        }
+
+        @Override
+        public Errors getErrors()
+        {
+            return AbstractController.this.getMessages().getErrors();
+        }
     }
 
 }
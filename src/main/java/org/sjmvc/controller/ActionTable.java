@@ -0,0 +1,286 @@
+/**
+ * Copyright (c) 2010 Ignasi Barrera
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package org.sjmvc.controller;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Map;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.sjmvc.config.ConfigurationException;
+import org.sjmvc.util.ClassCache;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * The actions that can be invoked in a {@link MethodInvokingController} class.
+ * <p>
+ * Actions are the public methods of the controller class that are not declared
+ * by the framework, and that receive the request and the response or declare
+ * parameters annotated with {@link PathVariable}, {@link RequestParam} or
+ * {@link Model}. The table of each class is computed once, the first time the
+ * class is used, and is cached without preventing the controller class from
+ * being unloaded.
+ * <p>
+ * Actions whose parameters cannot be resolved are logged when the table is
+ * built, and only fail when they are invoked, so the other actions of the
+ * controller can still be used.
+ * 
+ * @author Ignasi Barrera
+ */
+final class ActionTable
+{
+	/** The logger. */
+	private static final Logger LOGGER = LoggerFactory
+			.getLogger(ActionTable.class);
+
+	/** The action table of each controller class. */
+	private static final ClassCache<ActionTable> TABLES = new ClassCache<ActionTable>() {
+		@Override
+		protected ActionTable compute(final Class<?> controllerClass)
+		{
+			return new ActionTable(controllerClass);
+		}
+	};
+
+	/** The actions, indexed by name. */
+	private final Map<String, Action> actions = new HashMap<String, Action>();
+
+	/**
+	 * Get the action table of the given controller class.
+	 * 
+	 * @param controllerClass The controller class.
+	 * @return The action table.
+	 */
+	public static ActionTable forClass(
+			final Class<? extends MethodInvokingController> controllerClass)
+	{
+		return TABLES.get(controllerClass);
+	}
+
+	/**
+	 * Creates the action table of the given controller class.
+	 * 
+	 * @param controllerClass The controller class.
+	 */
+	private ActionTable(final Class<?> controllerClass)
+	{
+		super();
+
+		// Sort the methods so overloaded actions are always resolved the same
+		// way
+		Method[] methods = controllerClass.getMethods();
+		Arrays.sort(methods, new Comparator<Method>() {
+			@Override
+			public int compare(final Method m1, final Method m2)
+			{
+				return m1.toString().compareTo(m2.toString());
+			}
+		});
+
+		for (Method method : methods)
+		{
+			if (Modifier.isStatic(method.getModifiers())
+					|| isFrameworkMethod(method))
+			{
+				continue;
+			}
+
+			Action action = actions.get(method.getName());
+			Method current = action == null ? null : action.method;
+
+			// Methods with the exact action signature take precedence
+			if ((isAction(method) || ArgumentResolvers
+					.hasResolvableParameters(method))
+					&& (current == null || isExactAction(method)
+							&& !isExactAction(current)))
+			{
+				actions.put(method.getName(), new Action(method.getName(),
+						method));
+			}
+			else if (action == null)
+			{
+				actions.put(method.getName(), new Action(method.getName(),
+						null));
+			}
+		}
+	}
+
+	/**
+	 * Get the action with the given name.
+	 * 
+	 * @param name The name of the action.
+	 * @return The action or <code>null</code> if there is no action with the
+	 *         given name.
+	 */
+	public Action getAction(final String name)
+	{
+		return actions.get(name);
+	}
+
+	/**
+	 * Checks if the given method is declared by the framework.
+	 */
+	private static boolean isFrameworkMethod(final Method method)
+	{
+		try
+		{
+			MethodInvokingController.class.getMethod(method.getName(),
+					method.getParameterTypes());
+			return true;
+		}
+		catch (NoSuchMethodException ex)
+		{
+			return false;
+		}
+	}
+
+	/**
+	 * Checks if the given method receives the request and the response.
+	 */
+	private static boolean isAction(final Method method)
+	{
+		Class<?>[] params = method.getParameterTypes();
+		return params.length == 2
+				&& params[0].isAssignableFrom(HttpServletRequest.class)
+				&& params[1].isAssignableFrom(HttpServletResponse.class);
+	}
+
+	/**
+	 * Checks if the given method receives exactly an
+	 * {@link HttpServletRequest} and an {@link HttpServletResponse}.
+	 */
+	private static boolean isExactAction(final Method method)
+	{
+		Class<?>[] params = method.getParameterTypes();
+		return params.length == 2 && params[0] == HttpServletRequest.class
+				&& params[1] == HttpServletResponse.class;
+	}
+
+	/**
+	 * An action of a {@link MethodInvokingController}.
+	 */
+	static final class Action
+	{
+		/** The name of the action. */
+		private final String name;
+
+		/**
+		 * The action method, or <code>null</code> if there is no method with
+		 * the action name that can be invoked.
+		 */
+		private final Method method;
+
+		/** The invoker of the action method. */
+		private final ActionInvoker invoker;
+
+		/** The error found creating the invoker, if any. */
+		private final ConfigurationException failure;
+
+		public Action(final String name, final Method method)
+		{
+			super();
+			this.name = name;
+			this.method = method;
+
+			ActionInvoker actionInvoker = null;
+			ConfigurationException error = null;
+
+			if (method != null)
+			{
+				try
+				{
+					actionInvoker = invoker(method);
+				}
+				catch (ConfigurationException ex)
+				{
+					LOGGER.warn("The {} action can not be invoked: {}", name,
+							ex.getMessage());
+					error = ex;
+				}
+			}
+
+			this.invoker = actionInvoker;
+			this.failure = error;
+		}
+
+		/**
+		 * Invoke the action in the given controller.
+		 * 
+		 * @param controller The controller.
+		 * @param request The request.
+		 * @param response The response.
+		 * @throws Exception If the action fails. Exceptions thrown by the
+		 *             action method are not wrapped.
+		 * @throws ConfigurationException If the parameters of the action
+		 *             cannot be resolved.
+		 */
+		public void invoke(final MethodInvokingController controller,
+				final HttpServletRequest request,
+				final HttpServletResponse response) throws Exception
+		{
+			if (failure != null)
+			{
+				throw failure;
+			}
+			if (invoker == null)
+			{
+				throw new IllegalArgumentException("The " + name
+						+ " method does not receive the request and the response"
+						+ " or resolvable parameters");
+			}
+
+			invoker.invoke(controller, request, response);
+		}
+
+		/**
+		 * Create the invoker of the given action method.
+		 */
+		private static ActionInvoker invoker(final Method method)
+		{
+			if (ArgumentResolvers.hasResolvableParameters(method))
+			{
+				return new ResolvingActionInvoker(method);
+			}
+
+			return new MethodActionInvoker(method);
+		}
+
+		// Getters
+
+		public String getName()
+		{
+			return name;
+		}
+
+		public Method getMethod()
+		{
+			return method;
+		}
+	}
+}
@@ -0,0 +1,53 @@
+/**
+ * Copyright (c) 2010 Ignasi Barrera
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.sjmvc.controller;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+/**
+ * Resolves the value of a parameter of an action method.
+ * <p>
+ * Resolvers are created once for each parameter when the actions of a
+ * controller class are indexed, so no annotation lookups are needed to resolve
+ * the parameters of each request.
+ * 
+ * @author Ignasi Barrera
+ * 
+ * @see ArgumentResolvers
+ * @see ResolvingActionInvoker
+ */
+interface ArgumentResolver
+{
+	/**
+	 * Resolve the value of the parameter.
+	 * 
+	 * @param controller The controller.
+	 * @param request The request.
+	 * @param response The response.
+	 * @return The value of the parameter.
+	 * @throws Exception If the value of the parameter cannot be resolved.
+	 */
+	public Object resolve(MethodInvokingController controller,
+			HttpServletRequest request, HttpServletResponse response)
+			throws Exception;
+}
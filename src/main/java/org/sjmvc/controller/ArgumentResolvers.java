@@ -0,0 +1,345 @@
+/**
+ * Copyright (c) 2010 Ignasi Barrera
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.sjmvc.controller;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Array;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.Map;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.sjmvc.config.Configuration;
+import org.sjmvc.config.ConfigurationException;
+import org.sjmvc.util.Converter;
+import org.sjmvc.util.ConverterRegistry;
+
+/**
+ * Creates the {@link ArgumentResolver} of the parameters of action methods.
+ * <p>
+ * The supported parameters are the request and the response, and the
+ * parameters annotated with {@link PathVariable}, {@link RequestParam} or
+ * {@link Model}.
+ * 
+ * @author Ignasi Barrera
+ */
+final class ArgumentResolvers
+{
+	private ArgumentResolvers()
+	{
+		throw new AssertionError("ArgumentResolvers can not be instantiated");
+	}
+
+	/**
+	 * Checks if the given method declares parameters that must be resolved.
+	 * 
+	 * @param method The method to check.
+	 * @return Boolean indicating if any of the parameters of the method is
+	 *         annotated with a resolvable annotation.
+	 */
+	public static boolean hasResolvableParameters(final Method method)
+	{
+		for (Annotation[] annotations : method.getParameterAnnotations())
+		{
+			for (Annotation annotation : annotations)
+			{
+				if (annotation instanceof PathVariable
+						|| annotation instanceof RequestParam
+						|| annotation instanceof Model)
+				{
+					return true;
+				}
+			}
+		}
+
+		return false;
+	}
+
+	/**
+	 * Create the resolvers of the parameters of the given method.
+	 * 
+	 * @param method The action method.
+	 * @return The resolvers of the parameters, in the order they are declared.
+	 * @throws ConfigurationException If any parameter cannot be resolved.
+	 */
+	public static ArgumentResolver[] forMethod(final Method method)
+	{
+		Class<?>[] types = method.getParameterTypes();
+		Annotation[][] annotations = method.getParameterAnnotations();
+		ArgumentResolver[] resolvers = new ArgumentResolver[types.length];
+
+		for (int i = 0; i < types.length; i++)
+		{
+			resolvers[i] = forParameter(method, types[i], annotations[i]);
+		}
+
+		return resolvers;
+	}
+
+	/**
+	 * Create the resolver of the given parameter.
+	 */
+	private static ArgumentResolver forParameter(final Method method,
+			final Class<?> type, final Annotation[] annotations)
+	{
+		for (Annotation annotation : annotations)
+		{
+			if (annotation instanceof PathVariable)
+			{
+				return new PathVariableResolver(
+						((PathVariable) annotation).value(), type, converter(
+								method, type));
+			}
+			if (annotation instanceof RequestParam)
+			{
+				RequestParam param = (RequestParam) annotation;
+				return new RequestParamResolver(param.value(),
+						param.required(), type, converter(method, type),
+						defaultValue(type));
+			}
+			if (annotation instanceof Model)
+			{
+				return new ModelResolver(modelConstructor(method, type));
+			}
+		}
+
+		if (type.isAssignableFrom(HttpServletRequest.class))
+		{
+			return REQUEST;
+		}
+		if (type.isAssignableFrom(HttpServletResponse.class))
+		{
+			return RESPONSE;
+		}
+
+		throw new ConfigurationException("Can not resolve the parameter of type "
+				+ type.getName() + " of the action " + method);
+	}
+
+	/**
+	 * Get the converter registered for the given parameter type.
+	 */
+	private static Converter<?> converter(final Method method,
+			final Class<?> type)
+	{
+		Converter<?> converter = ConverterRegistry.getConverter(type);
+
+		if (converter == null)
+		{
+			throw new ConfigurationException("Can not convert values to "
+					+ type.getName() + " in the action " + method);
+		}
+
+		return converter;
+	}
+
+	/**
+	 * Get the value used for missing optional parameters of the given type.
+	 */
+	private static Object defaultValue(final Class<?> type)
+	{
+		return type.isPrimitive() ? Array.get(Array.newInstance(type, 1), 0)
+				: null;
+	}
+
+	/**
+	 * Get the constructor used to create the model objects.
+	 */
+	private static Constructor<?> modelConstructor(final Method method,
+			final Class<?> type)
+	{
+		if (type.isPrimitive() || type.isInterface()
+				|| Modifier.isAbstract(type.getModifiers()))
+		{
+			throw new ConfigurationException("The model parameter of the action "
+					+ method + " must be a concrete class");
+		}
+
+		try
+		{
+			Constructor<?> constructor = type.getDeclaredConstructor();
+			constructor.setAccessible(true);
+			return constructor;
+		}
+		catch (NoSuchMethodException ex)
+		{
+			throw new ConfigurationException("The model parameter of the action "
+					+ method + " must have a default constructor", ex);
+		}
+	}
+
+	/**
+	 * Convert the given value to the type of the parameter.
+	 */
+	private static Object convert(final String name, final Class<?> type,
+			final Converter<?> converter, final String value)
+			throws ControllerException
+	{
+		try
+		{
+			return converter.convert(value);
+		}
+		catch (Exception ex)
+		{
+			throw new ControllerException("Could not convert the value [" + value
+					+ "] of the parameter " + name + " to " + type.getName(), ex);
+		}
+	}
+
+	/** Resolves the request. */
+	private static final ArgumentResolver REQUEST = new ArgumentResolver() {
+		@Override
+		public Object resolve(final MethodInvokingController controller,
+				final HttpServletRequest request,
+				final HttpServletResponse response)
+		{
+			return request;
+		}
+	};
+
+	/** Resolves the response. */
+	private static final ArgumentResolver RESPONSE = new ArgumentResolver() {
+		@Override
+		public Object resolve(final MethodInvokingController controller,
+				final HttpServletRequest request,
+				final HttpServletResponse response)
+		{
+			return response;
+		}
+	};
+
+	/**
+	 * Resolves an URI template variable published by the dispatcher.
+	 */
+	private static final class PathVariableResolver implements ArgumentResolver
+	{
+		private final String name;
+
+		private final Class<?> type;
+
+		private final Converter<?> converter;
+
+		public PathVariableResolver(final String name, final Class<?> type,
+				final Converter<?> converter)
+		{
+			super();
+			this.name = name;
+			this.type = type;
+			this.converter = converter;
+		}
+
+		@Override
+		public Object resolve(final MethodInvokingController controller,
+				final HttpServletRequest request,
+				final HttpServletResponse response) throws Exception
+		{
+			@SuppressWarnings("unchecked")
+			Map<String, String> variables = (Map<String, String>) request
+					.getAttribute(Configuration.PATH_VARIABLES_ATTRIBUTE);
+			String value = variables == null ? null : variables.get(name);
+
+			if (value == null)
+			{
+				throw new ControllerException("Missing path variable " + name);
+			}
+
+			return convert(name, type, converter, value);
+		}
+	}
+
+	/**
+	 * Resolves a request parameter.
+	 */
+	private static final class RequestParamResolver implements ArgumentResolver
+	{
+		private final String name;
+
+		private final boolean required;
+
+		private final Class<?> type;
+
+		private final Converter<?> converter;
+
+		private final Object defaultValue;
+
+		public RequestParamResolver(final String name, final boolean required,
+				final Class<?> type, final Converter<?> converter,
+				final Object defaultValue)
+		{
+			super();
+			this.name = name;
+			this.required = required;
+			this.type = type;
+			this.converter = converter;
+			this.defaultValue = defaultValue;
+		}
+
+		@Override
+		public Object resolve(final MethodInvokingController controller,
+				final HttpServletRequest request,
+				final HttpServletResponse response) throws Exception
+		{
+			String value = request.getParameter(name);
+
+			if (value == null)
+			{
+				if (required)
+				{
+					throw new ControllerException("Missing request parameter "
+							+ name);
+				}
+
+				return defaultValue;
+			}
+
+			return convert(name, type, converter, value);
+		}
+	}
+
+	/**
+	 * Binds and validates a new model object.
+	 */
+	private static final class ModelResolver implements ArgumentResolver
+	{
+		private final Constructor<?> constructor;
+
+		public ModelResolver(final Constructor<?> constructor)
+		{
+			super();
+			this.constructor = constructor;
+		}
+
+		@Override
+		public Object resolve(final MethodInvokingController controller,
+				final HttpServletRequest request,
+				final HttpServletResponse response) throws Exception
+		{
+			Object model = constructor.newInstance();
+			controller.bindAndValidate(model, request);
+			controller.setModel(model);
+			return model;
+		}
+	}
+}
@@ -0,0 +1,113 @@
+/**
+ * Copyright (c) 2010 Ignasi Barrera
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package org.sjmvc.controller;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Modifier;
+
+import org.sjmvc.config.ConfigurationException;
+
+/**
+ * {@link ControllerFactory} that creates a new controller for each request
+ * using its default constructor.
+ * <p>
+ * The constructor is resolved once when the factory is created, so invalid
+ * controller classes are reported when the controller mappings are loaded.
+ * 
+ * @author Ignasi Barrera
+ */
+public class ConstructorControllerFactory implements ControllerFactory
+{
+	/** The constructor used to create the controllers. */
+	private final Constructor<? extends Controller> constructor;
+
+	/**
+	 * Creates the factory.
+	 * 
+	 * @param controllerClass The class of the controllers to create.
+	 * @throws ConfigurationException If the class cannot be instantiated using
+	 *             its default constructor.
+	 */
+	public ConstructorControllerFactory(
+			final Class<? extends Controller> controllerClass)
+			throws ConfigurationException
+	{
+		super();
+
+		if (controllerClass.isInterface()
+				|| Modifier.isAbstract(controllerClass.getModifiers()))
+		{
+			throw new ConfigurationException("Cannot instantiate controller "
+					+ controllerClass.getName() + ": class is abstract");
+		}
+
+		try
+		{
+			constructor = controllerClass.getDeclaredConstructor();
+			// Avoid the access checks on each invocation
+			constructor.setAccessible(true);
+		}
+		catch (NoSuchMethodException ex)
+		{
+			throw new ConfigurationException("Cannot instantiate controller "
+					+ controllerClass.getName()
+					+ ": missing default constructor", ex);
+		}
+		catch (SecurityException ex)
+		{
+			throw new ConfigurationException("Cannot instantiate controller "
+					+ controllerClass.getName() + ": " + ex.getMessage(), ex);
+		}
+	}
+
+	@Override
+	public Controller getController() throws ControllerException
+	{
+		try
+		{
+			return constructor.newInstance();
+		}
+		catch (InvocationTargetException ex)
+		{
+			throw new ControllerException("Could not create controller "
+					+ constructor.getDeclaringClass().getName() + ": "
+					+ ex.getTargetException().getMessage(),
+					ex.getTargetException());
+		}
+		catch (Exception ex)
+		{
+			throw new ControllerException("Could not create controller "
+					+ constructor.getDeclaringClass().getName() + ": "
+					+ ex.getMessage(), ex);
+		}
+	}
+
+	@Override
+	public void releaseController(final Controller controller)
+	{
+		// The controller is discarded, but the state of the request must not
+		// stay in the thread
+		AbstractController.releaseContext(controller);
+	}
+}
@@ -0,0 +1,73 @@
+/**
+ * Copyright (c) 2010 Ignasi Barrera
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package org.sjmvc.controller;
+
+/**
+ * The state of the request being handled by an {@link AbstractController}.
+ * <p>
+ * Each thread that executes a controller has its own context, so a single
+ * controller instance can handle concurrent requests.
+ * 
+ * @author Ignasi Barrera
+ * 
+ * @see ControllerScope#SINGLETON
+ */
+public class ControllerContext
+{
+	/** The list of messages. */
+	private final Messages messages = new Messages();
+
+	/** The view to return. */
+	private String view;
+
+	/** The model to render. */
+	private Object model;
+
+	// Getters and setters
+
+	public Messages getMessages()
+	{
+		return messages;
+	}
+
+	public String getView()
+	{
+		return view;
+	}
+
+	public void setView(String view)
+	{
+		this.view = view;
+	}
+
+	public Object getModel()
+	{
+		return model;
+	}
+
+	public void setModel(Object model)
+	{
+		this.model = model;
+	}
+
+}
@@ -0,0 +1,138 @@
+/**
+ * Copyright (c) 2010 Ignasi Barrera
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package org.sjmvc.controller;
+
+import java.lang.reflect.InvocationTargetException;
+
+import org.sjmvc.config.ConfigurationException;
+
+/**
+ * Creates the {@link ControllerFactory} of the controller mappings.
+ * <p>
+ * This is the single place where the scope of the controllers is applied, so
+ * the mappings loaded from the configuration and the ones of the generated
+ * route providers create their controllers the same way.
+ * 
+ * @author Ignasi Barrera
+ */
+public final class ControllerFactories
+{
+	private ControllerFactories()
+	{
+		throw new AssertionError("ControllerFactories can not be instantiated");
+	}
+
+	/**
+	 * Create the {@link ControllerFactory} used to create the controllers of a
+	 * mapping.
+	 * 
+	 * @param controllerClass The controller class.
+	 * @param factory The name of the configured factory class, or
+	 *            <code>null</code> to use the default factory.
+	 * @param scope The scope of the controllers.
+	 * @param poolMin The minimum size of the pool of controllers.
+	 * @param poolMax The maximum size of the pool of controllers.
+	 * @return The controller factory.
+	 * @throws ConfigurationException If the factory cannot be created.
+	 */
+	public static ControllerFactory createControllerFactory(
+			final Class<Controller> controllerClass, final String factory,
+			final ControllerScope scope, final int poolMin, final int poolMax)
+			throws ConfigurationException
+	{
+		ControllerFactory controllerFactory = factory == null ? new ConstructorControllerFactory(
+				controllerClass) : loadControllerFactory(controllerClass,
+				factory);
+
+		return scoped(controllerFactory, scope, poolMin, poolMax);
+	}
+
+	/**
+	 * Wrap the given factory so it creates the controllers in the given scope.
+	 * 
+	 * @param factory The factory that creates the controller instances.
+	 * @param scope The scope of the controllers.
+	 * @param poolMin The minimum size of the pool of controllers.
+	 * @param poolMax The maximum size of the pool of controllers.
+	 * @return The controller factory.
+	 */
+	public static ControllerFactory scoped(final ControllerFactory factory,
+			final ControllerScope scope, final int poolMin, final int poolMax)
+	{
+		switch (scope)
+		{
+			case SINGLETON:
+				return new SingletonControllerFactory(factory);
+			case POOLED:
+				return new PooledControllerFactory(factory, poolMin, poolMax);
+			default:
+				return factory;
+		}
+	}
+
+	/**
+	 * Load the configured {@link ControllerFactory} class.
+	 * 
+	 * @param controllerClass The controller class.
+	 * @param factory The name of the configured factory class.
+	 * @return The controller factory.
+	 * @throws ConfigurationException If the factory cannot be created.
+	 */
+	private static ControllerFactory loadControllerFactory(
+			final Class<Controller> controllerClass, final String factory)
+			throws ConfigurationException
+	{
+		try
+		{
+			ClassLoader cl = Thread.currentThread().getContextClassLoader();
+			Class<?> factoryClass = Class.forName(factory.trim(), true, cl);
+
+			if (!ControllerFactory.class.isAssignableFrom(factoryClass))
+			{
+				throw new ConfigurationException("Class " + factory
+						+ " does not implement "
+						+ ControllerFactory.class.getName());
+			}
+
+			return (ControllerFactory) factoryClass.getConstructor(Class.class)
+					.newInstance(controllerClass);
+		}
+		catch (ConfigurationException ex)
+		{
+			throw ex;
+		}
+		catch (InvocationTargetException ex)
+		{
+			throw new ConfigurationException(
+					"Could not create controller factory " + factory + ": "
+							+ ex.getTargetException().getMessage(),
+					ex.getTargetException());
+		}
+		catch (Exception ex)
+		{
+			throw new ConfigurationException(
+					"Could not create controller factory " + factory + ": "
+							+ ex.getMessage(), ex);
+		}
+	}
+}
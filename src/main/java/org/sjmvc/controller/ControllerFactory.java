@@ -0,0 +1,54 @@
+/**
+ * Copyright (c) 2010 Ignasi Barrera
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package org.sjmvc.controller;
+
+/**
+ * Creates the {@link Controller} instances used to handle the requests to a
+ * mapped resource.
+ * <p>
+ * Each mapped resource has its own factory, that is created when the controller
+ * mappings are loaded. Factories configured in the controller mappings must
+ * declare a public constructor that receives the mapped controller class.
+ * 
+ * @author Ignasi Barrera
+ * 
+ * @see ConstructorControllerFactory
+ * @see org.sjmvc.web.ResourceMapping#getControllerFactory()
+ */
+public interface ControllerFactory
+{
+	/**
+	 * Get the controller that will handle a request.
+	 * 
+	 * @return The controller.
+	 * @throws ControllerException If the controller cannot be created.
+	 */
+	public Controller getController() throws ControllerException;
+
+	/**
+	 * Release a controller once it has handled the request.
+	 * 
+	 * @param controller The controller returned by {@link #getController()}.
+	 */
+	public void releaseController(Controller controller);
+}
@@ -0,0 +1,57 @@
+/**
+ * Copyright (c) 2010 Ignasi Barrera
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package org.sjmvc.controller;
+
+/**
+ * The lifecycles of the {@link Controller} instances of a mapped resource.
+ * 
+ * @author Ignasi Barrera
+ * 
+ * @see ControllerFactory
+ */
+public enum ControllerScope
+{
+	/**
+	 * A new controller instance is created to handle each request.
+	 */
+	PROTOTYPE,
+
+	/**
+	 * A single controller instance handles all requests concurrently.
+	 * <p>
+	 * The {@link AbstractController} keeps the state of each request in a
+	 * {@link ControllerContext}, so its subclasses can use this scope as long
+	 * as they do not keep request state in their own fields.
+	 */
+	SINGLETON,
+
+	/**
+	 * Controller instances are reused from a bounded pool, and each instance
+	 * handles one request at a time.
+	 * <p>
+	 * This scope avoids creating expensive controllers on each request when
+	 * they cannot be shared between threads.
+	 */
+	POOLED;
+
+}
@@ -0,0 +1,104 @@
+/**
+ * Copyright (c) 2010 Ignasi Barrera
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package org.sjmvc.controller;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.UndeclaredThrowableException;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+/**
+ * {@link ActionInvoker} that invokes an action method that receives the request
+ * and the response.
+ * <p>
+ * The method is made accessible when the invoker is created, so access checks
+ * are not performed on each invocation. Exceptions thrown by the method are
+ * unwrapped from the {@link InvocationTargetException}.
+ * 
+ * @author Ignasi Barrera
+ */
+class MethodActionInvoker implements ActionInvoker
+{
+	/** The action method. */
+	private final Method method;
+
+	/**
+	 * Creates the invoker.
+	 * 
+	 * @param method The action method.
+	 */
+	public MethodActionInvoker(final Method method)
+	{
+		super();
+		this.method = method;
+		this.method.setAccessible(true);
+	}
+
+	@Override
+	public void invoke(final MethodInvokingController controller,
+			final HttpServletRequest request, final HttpServletResponse response)
+			throws Exception
+	{
+		invokeMethod(controller, request, response);
+	}
+
+	/**
+	 * Invoke the action method with the given arguments.
+	 * 
+	 * @param controller The controller.
+	 * @param args The arguments of the action method.
+	 * @throws Exception If the action method fails.
+	 */
+	protected void invokeMethod(final MethodInvokingController controller,
+			final Object... args) throws Exception
+	{
+		try
+		{
+			method.invoke(controller, args);
+		}
+		catch (InvocationTargetException ex)
+		{
+			Throwable target = ex.getTargetException();
+
+			if (target instanceof Exception)
+			{
+				throw (Exception) target;
+			}
+			if (target instanceof Error)
+			{
+				throw (Error) target;
+			}
+
+			throw new UndeclaredThrowableException(target);
+		}
+	}
+
+	// Getters
+
+	public Method getMethod()
+	{
+		return method;
+	}
+}
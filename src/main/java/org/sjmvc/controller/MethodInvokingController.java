@@ -22,13 +22,20 @@
 
 package org.sjmvc.controller;
 
-import java.lang.reflect.Method;
-
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 
+import org.sjmvc.config.Configuration;
+
 /**
  * Controller that delegates execution to a specific method based on the request path.
+ * <p>
+ * The public methods of each controller class are indexed once, the first time the class is
+ * used. Methods declared by the framework cannot be invoked.
+ * <p>
+ * Action methods receive the request and the response, or declare typed parameters annotated
+ * with {@link PathVariable}, {@link RequestParam} or {@link Model}. The resolvers of the
+ * parameters of each action are also created when the class is indexed.
  * 
  * @author Ignasi Barrera
  * @see Controller
@@ -40,9 +47,15 @@ public class MethodInvokingController extends AbstractController
     public void doExecute(final HttpServletRequest request, final HttpServletResponse response)
         throws Exception
     {
-        // Get the name of the method
-        int lastSlash = request.getRequestURI().lastIndexOf("/");
-        String methodName = request.getRequestURI().substring(lastSlash + 1);
+        // Get the name of the method from the path resolved by the dispatcher, if available
+        String path = (String) request.getAttribute(Configuration.REQUESTED_PATH_ATTRIBUTE);
+        if (path == null)
+        {
+            path = request.getRequestURI();
+        }
+
+        int lastSlash = path.lastIndexOf("/");
+        String methodName = path.substring(lastSlash + 1);
 
         doInvoke(methodName, request, response);
     }
@@ -59,18 +72,9 @@ public class MethodInvokingController extends AbstractController
         final HttpServletResponse response) throws Exception
     {
         // Find the target method
-        Method targetMethod = null;
-
-        for (Method method : this.getClass().getMethods())
-        {
-            if (method.getName().equals(methodName))
-            {
-                targetMethod = method;
-                break;
-            }
-        }
+        ActionTable.Action action = ActionTable.forClass(getClass()).getAction(methodName);
 
-        if (targetMethod == null)
+        if (action == null)
         {
             String message =
                 "Could not find a Controller method with name " + methodName + " in class "
@@ -83,7 +87,7 @@ public class MethodInvokingController extends AbstractController
         setView(methodName);
 
         // Execute the target method (parent class will handle exceptions)
-        targetMethod.invoke(this, request, response);
+        action.invoke(this, request, response);
     }
 
 }
@@ -0,0 +1,232 @@
+/**
+ * Copyright (c) 2010 Ignasi Barrera
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package org.sjmvc.controller;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import org.sjmvc.config.ConfigurationException;
+
+/**
+ * {@link ControllerFactory} that reuses the controller instances from a bounded
+ * pool.
+ * <p>
+ * Idle controllers are kept in a fixed array of slots. Each thread starts
+ * looking for an idle controller at a different slot, so concurrent requests
+ * rarely compete for the same slot, and no locks are taken. When there are no
+ * idle controllers a new one is created. Released controllers that do not fit
+ * in the pool are discarded.
+ * <p>
+ * The request state of {@link AbstractController} instances is cleaned up when
+ * they are released. Discarded controllers, and the idle ones when the pool is
+ * destroyed, are closed if they implement {@link java.io.Closeable}.
+ * 
+ * @author Ignasi Barrera
+ * 
+ * @see ControllerScope#POOLED
+ */
+public class PooledControllerFactory implements ControllerFactory
+{
+	/** The factory used to create the controllers. */
+	private final ControllerFactory factory;
+
+	/** The number of controllers created in advance. */
+	private final int minSize;
+
+	/** The idle controllers. */
+	private final AtomicReferenceArray<Controller> idle;
+
+	/** The number of controllers created by the pool. */
+	private final AtomicLong created = new AtomicLong();
+
+	/** The number of times no idle controller was found. */
+	private final AtomicLong exhausted = new AtomicLong();
+
+	/** The number of released controllers that did not fit in the pool. */
+	private final AtomicLong discarded = new AtomicLong();
+
+	/**
+	 * Creates the pool.
+	 * 
+	 * @param factory The factory used to create the controllers.
+	 * @param minSize The number of controllers to create in advance.
+	 * @param maxSize The maximum number of idle controllers to keep.
+	 * @throws ConfigurationException If the pool sizes are not valid or the
+	 *             controllers cannot be created.
+	 */
+	public PooledControllerFactory(final ControllerFactory factory,
+			final int minSize, final int maxSize) throws ConfigurationException
+	{
+		super();
+
+		if (maxSize <= 0 || minSize < 0 || minSize > maxSize)
+		{
+			throw new ConfigurationException("Invalid controller pool size: "
+					+ minSize + " - " + maxSize);
+		}
+
+		this.factory = factory;
+		this.minSize = minSize;
+		this.idle = new AtomicReferenceArray<Controller>(maxSize);
+
+		try
+		{
+			for (int i = 0; i < minSize; i++)
+			{
+				idle.set(i, create());
+			}
+		}
+		catch (ControllerException ex)
+		{
+			throw new ConfigurationException(ex.getMessage(), ex.getCause());
+		}
+	}
+
+	@Override
+	public Controller getController() throws ControllerException
+	{
+		int start = slot();
+
+		for (int i = 0; i < idle.length(); i++)
+		{
+			int index = (start + i) % idle.length();
+			if (idle.get(index) != null)
+			{
+				Controller controller = idle.getAndSet(index, null);
+				if (controller != null)
+				{
+					return controller;
+				}
+			}
+		}
+
+		exhausted.incrementAndGet();
+		return create();
+	}
+
+	@Override
+	public void releaseController(final Controller controller)
+	{
+		AbstractController.releaseContext(controller);
+
+		int start = slot();
+
+		for (int i = 0; i < idle.length(); i++)
+		{
+			int index = (start + i) % idle.length();
+			if (idle.get(index) == null
+					&& idle.compareAndSet(index, null, controller))
+			{
+				return;
+			}
+		}
+
+		discarded.incrementAndGet();
+		SingletonControllerFactory.destroy(controller);
+	}
+
+	/**
+	 * Destroy the idle controllers.
+	 * <p>
+	 * The factory must not be used once it has been destroyed.
+	 */
+	public void destroy()
+	{
+		for (int i = 0; i < idle.length(); i++)
+		{
+			Controller controller = idle.getAndSet(i, null);
+			if (controller != null)
+			{
+				SingletonControllerFactory.destroy(controller);
+			}
+		}
+	}
+
+	/**
+	 * Create a new controller.
+	 */
+	private Controller create() throws ControllerException
+	{
+		Controller controller = factory.getController();
+		created.incrementAndGet();
+		return controller;
+	}
+
+	/**
+	 * Get the slot where the current thread starts looking for controllers.
+	 */
+	private int slot()
+	{
+		return (int) (Thread.currentThread().getId() % idle.length());
+	}
+
+	/**
+	 * Get the number of idle controllers.
+	 * 
+	 * @return The number of idle controllers.
+	 */
+	public int getIdleCount()
+	{
+		int count = 0;
+		for (int i = 0; i < idle.length(); i++)
+		{
+			if (idle.get(i) != null)
+			{
+				count++;
+			}
+		}
+		return count;
+	}
+
+	// Getters
+
+	public ControllerFactory getFactory()
+	{
+		return factory;
+	}
+
+	public int getMinSize()
+	{
+		return minSize;
+	}
+
+	public int getMaxSize()
+	{
+		return idle.length();
+	}
+
+	public long getCreatedCount()
+	{
+		return created.get();
+	}
+
+	public long getExhaustedCount()
+	{
+		return exhausted.get();
+	}
+
+	public long getDiscardedCount()
+	{
+		return discarded.get();
+	}
+}
@@ -0,0 +1,72 @@
+/**
+ * Copyright (c) 2010 Ignasi Barrera
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.sjmvc.controller;
+
+import java.lang.reflect.Method;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+/**
+ * {@link ActionInvoker} that resolves the parameters of the action method
+ * before invoking it.
+ * <p>
+ * The {@link ArgumentResolver} of each parameter is created with the invoker,
+ * so each invocation just runs the resolvers.
+ * 
+ * @author Ignasi Barrera
+ * 
+ * @see ArgumentResolvers
+ */
+class ResolvingActionInvoker extends MethodActionInvoker
+{
+	/** The resolvers of the parameters of the action method. */
+	private final ArgumentResolver[] resolvers;
+
+	/**
+	 * Creates the invoker.
+	 * 
+	 * @param method The action method.
+	 * @throws org.sjmvc.config.ConfigurationException If any parameter of the
+	 *             method cannot be resolved.
+	 */
+	public ResolvingActionInvoker(final Method method)
+	{
+		super(method);
+		this.resolvers = ArgumentResolvers.forMethod(method);
+	}
+
+	@Override
+	public void invoke(final MethodInvokingController controller,
+			final HttpServletRequest request, final HttpServletResponse response)
+			throws Exception
+	{
+		Object[] args = new Object[resolvers.length];
+
+		for (int i = 0; i < resolvers.length; i++)
+		{
+			args[i] = resolvers[i].resolve(controller, request, response);
+		}
+
+		invokeMethod(controller, args);
+	}
+}
@@ -0,0 +1,67 @@
+/**
+ * Copyright (c) 2010 Ignasi Barrera
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.sjmvc.controller;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Maps a {@link Controller} class to a resource path.
+ * <p>
+ * Annotated controllers are processed at compile time by the
+ * {@link org.sjmvc.processor.RouteProcessor}, which generates the route table
+ * used by the dispatcher instead of the mappings configured in the
+ * <code>sjmvc.properties</code> file.
+ * 
+ * @author Ignasi Barrera
+ * 
+ * @see org.sjmvc.web.dispatch.path.RouteProvider
+ */
+@Documented
+@Retention(RetentionPolicy.CLASS)
+@Target(ElementType.TYPE)
+public @interface Route
+{
+	/**
+	 * The mapped resource path.
+	 */
+	String value();
+
+	/**
+	 * The layout to use to render the resolved views, if any.
+	 */
+	String layout() default "";
+
+	/**
+	 * The HTTP methods accepted by the mapped resource. All methods are
+	 * accepted if none is declared.
+	 */
+	String[] methods() default {};
+
+	/**
+	 * The scope of the controller instances.
+	 */
+	ControllerScope scope() default ControllerScope.PROTOTYPE;
+}
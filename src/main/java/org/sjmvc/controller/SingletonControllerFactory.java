@@ -0,0 +1,129 @@
+/**
+ * Copyright (c) 2010 Ignasi Barrera
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.sjmvc.controller;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+import org.sjmvc.config.ConfigurationException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * {@link ControllerFactory} that uses a single controller instance to handle
+ * all requests.
+ * <p>
+ * The controller is created when the factory is created, so creation errors
+ * are reported when the controller mappings are loaded. Controllers that
+ * implement {@link Closeable} are closed when the factory is destroyed.
+ * 
+ * @author Ignasi Barrera
+ * 
+ * @see ControllerScope#SINGLETON
+ */
+public class SingletonControllerFactory implements ControllerFactory
+{
+	/** The logger. */
+	private static final Logger LOGGER = LoggerFactory
+			.getLogger(SingletonControllerFactory.class);
+
+	/** The factory used to create the controller instance. */
+	private final ControllerFactory factory;
+
+	/** The controller instance. */
+	private final Controller controller;
+
+	/**
+	 * Creates the factory.
+	 * 
+	 * @param factory The factory used to create the controller instance.
+	 * @throws ConfigurationException If the controller cannot be created.
+	 */
+	public SingletonControllerFactory(final ControllerFactory factory)
+			throws ConfigurationException
+	{
+		super();
+		this.factory = factory;
+
+		try
+		{
+			controller = factory.getController();
+		}
+		catch (ControllerException ex)
+		{
+			throw new ConfigurationException(ex.getMessage(), ex.getCause());
+		}
+	}
+
+	@Override
+	public Controller getController()
+	{
+		return controller;
+	}
+
+	@Override
+	public void releaseController(final Controller controller)
+	{
+		// Do not keep the request state until the thread handles another
+		// request
+		AbstractController.releaseContext(controller);
+	}
+
+	/**
+	 * Destroy the controller.
+	 * <p>
+	 * The factory must not be used once it has been destroyed.
+	 */
+	public void destroy()
+	{
+		destroy(controller);
+	}
+
+	/**
+	 * Destroy a controller that will not handle more requests.
+	 * 
+	 * @param controller The controller to destroy.
+	 */
+	static void destroy(final Controller controller)
+	{
+		if (controller instanceof Closeable)
+		{
+			try
+			{
+				((Closeable) controller).close();
+			}
+			catch (IOException ex)
+			{
+				LOGGER.warn("Could not close controller "
+						+ controller.getClass().getName() + ": "
+						+ ex.getMessage(), ex);
+			}
+		}
+	}
+
+	// Getters
+
+	public ControllerFactory getFactory()
+	{
+		return factory;
+	}
+}
@@ -0,0 +1,131 @@
+/**
+ * Copyright (c) 2010 Ignasi Barrera
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.sjmvc.processor;
+
+import org.sjmvc.controller.ControllerScope;
+
+/**
+ * A controller mapping to be written in a generated route provider.
+ * 
+ * @author Ignasi Barrera
+ * 
+ * @see RouteProviderWriter
+ */
+class RouteDefinition
+{
+	/** The mapped resource path. */
+	private final String path;
+
+	/** The layout, or <code>null</code> if no layout is used. */
+	private final String layout;
+
+	/** The canonical name of the controller class. */
+	private final String controllerClass;
+
+	/** The scope of the controller instances. */
+	private final ControllerScope scope;
+
+	/** The accepted HTTP methods. All methods are accepted if empty. */
+	private final String[] methods;
+
+	/**
+	 * The canonical name of the controller factory class, or
+	 * <code>null</code> if the controllers are created with their default
+	 * constructor.
+	 */
+	private String factoryClass;
+
+	/** The minimum size of the pool, or <code>null</code> to use the default. */
+	private Integer poolMin;
+
+	/** The maximum size of the pool, or <code>null</code> to use the default. */
+	private Integer poolMax;
+
+	public RouteDefinition(final String path, final String layout,
+			final String controllerClass, final ControllerScope scope,
+			final String... methods)
+	{
+		super();
+		this.path = path;
+		this.layout = layout;
+		this.controllerClass = controllerClass;
+		this.scope = scope;
+		this.methods = methods;
+	}
+
+	// Getters and setters
+
+	public String getPath()
+	{
+		return path;
+	}
+
+	public String getLayout()
+	{
+		return layout;
+	}
+
+	public String getControllerClass()
+	{
+		return controllerClass;
+	}
+
+	public ControllerScope getScope()
+	{
+		return scope;
+	}
+
+	public String[] getMethods()
+	{
+		return methods;
+	}
+
+	public String getFactoryClass()
+	{
+		return factoryClass;
+	}
+
+	public void setFactoryClass(final String factoryClass)
+	{
+		this.factoryClass = factoryClass;
+	}
+
+	public Integer getPoolMin()
+	{
+		return poolMin;
+	}
+
+	public void setPoolMin(final Integer poolMin)
+	{
+		this.poolMin = poolMin;
+	}
+
+	public Integer getPoolMax()
+	{
+		return poolMax;
+	}
+
+	public void setPoolMax(final Integer poolMax)
+	{
+		this.poolMax = poolMax;
+	}
+}
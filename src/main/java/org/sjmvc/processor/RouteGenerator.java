@@ -0,0 +1,469 @@
+/**
+ * Copyright (c) 2010 Ignasi Barrera
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.sjmvc.processor;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.TreeMap;
+
+import org.sjmvc.config.Configuration;
+import org.sjmvc.config.ConfigurationException;
+import org.sjmvc.config.MappingDefinition;
+import org.sjmvc.config.MappingParser;
+import org.sjmvc.controller.Controller;
+import org.sjmvc.controller.ControllerFactory;
+import org.sjmvc.web.dispatch.path.CompilingPathMatcher;
+import org.sjmvc.web.dispatch.path.PathMatcher;
+import org.sjmvc.web.dispatch.path.RouteProvider;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Generates the {@link RouteProvider} of the controller mappings configured in
+ * a <code>sjmvc.properties</code> file.
+ * <p>
+ * This class is meant to be run during the build of the application, so
+ * configuration errors are reported at build time and the dispatcher does not
+ * need to parse the mappings and load the controller classes at startup. It
+ * validates the controller and factory classes, the mapping paths and, if the
+ * web application directory is given, the layouts. The generated provider
+ * contains the mappings sorted by path, like the ones generated by the
+ * {@link RouteProcessor}.
+ * <p>
+ * It can be run from the command line, with the application classes in the
+ * classpath:
+ * 
+ * <pre>
+ * java org.sjmvc.processor.RouteGenerator &lt;config file&gt; &lt;source dir&gt; &lt;resource dir&gt;
+ *     [-class &lt;class name&gt;] [-webapp &lt;webapp dir&gt;]
+ * </pre>
+ * 
+ * @author Ignasi Barrera
+ */
+public class RouteGenerator
+{
+	/** The logger. */
+	private static final Logger LOGGER = LoggerFactory
+			.getLogger(RouteGenerator.class);
+
+	/** The configuration properties. */
+	private final Properties config;
+
+	/** The class loader used to load the application classes. */
+	private final ClassLoader classLoader;
+
+	/** The name of the generated class. */
+	private String className = RouteProcessor.DEFAULT_ROUTE_PROVIDER;
+
+	/**
+	 * The web application directory used to validate the layouts, or
+	 * <code>null</code> if layouts must not be validated.
+	 */
+	private File webappDirectory;
+
+	/**
+	 * Creates the generator.
+	 * 
+	 * @param config The configuration properties.
+	 * @param classLoader The class loader used to load the application classes.
+	 */
+	public RouteGenerator(final Properties config, final ClassLoader classLoader)
+	{
+		super();
+		this.config = config;
+		this.classLoader = classLoader;
+	}
+
+	/**
+	 * Generate the route provider.
+	 * 
+	 * @param sourceDirectory The directory where the provider source code will
+	 *            be generated.
+	 * @param resourceDirectory The directory where the provider service file
+	 *            will be generated.
+	 * @throws ConfigurationException If the configuration is not valid.
+	 * @throws IOException If the files cannot be written.
+	 */
+	public void generate(final File sourceDirectory,
+			final File resourceDirectory) throws ConfigurationException,
+			IOException
+	{
+		List<RouteDefinition> routes = loadRoutes();
+
+		File source = new File(sourceDirectory, className.replace('.',
+				File.separatorChar) + ".java");
+		write(source, routes);
+
+		File service = new File(resourceDirectory, "META-INF/services/"
+				+ RouteProvider.class.getName());
+		Writer writer = open(service);
+
+		try
+		{
+			writer.write(className + "\n");
+		}
+		finally
+		{
+			writer.close();
+		}
+
+		LOGGER.info("Generated {} with {} mappings", className, routes.size());
+	}
+
+	/**
+	 * Load and validate the configured controller mappings.
+	 * 
+	 * @return The controller mappings, sorted by path.
+	 * @throws ConfigurationException If any mapping is not valid. The
+	 *             exception reports all invalid mappings.
+	 */
+	List<RouteDefinition> loadRoutes() throws ConfigurationException
+	{
+		Map<String, RouteDefinition> routes = new TreeMap<String, RouteDefinition>();
+		List<String> errors = new ArrayList<String>();
+		PathMatcher pathMatcher = loadPathMatcher();
+
+		Map<String, String> properties = new TreeMap<String, String>();
+		for (String key : config.stringPropertyNames())
+		{
+			properties.put(key, config.getProperty(key));
+		}
+
+		for (String key : properties.keySet())
+		{
+			if (Configuration.isControllerPathProperty(key))
+			{
+				String path = properties.get(key);
+
+				try
+				{
+					RouteDefinition route = loadRoute(properties, key,
+							pathMatcher);
+
+					if (routes.containsKey(path))
+					{
+						throw new ConfigurationException(
+								"Duplicate controller path: " + path);
+					}
+
+					routes.put(path, route);
+				}
+				catch (ConfigurationException ex)
+				{
+					errors.add(key + ": " + ex.getMessage());
+				}
+			}
+		}
+
+		if (!errors.isEmpty())
+		{
+			StringBuilder message = new StringBuilder(
+					"Invalid controller mappings:");
+			for (String error : errors)
+			{
+				message.append("\n\t").append(error);
+			}
+
+			throw new ConfigurationException(message.toString());
+		}
+
+		return new ArrayList<RouteDefinition>(routes.values());
+	}
+
+	/**
+	 * Load and validate the controller mapping defined by the given path
+	 * property.
+	 */
+	private RouteDefinition loadRoute(final Map<String, String> properties,
+			final String key, final PathMatcher pathMatcher)
+			throws ConfigurationException
+	{
+		MappingDefinition definition = MappingParser.parseMapping(properties,
+				key);
+		String path = definition.getPath();
+		String layout = definition.getLayout();
+		String factory = definition.getFactoryClass();
+		Set<String> methods = definition.getMethods();
+
+		if (pathMatcher instanceof CompilingPathMatcher)
+		{
+			try
+			{
+				((CompilingPathMatcher) pathMatcher).compile(path);
+			}
+			catch (IllegalArgumentException ex)
+			{
+				throw new ConfigurationException("Invalid controller path: "
+						+ path + ". " + ex.getMessage(), ex);
+			}
+		}
+
+		if (layout != null && webappDirectory != null
+				&& !new File(webappDirectory, Configuration.LAYOUT_PATH + "/"
+						+ layout).isFile())
+		{
+			throw new ConfigurationException("Layout not found: " + layout);
+		}
+
+		Class<?> controllerClass = loadClass(definition.getControllerClass(),
+				Controller.class);
+
+		RouteDefinition route = new RouteDefinition(path, layout,
+				controllerClass.getCanonicalName(), definition.getScope(),
+				methods == null ? new String[0] : methods
+						.toArray(new String[methods.size()]));
+
+		if (factory != null)
+		{
+			Class<?> factoryClass = loadClass(factory.trim(),
+					ControllerFactory.class);
+			checkConstructor(factoryClass, Class.class);
+			route.setFactoryClass(factoryClass.getCanonicalName());
+		}
+		else
+		{
+			checkConstructor(controllerClass);
+		}
+
+		// Only configured sizes are generated, as the default maximum size
+		// depends on the machine running the application
+		if (MappingParser.getMappingProperty(properties, key,
+				Configuration.CONTROLLER_POOL_MIN_SUFFIX) != null)
+		{
+			route.setPoolMin(definition.getPoolMin());
+		}
+		if (MappingParser.getMappingProperty(properties, key,
+				Configuration.CONTROLLER_POOL_MAX_SUFFIX) != null)
+		{
+			route.setPoolMax(definition.getPoolMax());
+		}
+
+		return route;
+	}
+
+	/**
+	 * Load the configured {@link PathMatcher}.
+	 */
+	private PathMatcher loadPathMatcher() throws ConfigurationException
+	{
+		String pathMatcher = config
+				.getProperty(Configuration.PATH_MATCHER_PROPERTY);
+
+		try
+		{
+			return pathMatcher == null ? Configuration.DEFAULT_PATH_MATCHER
+					.newInstance() : (PathMatcher) loadClass(pathMatcher.trim(),
+					PathMatcher.class).newInstance();
+		}
+		catch (ConfigurationException ex)
+		{
+			throw ex;
+		}
+		catch (Exception ex)
+		{
+			throw new ConfigurationException(
+					"Could not instantiate the path matcher class: "
+							+ ex.getMessage(), ex);
+		}
+	}
+
+	/**
+	 * Load the given class, that will be referenced from the generated code.
+	 */
+	private Class<?> loadClass(final String name, final Class<?> type)
+			throws ConfigurationException
+	{
+		Class<?> clazz = null;
+
+		try
+		{
+			clazz = Class.forName(name, false, classLoader);
+		}
+		catch (ClassNotFoundException ex)
+		{
+			throw new ConfigurationException("Could not load class: " + name);
+		}
+
+		if (!type.isAssignableFrom(clazz))
+		{
+			throw new ConfigurationException("Class " + name
+					+ " does not implement " + type.getName());
+		}
+
+		int modifiers = clazz.getModifiers();
+		if (!Modifier.isPublic(modifiers) || Modifier.isAbstract(modifiers)
+				|| clazz.getCanonicalName() == null
+				|| clazz.isMemberClass() && !Modifier.isStatic(modifiers))
+		{
+			throw new ConfigurationException("Class " + name
+					+ " must be a public concrete top level or static class");
+		}
+
+		return clazz;
+	}
+
+	/**
+	 * Checks that the given class has a public constructor with the given
+	 * parameters.
+	 */
+	private static void checkConstructor(final Class<?> clazz,
+			final Class<?>... parameterTypes) throws ConfigurationException
+	{
+		try
+		{
+			clazz.getConstructor(parameterTypes);
+		}
+		catch (NoSuchMethodException ex)
+		{
+			throw new ConfigurationException("Class " + clazz.getName()
+					+ (parameterTypes.length == 0 ? " has no public default constructor"
+							: " has no public constructor that receives the controller class"));
+		}
+	}
+
+	/**
+	 * Write the source code of the provider to the given file.
+	 */
+	private void write(final File file, final List<RouteDefinition> routes)
+			throws IOException
+	{
+		Writer writer = open(file);
+
+		try
+		{
+			new RouteProviderWriter(className, getClass()).write(writer, routes);
+		}
+		finally
+		{
+			writer.close();
+		}
+	}
+
+	/**
+	 * Open the given file for writing, creating its parent directories.
+	 */
+	private static Writer open(final File file) throws IOException
+	{
+		File parent = file.getParentFile();
+
+		if (parent != null && !parent.isDirectory() && !parent.mkdirs())
+		{
+			throw new IOException("Could not create directory: " + parent);
+		}
+
+		return new OutputStreamWriter(new FileOutputStream(file), "UTF-8");
+	}
+
+	/**
+	 * Generate the route provider of the given configuration file.
+	 * 
+	 * @param args The configuration file, the source directory, the resource
+	 *            directory and the optional <code>-class</code> and
+	 *            <code>-webapp</code> arguments.
+	 * @throws Exception If the provider cannot be generated.
+	 */
+	public static void main(final String[] args) throws Exception
+	{
+		if (args.length < 3 || args.length % 2 == 0)
+		{
+			System.err.println("Usage: java " + RouteGenerator.class.getName()
+					+ " <config file> <source dir> <resource dir>"
+					+ " [-class <class name>] [-webapp <webapp dir>]");
+			System.exit(1);
+		}
+
+		Properties config = new Properties();
+		InputStream in = new FileInputStream(args[0]);
+
+		try
+		{
+			config.load(in);
+		}
+		finally
+		{
+			in.close();
+		}
+
+		RouteGenerator generator = new RouteGenerator(config, Thread
+				.currentThread().getContextClassLoader());
+
+		for (int i = 3; i < args.length; i += 2)
+		{
+			if ("-class".equals(args[i]))
+			{
+				generator.setClassName(args[i + 1]);
+			}
+			else if ("-webapp".equals(args[i]))
+			{
+				generator.setWebappDirectory(new File(args[i + 1]));
+			}
+			else
+			{
+				System.err.println("Unknown option: " + args[i]);
+				System.exit(1);
+			}
+		}
+
+		try
+		{
+			generator.generate(new File(args[1]), new File(args[2]));
+		}
+		catch (ConfigurationException ex)
+		{
+			System.err.println(ex.getMessage());
+			System.exit(1);
+		}
+	}
+
+	// Getters and setters
+
+	public String getClassName()
+	{
+		return className;
+	}
+
+	public void setClassName(final String className)
+	{
+		this.className = className;
+	}
+
+	public File getWebappDirectory()
+	{
+		return webappDirectory;
+	}
+
+	public void setWebappDirectory(final File webappDirectory)
+	{
+		this.webappDirectory = webappDirectory;
+	}
+}
@@ -0,0 +1,379 @@
+/**
+ * Copyright (c) 2010 Ignasi Barrera
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.sjmvc.processor;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.annotation.processing.SupportedOptions;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.tools.Diagnostic.Kind;
+import javax.tools.FileObject;
+import javax.tools.JavaFileObject;
+import javax.tools.StandardLocation;
+
+import org.sjmvc.controller.Controller;
+import org.sjmvc.controller.Route;
+import org.sjmvc.web.dispatch.path.AbstractRouteProvider;
+import org.sjmvc.web.dispatch.path.RouteProvider;
+
+/**
+ * Annotation processor that generates the {@link RouteProvider} of the
+ * {@link Route} annotated controllers.
+ * <p>
+ * The generated provider contains the complete route table, sorted by path,
+ * and creates the controllers by invoking their constructors directly, so the
+ * dispatcher does not need to parse the configuration nor use reflection to
+ * load the mappings. The provider is registered as a service, so the
+ * dispatcher uses it when it is in the classpath.
+ * <p>
+ * The annotated controllers are collected across all the processing rounds,
+ * so controllers generated by other processors are included, and the provider
+ * is written in the last round. The names of the controllers are also stored
+ * in the <code>META-INF/sjmvc/routes</code> index, so incremental compilations
+ * that only recompile some of the controllers keep the rest of the routes.
+ * <p>
+ * The name of the generated class can be changed with the
+ * <code>sjmvc.routeProvider</code> processor option.
+ * 
+ * @author Ignasi Barrera
+ * 
+ * @see AbstractRouteProvider
+ */
+@SupportedAnnotationTypes("org.sjmvc.controller.Route")
+@SupportedOptions(RouteProcessor.ROUTE_PROVIDER_OPTION)
+public class RouteProcessor extends AbstractProcessor
+{
+	/** The option used to set the name of the generated class. */
+	public static final String ROUTE_PROVIDER_OPTION = "sjmvc.routeProvider";
+
+	/** The default name of the generated class. */
+	public static final String DEFAULT_ROUTE_PROVIDER = "org.sjmvc.generated.GeneratedRouteProvider";
+
+	/** The index of the controllers included in the generated provider. */
+	public static final String ROUTE_INDEX = "META-INF/sjmvc/routes";
+
+	/**
+	 * The names of the annotated controllers, indexed by path. Names are kept
+	 * instead of the elements, since elements are not valid across rounds.
+	 */
+	private final Map<String, String> routes = new TreeMap<String, String>();
+
+	/** Indicates if any annotated controller is not valid. */
+	private boolean failed = false;
+
+	@Override
+	public SourceVersion getSupportedSourceVersion()
+	{
+		return SourceVersion.latestSupported();
+	}
+
+	@Override
+	public boolean process(final Set<? extends TypeElement> annotations,
+			final RoundEnvironment roundEnv)
+	{
+		if (!roundEnv.processingOver())
+		{
+			for (Element element : roundEnv
+					.getElementsAnnotatedWith(Route.class))
+			{
+				addRoute(element);
+			}
+
+			return true;
+		}
+
+		if (!routes.isEmpty() && !failed)
+		{
+			addPreviousRoutes();
+
+			if (!failed)
+			{
+				generate();
+			}
+		}
+
+		return false;
+	}
+
+	/**
+	 * Validate the given annotated element and add it to the route table.
+	 */
+	private void addRoute(final Element element)
+	{
+		Route route = element.getAnnotation(Route.class);
+		TypeMirror controllerType = processingEnv.getElementUtils()
+				.getTypeElement(Controller.class.getName()).asType();
+
+		if (element.getKind() != ElementKind.CLASS)
+		{
+			error(element, "Only classes can be annotated with @Route");
+		}
+		else if (!element.getModifiers().contains(Modifier.PUBLIC)
+				|| element.getModifiers().contains(Modifier.ABSTRACT))
+		{
+			error(element, "Controllers annotated with @Route must be public "
+					+ "concrete classes");
+		}
+		else if (element.getEnclosingElement().getKind() != ElementKind.PACKAGE
+				&& !element.getModifiers().contains(Modifier.STATIC))
+		{
+			error(element, "Nested controllers annotated with @Route must be "
+					+ "static");
+		}
+		else if (!processingEnv.getTypeUtils().isAssignable(element.asType(),
+				controllerType))
+		{
+			error(element, "Classes annotated with @Route must implement "
+					+ Controller.class.getName());
+		}
+		else if (!hasDefaultConstructor(element))
+		{
+			error(element, "Controllers annotated with @Route must have a "
+					+ "public default constructor");
+		}
+		else if (route.value().trim().length() == 0)
+		{
+			error(element, "The @Route path can not be empty");
+		}
+		else if (routes.containsKey(route.value()))
+		{
+			error(element, "The path " + route.value()
+					+ " is already mapped to "
+					+ routes.get(route.value()));
+		}
+		else
+		{
+			routes.put(route.value(), ((TypeElement) element)
+					.getQualifiedName().toString());
+		}
+	}
+
+	/**
+	 * Add the controllers of the previous compilation that have not been
+	 * recompiled and are still annotated with {@link Route}.
+	 */
+	private void addPreviousRoutes()
+	{
+		Set<String> compiled = new HashSet<String>(routes.values());
+
+		for (String className : readIndex())
+		{
+			if (!compiled.contains(className))
+			{
+				TypeElement element = processingEnv.getElementUtils()
+						.getTypeElement(className);
+
+				if (element != null && element.getAnnotation(Route.class) != null)
+				{
+					addRoute(element);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Read the names of the controllers of the previous compilation.
+	 */
+	private List<String> readIndex()
+	{
+		List<String> classNames = new ArrayList<String>();
+
+		try
+		{
+			FileObject index = processingEnv.getFiler().getResource(
+					StandardLocation.CLASS_OUTPUT, "", ROUTE_INDEX);
+			BufferedReader reader = new BufferedReader(
+					index.openReader(true));
+
+			try
+			{
+				String line;
+				while ((line = reader.readLine()) != null)
+				{
+					if (line.trim().length() > 0)
+					{
+						classNames.add(line.trim());
+					}
+				}
+			}
+			finally
+			{
+				reader.close();
+			}
+		}
+		catch (IOException ex)
+		{
+			// There is no previous compilation
+		}
+
+		return classNames;
+	}
+
+	/**
+	 * Checks if the given class has a public default constructor.
+	 */
+	private static boolean hasDefaultConstructor(final Element element)
+	{
+		for (ExecutableElement constructor : ElementFilter
+				.constructorsIn(element.getEnclosedElements()))
+		{
+			if (constructor.getModifiers().contains(Modifier.PUBLIC)
+					&& constructor.getParameters().isEmpty())
+			{
+				return true;
+			}
+		}
+
+		return false;
+	}
+
+	/**
+	 * Generate the route provider and register it as a service.
+	 */
+	private void generate()
+	{
+		String className = processingEnv.getOptions().get(ROUTE_PROVIDER_OPTION);
+		if (className == null || className.trim().length() == 0)
+		{
+			className = DEFAULT_ROUTE_PROVIDER;
+		}
+
+		className = className.trim();
+
+		try
+		{
+			List<TypeElement> controllers = controllers();
+			JavaFileObject source = processingEnv.getFiler().createSourceFile(
+					className, controllers.toArray(new Element[controllers.size()]));
+			Writer writer = source.openWriter();
+
+			try
+			{
+				new RouteProviderWriter(className, getClass()).write(writer,
+						definitions(controllers));
+			}
+			finally
+			{
+				writer.close();
+			}
+
+			FileObject index = processingEnv.getFiler().createResource(
+					StandardLocation.CLASS_OUTPUT, "", ROUTE_INDEX,
+					controllers.toArray(new Element[controllers.size()]));
+			writer = index.openWriter();
+
+			try
+			{
+				for (String controller : routes.values())
+				{
+					writer.write(controller + "\n");
+				}
+			}
+			finally
+			{
+				writer.close();
+			}
+
+			FileObject service = processingEnv.getFiler().createResource(
+					StandardLocation.CLASS_OUTPUT, "",
+					"META-INF/services/" + RouteProvider.class.getName());
+			writer = service.openWriter();
+
+			try
+			{
+				writer.write(className + "\n");
+			}
+			finally
+			{
+				writer.close();
+			}
+		}
+		catch (IOException ex)
+		{
+			processingEnv.getMessager().printMessage(Kind.ERROR,
+					"Could not generate the route provider: " + ex.getMessage());
+		}
+	}
+
+	/**
+	 * Get the annotated controllers, sorted by path.
+	 */
+	private List<TypeElement> controllers()
+	{
+		List<TypeElement> controllers = new ArrayList<TypeElement>();
+
+		for (String className : routes.values())
+		{
+			controllers.add(processingEnv.getElementUtils().getTypeElement(
+					className));
+		}
+
+		return controllers;
+	}
+
+	/**
+	 * Get the definitions of the given controllers.
+	 */
+	private static List<RouteDefinition> definitions(
+			final List<TypeElement> controllers)
+	{
+		List<RouteDefinition> definitions = new ArrayList<RouteDefinition>();
+
+		for (TypeElement controller : controllers)
+		{
+			Route route = controller.getAnnotation(Route.class);
+			definitions.add(new RouteDefinition(route.value(), route.layout()
+					.trim().length() == 0 ? null : route.layout(), controller
+					.getQualifiedName().toString(), route.scope(), route
+					.methods()));
+		}
+
+		return definitions;
+	}
+
+	/**
+	 * Report an error in the given element.
+	 */
+	private void error(final Element element, final String message)
+	{
+		failed = true;
+		processingEnv.getMessager().printMessage(Kind.ERROR, message, element);
+	}
+}
@@ -0,0 +1,218 @@
+/**
+ * Copyright (c) 2010 Ignasi Barrera
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.sjmvc.processor;
+
+import java.io.PrintWriter;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import org.sjmvc.web.dispatch.path.AbstractRouteProvider;
+
+/**
+ * Writes the source code of a generated {@link AbstractRouteProvider}.
+ * <p>
+ * The generated provider creates the mappings in the given order, and creates
+ * the controllers and their factories by invoking their constructors directly.
+ * 
+ * @author Ignasi Barrera
+ * 
+ * @see RouteProcessor
+ * @see RouteGenerator
+ */
+class RouteProviderWriter
+{
+	/** The name of the generated class. */
+	private final String className;
+
+	/** The class that generates the provider. */
+	private final Class<?> generator;
+
+	/**
+	 * Creates the writer.
+	 * 
+	 * @param className The name of the generated class.
+	 * @param generator The class that generates the provider.
+	 */
+	public RouteProviderWriter(final String className, final Class<?> generator)
+	{
+		super();
+		this.className = className;
+		this.generator = generator;
+	}
+
+	/**
+	 * Write the source code of the route provider.
+	 * 
+	 * @param out The writer where the source code must be written.
+	 * @param routes The mappings to write.
+	 */
+	public void write(final Writer out, final Collection<RouteDefinition> routes)
+	{
+		PrintWriter writer = new PrintWriter(out);
+		int lastDot = className.lastIndexOf('.');
+
+		if (lastDot > 0)
+		{
+			writer.println("package " + className.substring(0, lastDot) + ";");
+			writer.println();
+		}
+
+		writer.println("import java.util.List;");
+		writer.println();
+		writer.println("import org.sjmvc.config.Configuration;");
+		writer.println("import org.sjmvc.controller.AbstractController;");
+		writer.println("import org.sjmvc.controller.Controller;");
+		writer.println("import org.sjmvc.controller.ControllerFactory;");
+		writer.println("import org.sjmvc.controller.ControllerScope;");
+		writer.println("import org.sjmvc.web.ResourceMapping;");
+		writer.println("import " + AbstractRouteProvider.class.getName() + ";");
+		writer.println();
+		writer.println("/**");
+		writer.println(" * Route table generated by " + generator.getName()
+				+ ". Do not edit.");
+		writer.println(" */");
+		writer.println("public final class "
+				+ className.substring(lastDot + 1)
+				+ " extends AbstractRouteProvider");
+		writer.println("{");
+		writer.println("\t@Override");
+		writer.println("\tprotected void addMappings(final List<ResourceMapping> mappings)");
+		writer.println("\t{");
+
+		for (RouteDefinition route : routes)
+		{
+			writeMapping(writer, route);
+		}
+
+		writer.println("\t}");
+		writer.println("}");
+		writer.flush();
+	}
+
+	/**
+	 * Write the code that creates the given mapping.
+	 */
+	private static void writeMapping(final PrintWriter writer,
+			final RouteDefinition route)
+	{
+		String controllerClass = route.getControllerClass();
+
+		List<String> args = new ArrayList<String>();
+		args.add(literal(route.getPath()));
+		args.add(route.getLayout() == null ? "null"
+				: literal(route.getLayout()));
+		args.add(controllerClass + ".class");
+		args.add("ControllerScope." + route.getScope().name());
+
+		if (route.getPoolMin() != null || route.getPoolMax() != null)
+		{
+			args.add(route.getPoolMin() == null ? "Configuration.DEFAULT_CONTROLLER_POOL_MIN"
+					: String.valueOf(route.getPoolMin()));
+			args.add(route.getPoolMax() == null ? "Configuration.DEFAULT_CONTROLLER_POOL_MAX"
+					: String.valueOf(route.getPoolMax()));
+		}
+
+		if (route.getFactoryClass() != null)
+		{
+			args.add("new " + route.getFactoryClass() + "(" + controllerClass
+					+ ".class)");
+		}
+		else
+		{
+			args.add("new ControllerFactory()\n"
+					+ "\t\t\t{\n"
+					+ "\t\t\t\t@Override\n"
+					+ "\t\t\t\tpublic Controller getController()\n"
+					+ "\t\t\t\t{\n"
+					+ "\t\t\t\t\treturn new " + controllerClass + "();\n"
+					+ "\t\t\t\t}\n\n"
+					+ "\t\t\t\t@Override\n"
+					+ "\t\t\t\tpublic void releaseController(final Controller controller)\n"
+					+ "\t\t\t\t{\n"
+					+ "\t\t\t\t\tAbstractController.releaseContext(controller);\n"
+					+ "\t\t\t\t}\n"
+					+ "\t\t\t}");
+		}
+
+		for (String method : route.getMethods())
+		{
+			args.add(literal(method));
+		}
+
+		writer.print("\t\tmappings.add(mapping(");
+		for (int i = 0; i < args.size(); i++)
+		{
+			writer.print(i == 0 ? "" : ",\n\t\t\t");
+			writer.print(args.get(i));
+		}
+		writer.println("));");
+	}
+
+	/**
+	 * Get the Java literal of the given string.
+	 * 
+	 * @param value The string.
+	 * @return The Java literal.
+	 */
+	static String literal(final String value)
+	{
+		StringBuilder literal = new StringBuilder("\"");
+
+		for (int i = 0; i < value.length(); i++)
+		{
+			char c = value.charAt(i);
+
+			switch (c)
+			{
+				case '"':
+					literal.append("\\\"");
+					break;
+				case '\\':
+					literal.append("\\\\");
+					break;
+				case '\n':
+					literal.append("\\n");
+					break;
+				case '\r':
+					literal.append("\\r");
+					break;
+				case '\t':
+					literal.append("\\t");
+					break;
+				default:
+					if (c < ' ' || c > '~')
+					{
+						literal.append(String.format("\\u%04x", (int) c));
+					}
+					else
+					{
+						literal.append(c);
+					}
+					break;
+			}
+		}
+
+		return literal.append('"').toString();
+	}
+}
@@ -0,0 +1,270 @@
+/**
+ * Copyright (c) 2010 Ignasi Barrera
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package org.sjmvc.util;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Concurrent cache with a maximum number of entries.
+ * <p>
+ * Reads do not take any lock. When the cache is full, entries that have not
+ * been read since the last eviction are removed first (a CLOCK approximation
+ * of a LRU policy). The entries are kept in a ring whose head is the clock
+ * hand, so each eviction resumes where the previous one stopped. Eviction is
+ * performed by a single writer at a time, and other writers never wait for it.
+ * 
+ * @author Ignasi Barrera
+ * 
+ * @param <K> The type of the keys.
+ * @param <V> The type of the cached values.
+ */
+public class BoundedCache<K, V>
+{
+	/** The cached entries. */
+	private final ConcurrentMap<K, Entry<K, V>> entries;
+
+	/** The ring of entries. Its head is the position of the clock hand. */
+	private final Queue<Entry<K, V>> ring = new ConcurrentLinkedQueue<Entry<K, V>>();
+
+	/** The maximum number of entries. */
+	private final int capacity;
+
+	/** The number of entries in the cache. */
+	private final AtomicInteger size = new AtomicInteger();
+
+	/** The lock used to ensure that only one thread evicts entries. */
+	private final Lock evictionLock = new ReentrantLock();
+
+	/**
+	 * Creates the cache.
+	 * 
+	 * @param capacity The maximum number of entries.
+	 */
+	public BoundedCache(final int capacity)
+	{
+		super();
+
+		if (capacity <= 0)
+		{
+			throw new IllegalArgumentException(
+					"Cache capacity must be greater than zero");
+		}
+
+		this.capacity = capacity;
+		this.entries = new ConcurrentHashMap<K, Entry<K, V>>(Math.min(
+				capacity, 1024));
+	}
+
+	/**
+	 * Get the cached value for the given key.
+	 * 
+	 * @param key The key.
+	 * @return The cached value or <code>null</code> if it is not cached.
+	 */
+	public V get(final K key)
+	{
+		Entry<K, V> entry = entries.get(key);
+
+		if (entry == null)
+		{
+			return null;
+		}
+
+		// Avoid writing the shared flag if it is already set
+		if (!entry.used)
+		{
+			entry.used = true;
+		}
+
+		return entry.value;
+	}
+
+	/**
+	 * Caches the given value, evicting the least used entries if the cache is
+	 * full.
+	 * 
+	 * @param key The key.
+	 * @param value The value to cache.
+	 */
+	public void put(final K key, final V value)
+	{
+		Entry<K, V> entry = new Entry<K, V>(key, value);
+		Entry<K, V> existing = entries.putIfAbsent(key, entry);
+
+		if (existing != null)
+		{
+			// Keep the position of the entry in the ring
+			existing.value = value;
+		}
+		else
+		{
+			ring.offer(entry);
+
+			if (size.incrementAndGet() > capacity)
+			{
+				evict(entry);
+			}
+		}
+	}
+
+	/**
+	 * Removes all the entries from the cache.
+	 */
+	public void clear()
+	{
+		evictionLock.lock();
+
+		try
+		{
+			Entry<K, V> entry;
+			while ((entry = ring.poll()) != null)
+			{
+				if (entries.remove(entry.key, entry))
+				{
+					size.decrementAndGet();
+				}
+			}
+		}
+		finally
+		{
+			evictionLock.unlock();
+		}
+	}
+
+	/**
+	 * Get the number of cached entries.
+	 * 
+	 * @return The number of cached entries.
+	 */
+	public int size()
+	{
+		return size.get();
+	}
+
+	/**
+	 * Get the maximum number of entries.
+	 * 
+	 * @return The maximum number of entries.
+	 */
+	public int getCapacity()
+	{
+		return capacity;
+	}
+
+	/**
+	 * Advances the clock hand removing entries until the cache size is below
+	 * its capacity.
+	 * 
+	 * @param added The entry that has just been added, that will not be
+	 *            evicted.
+	 */
+	private void evict(final Entry<K, V> added)
+	{
+		if (!evictionLock.tryLock())
+		{
+			// Another thread is already evicting entries
+			return;
+		}
+
+		boolean addedPolled = false;
+
+		try
+		{
+			// The first entry given a second chance since the last eviction
+			Entry<K, V> firstSkipped = null;
+			Entry<K, V> current;
+
+			while (size.get() > capacity && (current = ring.poll()) != null)
+			{
+				if (current == added)
+				{
+					// Keep the new entry out of the sweep until it finishes
+					addedPolled = true;
+				}
+				else if (current.used)
+				{
+					ring.offer(current);
+
+					if (current == firstSkipped)
+					{
+						// A full pass without evictions: entries are being
+						// read concurrently, so let the next put continue
+						break;
+					}
+
+					// Give the entry a second chance
+					current.used = false;
+
+					if (firstSkipped == null)
+					{
+						firstSkipped = current;
+					}
+				}
+				else if (entries.remove(current.key, current))
+				{
+					size.decrementAndGet();
+					firstSkipped = null;
+				}
+			}
+		}
+		finally
+		{
+			if (addedPolled)
+			{
+				ring.offer(added);
+			}
+
+			evictionLock.unlock();
+		}
+	}
+
+	/**
+	 * A cached value.
+	 * 
+	 * @param <K> The type of the key.
+	 * @param <V> The type of the cached value.
+	 */
+	private static class Entry<K, V>
+	{
+		/** The key of the entry. */
+		private final K key;
+
+		/** The cached value. */
+		private volatile V value;
+
+		/** Flag indicating if the entry has been read since the last sweep. */
+		private volatile boolean used;
+
+		private Entry(final K key, final V value)
+		{
+			this.key = key;
+			this.value = value;
+		}
+	}
+}
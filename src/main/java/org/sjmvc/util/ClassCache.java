@@ -0,0 +1,102 @@
+/**
+ * Copyright (c) 2010 Ignasi Barrera
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package org.sjmvc.util;
+
+import java.lang.ref.SoftReference;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+/**
+ * Cache of values computed once per class, that does not prevent the classes
+ * from being unloaded.
+ * <p>
+ * Classes are held through weak references, so the cache does not retain the
+ * class loaders of redeployed applications. Values usually reference their
+ * class (through its fields or methods), so they are held through soft
+ * references, as {@link java.io.ObjectStreamClass} does. The garbage collector
+ * clears the values that are no longer used, and then the classes can be
+ * unloaded. A cleared value is computed again the next time it is requested.
+ * <p>
+ * The cache is guarded by a lock, which is not held while the values are
+ * computed. Two threads may compute the value of the same class at the same
+ * time, but all of them get the first value that was stored.
+ * 
+ * @author Ignasi Barrera
+ * 
+ * @param <V> The type of the cached values.
+ */
+public abstract class ClassCache<V>
+{
+	/** The cached values. */
+	private final Map<Class<?>, SoftReference<V>> values = new WeakHashMap<Class<?>, SoftReference<V>>();
+
+	/**
+	 * Get the value of the given class, computing it if it is not cached.
+	 * 
+	 * @param type The class.
+	 * @return The value of the class.
+	 */
+	public V get(final Class<?> type)
+	{
+		V value = lookup(type);
+
+		if (value == null)
+		{
+			value = compute(type);
+
+			synchronized (values)
+			{
+				V existing = lookup(type);
+
+				if (existing != null)
+				{
+					return existing;
+				}
+
+				values.put(type, new SoftReference<V>(value));
+			}
+		}
+
+		return value;
+	}
+
+	/**
+	 * Get the cached value of the given class.
+	 */
+	private V lookup(final Class<?> type)
+	{
+		synchronized (values)
+		{
+			SoftReference<V> reference = values.get(type);
+			return reference == null ? null : reference.get();
+		}
+	}
+
+	/**
+	 * Compute the value of the given class.
+	 * 
+	 * @param type The class.
+	 * @return The value of the class. It must not be <code>null</code>.
+	 */
+	protected abstract V compute(Class<?> type);
+}
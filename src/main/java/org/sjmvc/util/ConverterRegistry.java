@@ -0,0 +1,274 @@
+/**
+ * Copyright (c) 2010 Ignasi Barrera
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package org.sjmvc.util;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Registry of the {@link Converter} objects used to convert String values to
+ * the type of the model properties and action parameters.
+ * <p>
+ * Converters are looked up by the exact target type. The registry comes with
+ * converters for String, the primitive types and their wrappers, and creates
+ * and caches a converter for each enum type the first time it is used. The
+ * default <code>int</code>, <code>long</code> and <code>double</code>
+ * converters also implement {@link IntConverter}, {@link LongConverter} and
+ * {@link DoubleConverter}, so primitive fields and arrays are bound without
+ * boxing.
+ * Applications can register their own converters, or replace the default
+ * ones, with the {@link #register(Class, Converter)} method.
+ * 
+ * @author Ignasi Barrera
+ */
+public final class ConverterRegistry
+{
+	/** The converters indexed by target type. */
+	private static final ConcurrentMap<Class<?>, Converter<?>> CONVERTERS = new ConcurrentHashMap<Class<?>, Converter<?>>();
+
+	static
+	{
+		register(String.class, new Converter<String>() {
+			@Override
+			public String convert(final String value)
+			{
+				return value;
+			}
+		});
+
+		IntConverter integerConverter = new IntConverter() {
+			@Override
+			public Integer convert(final String value)
+			{
+				return Integer.valueOf(convertInt(value));
+			}
+
+			@Override
+			public int convertInt(final String value)
+			{
+				return Integer.parseInt(value);
+			}
+		};
+		register(Integer.class, integerConverter);
+		register(int.class, integerConverter);
+
+		LongConverter longConverter = new LongConverter() {
+			@Override
+			public Long convert(final String value)
+			{
+				return Long.valueOf(convertLong(value));
+			}
+
+			@Override
+			public long convertLong(final String value)
+			{
+				return Long.parseLong(value);
+			}
+		};
+		register(Long.class, longConverter);
+		register(long.class, longConverter);
+
+		DoubleConverter doubleConverter = new DoubleConverter() {
+			@Override
+			public Double convert(final String value)
+			{
+				return Double.valueOf(convertDouble(value));
+			}
+
+			@Override
+			public double convertDouble(final String value)
+			{
+				return Double.parseDouble(value);
+			}
+		};
+		register(Double.class, doubleConverter);
+		register(double.class, doubleConverter);
+
+		Converter<Float> floatConverter = new Converter<Float>() {
+			@Override
+			public Float convert(final String value)
+			{
+				return Float.valueOf(value);
+			}
+		};
+		register(Float.class, floatConverter);
+		register(float.class, floatConverter);
+
+		Converter<Boolean> booleanConverter = new Converter<Boolean>() {
+			@Override
+			public Boolean convert(final String value)
+			{
+				return Boolean.valueOf(value);
+			}
+		};
+		register(Boolean.class, booleanConverter);
+		register(boolean.class, booleanConverter);
+
+		Converter<Byte> byteConverter = new Converter<Byte>() {
+			@Override
+			public Byte convert(final String value)
+			{
+				return Byte.valueOf(value);
+			}
+		};
+		register(Byte.class, byteConverter);
+		register(byte.class, byteConverter);
+
+		Converter<Short> shortConverter = new Converter<Short>() {
+			@Override
+			public Short convert(final String value)
+			{
+				return Short.valueOf(value);
+			}
+		};
+		register(Short.class, shortConverter);
+		register(short.class, shortConverter);
+
+		Converter<Character> characterConverter = new Converter<Character>() {
+			@Override
+			public Character convert(final String value) throws Exception
+			{
+				if (value.length() != 1)
+				{
+					throw new Exception("Could not transform [" + value
+							+ "] to a single character");
+				}
+
+				return Character.valueOf(value.charAt(0));
+			}
+		};
+		register(Character.class, characterConverter);
+		register(char.class, characterConverter);
+	}
+
+	/**
+	 * Utility class.
+	 */
+	private ConverterRegistry()
+	{
+		throw new AssertionError("ConverterRegistry can not be instantiated");
+	}
+
+	/**
+	 * Register the converter for the given type, replacing the existing one.
+	 * 
+	 * @param <T> The target type.
+	 * @param type The target type.
+	 * @param converter The converter to use.
+	 */
+	public static <T> void register(final Class<T> type,
+			final Converter<? extends T> converter)
+	{
+		if (type == null || converter == null)
+		{
+			throw new IllegalArgumentException(
+					"The type and the converter are required");
+		}
+
+		CONVERTERS.put(type, converter);
+	}
+
+	/**
+	 * Get the converter for the given type.
+	 * 
+	 * @param <T> The target type.
+	 * @param type The target type.
+	 * @return The converter, or <code>null</code> if there is no converter for
+	 *         the given type.
+	 */
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	public static <T> Converter<T> getConverter(final Class<T> type)
+	{
+		Converter<T> converter = (Converter<T>) CONVERTERS.get(type);
+
+		if (converter == null && type.isEnum())
+		{
+			converter = new EnumConverter(type);
+			Converter<T> existing = (Converter<T>) CONVERTERS.putIfAbsent(
+					type, converter);
+
+			if (existing != null)
+			{
+				converter = existing;
+			}
+		}
+
+		return converter;
+	}
+
+	/**
+	 * Convert the given value to the given type.
+	 * 
+	 * @param <T> The target type.
+	 * @param type The target type.
+	 * @param value The value to convert.
+	 * @return The converted value, or <code>null</code> if the value is
+	 *         <code>null</code>.
+	 * @throws Exception If there is no converter for the given type or the
+	 *             value cannot be converted.
+	 */
+	public static <T> T convert(final Class<T> type, final String value)
+			throws Exception
+	{
+		if (value == null)
+		{
+			return null;
+		}
+
+		Converter<T> converter = getConverter(type);
+
+		if (converter == null)
+		{
+			throw new Exception("Could not transform [" + value
+					+ "] to an object of class [" + type.getName() + "]");
+		}
+
+		return converter.convert(value);
+	}
+
+	/**
+	 * Converts values to the constants of an enum type.
+	 * 
+	 * @author Ignasi Barrera
+	 * 
+	 * @param <E> The enum type.
+	 */
+	private static class EnumConverter<E extends Enum<E>> implements
+			Converter<E>
+	{
+		/** The enum type. */
+		private final Class<E> type;
+
+		public EnumConverter(final Class<E> type)
+		{
+			super();
+			this.type = type;
+		}
+
+		@Override
+		public E convert(final String value)
+		{
+			return Enum.valueOf(type, value);
+		}
+	}
+}
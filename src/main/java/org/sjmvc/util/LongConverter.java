@@ -0,0 +1,47 @@
+/**
+ * Copyright (c) 2010 Ignasi Barrera
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package org.sjmvc.util;
+
+/**
+ * {@link Converter} that also converts values to primitive <code>long</code>
+ * values without boxing them.
+ * <p>
+ * Primitive <code>long</code> fields and arrays are bound with this method
+ * when the converter registered for the <code>long</code> type implements this
+ * interface.
+ * 
+ * @author Ignasi Barrera
+ * 
+ * @see ConverterRegistry
+ */
+public interface LongConverter extends Converter<Long>
+{
+	/**
+	 * Convert the given value to a primitive <code>long</code>.
+	 * 
+	 * @param value The value to convert. It is never <code>null</code>.
+	 * @return The converted value.
+	 * @throws Exception If the value cannot be converted.
+	 */
+	public long convertLong(String value) throws Exception;
+}
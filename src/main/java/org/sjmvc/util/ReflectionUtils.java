@@ -81,58 +81,18 @@ public class ReflectionUtils
 
     /**
      * Convert the given String to the given class.
+     * <p>
+     * The conversion is delegated to the converter registered for the class in the
+     * {@link ConverterRegistry}.
      * 
      * @param clazz The destination class.
      * @param value The String value to convert.
      * @return The converted value.
      * @throws Exception If the given value cannot be transformed.
      */
-    @SuppressWarnings({"unchecked", "rawtypes"})
     public static <T> T fromString(final Class<T> clazz, final String value) throws Exception
     {
-        if (value == null)
-        {
-            return null;
-        }
-        else if (clazz.equals(String.class))
-        {
-            return (T) value;
-        }
-        else if (clazz.equals(Integer.class))
-        {
-            return (T) Integer.valueOf(value);
-        }
-        else if (clazz.equals(Double.class))
-        {
-            return (T) Double.valueOf(value);
-        }
-        else if (clazz.equals(Float.class))
-        {
-            return (T) Float.valueOf(value);
-        }
-        else if (clazz.equals(Boolean.class))
-        {
-            return (T) Boolean.valueOf(value);
-        }
-        else if (clazz.equals(Byte.class))
-        {
-            return (T) Byte.valueOf(value);
-        }
-        else if (clazz.equals(Long.class))
-        {
-            return (T) Long.valueOf(value);
-        }
-        else if (clazz.equals(Short.class))
-        {
-            return (T) Short.valueOf(value);
-        }
-        else if (clazz.isEnum())
-        {
-            return (T) Enum.valueOf((Class<Enum>) clazz, value);
-        }
-
-        throw new Exception("Could not transform [" + value + "] to an object of class ["
-            + clazz.getName() + "]");
+        return ConverterRegistry.convert(clazz, value);
     }
 
     /**
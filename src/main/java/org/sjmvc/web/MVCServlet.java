@@ -22,6 +22,7 @@
 
 package org.sjmvc.web;
 
+import java.io.File;
 import java.io.IOException;
 
 import javax.servlet.ServletException;
@@ -30,9 +31,12 @@ import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 
 import org.sjmvc.config.Configuration;
+import org.sjmvc.config.ConfigurationSnapshot;
+import org.sjmvc.config.ConfigurationWatcher;
 import org.sjmvc.controller.Controller;
 import org.sjmvc.web.dispatch.RequestDispatcher;
 import org.sjmvc.web.dispatch.path.PathBasedRequestDispatcher;
+import org.sjmvc.web.dispatch.path.ReloadingRequestDispatcher;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -55,6 +59,9 @@ public class MVCServlet extends HttpServlet
     /** The request dispatcher used to dispatch requests to {@link Controller}. */
     private RequestDispatcher dispatcher;
 
+    /** The watcher of the configuration file, if configuration reloading is enabled. */
+    private ConfigurationWatcher watcher;
+
     /**
      * Initializes the servlet.
      * 
@@ -65,7 +72,32 @@ public class MVCServlet extends HttpServlet
     {
         try
         {
-            dispatcher = new PathBasedRequestDispatcher();
+            ConfigurationSnapshot configuration = Configuration.createSnapshot();
+            PathBasedRequestDispatcher pathDispatcher =
+                new PathBasedRequestDispatcher(configuration);
+            File configurationFile = Configuration.getConfigurationFile();
+
+            if (configuration.getReloadInterval() > 0 && configurationFile != null)
+            {
+                ReloadingRequestDispatcher reloadingDispatcher =
+                    new ReloadingRequestDispatcher(pathDispatcher);
+                watcher =
+                    new ConfigurationWatcher(configurationFile, configuration.getReloadInterval(),
+                        reloadingDispatcher);
+                watcher.start();
+
+                dispatcher = reloadingDispatcher;
+            }
+            else
+            {
+                if (configuration.getReloadInterval() > 0)
+                {
+                    LOGGER.warn("The configuration is not loaded from a file "
+                        + "and will not be reloaded");
+                }
+
+                dispatcher = pathDispatcher;
+            }
         }
         catch (Exception ex)
         {
@@ -73,6 +105,26 @@ public class MVCServlet extends HttpServlet
         }
     }
 
+    @Override
+    public void destroy()
+    {
+        if (watcher != null)
+        {
+            watcher.stop();
+        }
+
+        if (dispatcher instanceof ReloadingRequestDispatcher)
+        {
+            ((ReloadingRequestDispatcher) dispatcher).destroy();
+        }
+        else if (dispatcher instanceof PathBasedRequestDispatcher)
+        {
+            ((PathBasedRequestDispatcher) dispatcher).destroy();
+        }
+
+        super.destroy();
+    }
+
     @Override
     protected void service(final HttpServletRequest req, final HttpServletResponse resp)
         throws ServletException, IOException
@@ -88,8 +140,13 @@ public class MVCServlet extends HttpServlet
                 String currentLayout = (String) req.getAttribute(Configuration.CURRENT_LAYOUT_ATTRIBUTE);
                 String currentView = (String) req.getAttribute(Configuration.CURRENT_VIEW_ATTRIBUTE);
 
-                String viewToRender = (currentLayout != null)? currentLayout : currentView;                
-                getServletContext().getRequestDispatcher(viewToRender).forward(req, response);
+                String viewToRender = (currentLayout != null)? currentLayout : currentView;
+
+                // Controllers that write the response themselves and HEAD requests have no view
+                if (viewToRender != null)
+                {
+                    getServletContext().getRequestDispatcher(viewToRender).forward(req, response);
+                }
             }
         }
         catch (Exception ex)
@@ -23,14 +23,16 @@
 package org.sjmvc.web;
 
 import java.io.Serializable;
+import java.util.Set;
 
 import org.sjmvc.controller.Controller;
+import org.sjmvc.controller.ControllerFactory;
 import org.sjmvc.web.dispatch.path.PathBasedRequestDispatcher;
 
 /**
  * This class holds the resource mapping configuration such as the resource URI,
- * the controller class used to handle request to the mapped resource and the
- * layout to use when rendering the resolved view.
+ * the controller class used to handle request to the mapped resource, the HTTP
+ * methods it accepts and the layout to use when rendering the resolved view.
  * 
  * @author Ignasi Barrera
  * @see Controller
@@ -44,6 +46,9 @@ public class ResourceMapping implements Serializable
 	/** The {@link Controller} class. */
 	private Class<Controller> controllerClass;
 
+	/** The factory used to create the {@link Controller} instances. */
+	private transient ControllerFactory controllerFactory;
+
 	/** The mapped resource path. */
 	private String path;
 
@@ -54,6 +59,24 @@ public class ResourceMapping implements Serializable
 	 */
 	private String layout;
 
+	/**
+	 * The HTTP methods accepted by the mapped resource.
+	 * <p>
+	 * If this property is <code>null</code> all methods will be accepted.
+	 */
+	private Set<String> methods;
+
+	/**
+	 * Checks if the mapped resource accepts the given HTTP method.
+	 * 
+	 * @param method The HTTP method.
+	 * @return Boolean indicating if the mapped resource accepts the method.
+	 */
+	public boolean acceptsMethod(String method)
+	{
+		return methods == null || methods.contains(method);
+	}
+
 	// Getters and setters
 
 	public Class<Controller> getControllerClass()
@@ -66,6 +89,16 @@ public class ResourceMapping implements Serializable
 		this.controllerClass = controllerClass;
 	}
 
+	public ControllerFactory getControllerFactory()
+	{
+		return controllerFactory;
+	}
+
+	public void setControllerFactory(ControllerFactory controllerFactory)
+	{
+		this.controllerFactory = controllerFactory;
+	}
+
 	public String getPath()
 	{
 		return path;
@@ -86,4 +119,14 @@ public class ResourceMapping implements Serializable
 		this.layout = layout;
 	}
 
+	public Set<String> getMethods()
+	{
+		return methods;
+	}
+
+	public void setMethods(Set<String> methods)
+	{
+		this.methods = methods;
+	}
+
 }
@@ -0,0 +1,120 @@
+/**
+ * Copyright (c) 2010 Ignasi Barrera
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.sjmvc.web.dispatch.path;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.commons.lang.StringUtils;
+import org.sjmvc.config.Configuration;
+import org.sjmvc.config.ConfigurationException;
+import org.sjmvc.config.MappingParser;
+import org.sjmvc.controller.Controller;
+import org.sjmvc.controller.ControllerFactories;
+import org.sjmvc.controller.ControllerFactory;
+import org.sjmvc.controller.ControllerScope;
+import org.sjmvc.web.ResourceMapping;
+
+/**
+ * Base class for the {@link RouteProvider} implementations generated by the
+ * {@link org.sjmvc.processor.RouteProcessor} and the
+ * {@link org.sjmvc.processor.RouteGenerator}.
+ * 
+ * @author Ignasi Barrera
+ */
+public abstract class AbstractRouteProvider implements RouteProvider
+{
+	@Override
+	public List<ResourceMapping> getMappings()
+	{
+		List<ResourceMapping> mappings = new ArrayList<ResourceMapping>();
+		addMappings(mappings);
+		return mappings;
+	}
+
+	/**
+	 * Add the provided mappings to the given list.
+	 * 
+	 * @param mappings The list where the mappings must be added.
+	 * @throws ConfigurationException If the mappings cannot be created.
+	 */
+	protected abstract void addMappings(List<ResourceMapping> mappings)
+			throws ConfigurationException;
+
+	/**
+	 * Create a controller mapping.
+	 * 
+	 * @param path The mapped resource path.
+	 * @param layout The layout to use to render the resolved views, or
+	 *            <code>null</code> if no layout must be used.
+	 * @param controllerClass The controller class.
+	 * @param scope The scope of the controller instances.
+	 * @param factory The factory used to create the controller instances.
+	 * @param methods The HTTP methods accepted by the mapped resource.
+	 * @return The controller mapping.
+	 * @throws ConfigurationException If the mapping cannot be created.
+	 */
+	protected ResourceMapping mapping(final String path, final String layout,
+			final Class<? extends Controller> controllerClass,
+			final ControllerScope scope, final ControllerFactory factory,
+			final String... methods) throws ConfigurationException
+	{
+		return mapping(path, layout, controllerClass, scope,
+				Configuration.DEFAULT_CONTROLLER_POOL_MIN,
+				Configuration.DEFAULT_CONTROLLER_POOL_MAX, factory, methods);
+	}
+
+	/**
+	 * Create a controller mapping.
+	 * 
+	 * @param path The mapped resource path.
+	 * @param layout The layout to use to render the resolved views, or
+	 *            <code>null</code> if no layout must be used.
+	 * @param controllerClass The controller class.
+	 * @param scope The scope of the controller instances.
+	 * @param poolMin The minimum size of the pool of controllers.
+	 * @param poolMax The maximum size of the pool of controllers.
+	 * @param factory The factory used to create the controller instances.
+	 * @param methods The HTTP methods accepted by the mapped resource.
+	 * @return The controller mapping.
+	 * @throws ConfigurationException If the mapping cannot be created.
+	 */
+	@SuppressWarnings("unchecked")
+	protected ResourceMapping mapping(final String path, final String layout,
+			final Class<? extends Controller> controllerClass,
+			final ControllerScope scope, final int poolMin, final int poolMax,
+			final ControllerFactory factory, final String... methods)
+			throws ConfigurationException
+	{
+		ResourceMapping mapping = new ResourceMapping();
+		mapping.setPath(path);
+		mapping.setLayout(layout);
+		mapping.setMethods(MappingParser.parseMethods(StringUtils
+				.join(methods, ",")));
+		mapping.setControllerClass((Class<Controller>) controllerClass);
+
+		mapping.setControllerFactory(ControllerFactories.scoped(factory,
+				scope, poolMin, poolMax));
+
+		return mapping;
+	}
+}
@@ -18,6 +18,7 @@ package org.sjmvc.web.dispatch.path;
 
 import java.util.ArrayList;
 import java.util.Comparator;
+import java.util.LinkedHashMap;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
@@ -25,6 +26,8 @@ import java.util.StringTokenizer;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
+import org.sjmvc.util.BoundedCache;
+
 /**
  * PathMatcher implementation for Ant-style path patterns. Examples are provided
  * below.
@@ -84,7 +87,7 @@ import java.util.regex.Pattern;
  * @author Arjen Poutsma
  * @since 16.07.2003
  */
-public class AntPathMatcher implements PathMatcher
+public class AntPathMatcher implements CompilingPathMatcher
 {
 
 	private static final Pattern VARIABLE_PATTERN = Pattern
@@ -98,6 +101,13 @@ public class AntPathMatcher implements PathMatcher
 	/** Suffix used in the matching patter. */
 	private static final String PATTERN_SUFFIX = "**";
 
+	/** Maximum number of compiled patterns to keep in the cache. */
+	public static final int PATTERN_CACHE_SIZE = 1024;
+
+	/** Compiled prefix patterns, indexed by the original pattern. */
+	private final BoundedCache<String, AntPathPattern> patternCache = new BoundedCache<String, AntPathPattern>(
+			PATTERN_CACHE_SIZE);
+
 	/**
 	 * Set the path separator to use for pattern parsing. Default is "/", as in
 	 * Ant.
@@ -106,6 +116,7 @@ public class AntPathMatcher implements PathMatcher
 	{
 		this.pathSeparator = (pathSeparator != null ? pathSeparator
 				: DEFAULT_PATH_SEPARATOR);
+		this.patternCache.clear();
 	}
 
 	public boolean isPattern(String path)
@@ -116,12 +127,64 @@ public class AntPathMatcher implements PathMatcher
 	@Override
 	public boolean matches(String pattern, String path)
 	{
-		String patternToMatch = pattern;
-		if (!patternToMatch.endsWith("/"))
+		return doMatch(getPrefixPattern(pattern), path, true, null);
+	}
+
+	@Override
+	public void compile(String pattern)
+	{
+		getPrefixPattern(pattern);
+	}
+
+	/**
+	 * Given a pattern and a full path, extract the URI template variables. URI
+	 * template variables are expressed through curly brackets ('{' and '}').
+	 * <p>
+	 * For example: For pattern "/hotels/{hotel}" and path "/hotels/1", this
+	 * method will return a map containing "hotel"->"1".
+	 * 
+	 * @param pattern the path pattern, possibly containing URI templates
+	 * @param path the full path to extract template variables from
+	 * @return a map, containing variable names as keys; variables values as
+	 *         values
+	 * @throws IllegalStateException if the given path does not match the
+	 *             given pattern
+	 */
+	public Map<String, String> extractUriTemplateVariables(String pattern,
+			String path)
+	{
+		Map<String, String> variables = new LinkedHashMap<String, String>();
+		boolean result = doMatch(getPrefixPattern(pattern), path, true,
+				variables);
+		if (!result)
+		{
+			throw new IllegalStateException("Pattern \"" + pattern
+					+ "\" is not a match for \"" + path + "\"");
+		}
+		return variables;
+	}
+
+	/**
+	 * Get the compiled pattern used to match only the beginning of the paths.
+	 * <p>
+	 * Compiled patterns are cached, so the pattern is only parsed the first
+	 * time it is used.
+	 */
+	AntPathPattern getPrefixPattern(String pattern)
+	{
+		AntPathPattern compiled = patternCache.get(pattern);
+		if (compiled == null)
 		{
-			patternToMatch += "/";
+			String patternToMatch = pattern;
+			if (!patternToMatch.endsWith("/"))
+			{
+				patternToMatch += "/";
+			}
+			compiled = new AntPathPattern(patternToMatch + PATTERN_SUFFIX,
+					this.pathSeparator);
+			patternCache.put(pattern, compiled);
 		}
-		return doMatch(patternToMatch + PATTERN_SUFFIX, path, true, null);
+		return compiled;
 	}
 
 	/**
@@ -137,6 +200,19 @@ public class AntPathMatcher implements PathMatcher
 	 */
 	protected boolean doMatch(String pattern, String path, boolean fullMatch,
 			Map<String, String> uriTemplateVariables)
+	{
+		return doMatch(new AntPathPattern(pattern, this.pathSeparator), path,
+				fullMatch, uriTemplateVariables);
+	}
+
+	/**
+	 * Actually match the given <code>path</code> against the given compiled
+	 * <code>pattern</code>.
+	 * 
+	 * @see #doMatch(String, String, boolean, Map)
+	 */
+	private boolean doMatch(AntPathPattern pattern, String path,
+			boolean fullMatch, Map<String, String> uriTemplateVariables)
 	{
 		// Commented because in SJMVC we will also match paths beginning with a
 		// slash
@@ -147,12 +223,17 @@ public class AntPathMatcher implements PathMatcher
 		// return false;
 		// }
 
-		if (path.equals(pattern))
+		if (path.equals(pattern.getPattern()))
 		{
 			return true;
 		}
 
-		String[] pattDirs = tokenizeToStringArray(pattern, this.pathSeparator);
+		if (fullMatch && pattern.isPrefixPattern())
+		{
+			return doMatchPrefix(pattern, path, uriTemplateVariables);
+		}
+
+		AntPathSegment[] pattDirs = pattern.getSegments();
 		String[] pathDirs = tokenizeToStringArray(path, this.pathSeparator);
 
 		int pattIdxStart = 0;
@@ -163,12 +244,12 @@ public class AntPathMatcher implements PathMatcher
 		// Match all elements up to the first **
 		while (pattIdxStart <= pattIdxEnd && pathIdxStart <= pathIdxEnd)
 		{
-			String patDir = pattDirs[pattIdxStart];
-			if ("**".equals(patDir))
+			AntPathSegment patDir = pattDirs[pattIdxStart];
+			if (patDir.isAnyPath())
 			{
 				break;
 			}
-			if (!matchStrings(patDir, pathDirs[pathIdxStart],
+			if (!patDir.matchStrings(pathDirs[pathIdxStart],
 					uriTemplateVariables))
 			{
 				return false;
@@ -182,7 +263,7 @@ public class AntPathMatcher implements PathMatcher
 			// Path is exhausted, only match if rest of pattern is * or **'s
 			if (pattIdxStart > pattIdxEnd)
 			{
-				return (pattern.endsWith(this.pathSeparator) ? path
+				return (pattern.getPattern().endsWith(this.pathSeparator) ? path
 						.endsWith(this.pathSeparator) : !path
 						.endsWith(this.pathSeparator));
 			}
@@ -191,14 +272,14 @@ public class AntPathMatcher implements PathMatcher
 				return true;
 			}
 			if (pattIdxStart == pattIdxEnd
-					&& pattDirs[pattIdxStart].equals("*")
+					&& pattDirs[pattIdxStart].getSegment().equals("*")
 					&& path.endsWith(this.pathSeparator))
 			{
 				return true;
 			}
 			for (int i = pattIdxStart; i <= pattIdxEnd; i++)
 			{
-				if (!pattDirs[i].equals("**"))
+				if (!pattDirs[i].isAnyPath())
 				{
 					return false;
 				}
@@ -210,7 +291,7 @@ public class AntPathMatcher implements PathMatcher
 			// String not exhausted, but pattern is. Failure.
 			return false;
 		}
-		else if (!fullMatch && "**".equals(pattDirs[pattIdxStart]))
+		else if (!fullMatch && pattDirs[pattIdxStart].isAnyPath())
 		{
 			// Path start definitely matches due to "**" part in pattern.
 			return true;
@@ -219,12 +300,12 @@ public class AntPathMatcher implements PathMatcher
 		// up to last '**'
 		while (pattIdxStart <= pattIdxEnd && pathIdxStart <= pathIdxEnd)
 		{
-			String patDir = pattDirs[pattIdxEnd];
-			if (patDir.equals("**"))
+			AntPathSegment patDir = pattDirs[pattIdxEnd];
+			if (patDir.isAnyPath())
 			{
 				break;
 			}
-			if (!matchStrings(patDir, pathDirs[pathIdxEnd],
+			if (!patDir.matchStrings(pathDirs[pathIdxEnd],
 					uriTemplateVariables))
 			{
 				return false;
@@ -237,7 +318,7 @@ public class AntPathMatcher implements PathMatcher
 			// String is exhausted
 			for (int i = pattIdxStart; i <= pattIdxEnd; i++)
 			{
-				if (!pattDirs[i].equals("**"))
+				if (!pattDirs[i].isAnyPath())
 				{
 					return false;
 				}
@@ -250,7 +331,7 @@ public class AntPathMatcher implements PathMatcher
 			int patIdxTmp = -1;
 			for (int i = pattIdxStart + 1; i <= pattIdxEnd; i++)
 			{
-				if (pattDirs[i].equals("**"))
+				if (pattDirs[i].isAnyPath())
 				{
 					patIdxTmp = i;
 					break;
@@ -272,9 +353,9 @@ public class AntPathMatcher implements PathMatcher
 			{
 				for (int j = 0; j < patLength; j++)
 				{
-					String subPat = pattDirs[pattIdxStart + j + 1];
+					AntPathSegment subPat = pattDirs[pattIdxStart + j + 1];
 					String subStr = pathDirs[pathIdxStart + i + j];
-					if (!matchStrings(subPat, subStr, uriTemplateVariables))
+					if (!subPat.matchStrings(subStr, uriTemplateVariables))
 					{
 						continue strLoop;
 					}
@@ -294,7 +375,7 @@ public class AntPathMatcher implements PathMatcher
 
 		for (int i = pattIdxStart; i <= pattIdxEnd; i++)
 		{
-			if (!pattDirs[i].equals("**"))
+			if (!pattDirs[i].isAnyPath())
 			{
 				return false;
 			}
@@ -304,23 +385,165 @@ public class AntPathMatcher implements PathMatcher
 	}
 
 	/**
-	 * Tests whether or not a string matches against a pattern. The pattern may
-	 * contain two special characters:<br>
-	 * '*' means zero or more characters<br>
-	 * '?' means one and only one character
+	 * Match the given <code>path</code> against a pattern that ends with a
+	 * '**' segment.
+	 * <p>
+	 * Such patterns can be matched from left to right, so the path is walked
+	 * using index offsets into the original String and each path segment is
+	 * compared in place, without tokenizing the path. This method has the
+	 * same semantics than the generic algorithm in
+	 * {@link #doMatch(AntPathPattern, String, boolean, Map)}, but it does not
+	 * allocate any object unless the pattern has URI template variables.
+	 */
+	private boolean doMatchPrefix(AntPathPattern pattern, String path,
+			Map<String, String> uriTemplateVariables)
+	{
+		AntPathSegment[] pattDirs = pattern.getSegments();
+		int pattIdx = 0;
+		int pathIdx = nextSegmentStart(path, 0);
+
+		// Match all elements up to the first **
+		while (!pattDirs[pattIdx].isAnyPath())
+		{
+			if (pathIdx == -1)
+			{
+				// Path is exhausted, but pattern is not
+				return false;
+			}
+			int pathSegEnd = segmentEnd(path, pathIdx);
+			if (!pattDirs[pattIdx].matchStrings(path, pathIdx, pathSegEnd,
+					uriTemplateVariables))
+			{
+				return false;
+			}
+			pattIdx++;
+			pathIdx = nextSegmentStart(path, pathSegEnd);
+		}
+
+		// Find each group of elements between ** in the remaining path
+		while (pattIdx < pattDirs.length - 1)
+		{
+			int groupStart = pattIdx + 1;
+			int groupEnd = groupStart;
+			while (!pattDirs[groupEnd].isAnyPath())
+			{
+				groupEnd++;
+			}
+
+			if (groupStart == groupEnd)
+			{
+				// '**/**' situation, so skip one
+				pattIdx++;
+				continue;
+			}
+
+			// Try each path element as the beginning of the group
+			int groupPathEnd = -1;
+			while (pathIdx != -1 && groupPathEnd == -1)
+			{
+				groupPathEnd = matchGroup(pattDirs, groupStart, groupEnd,
+						path, pathIdx, uriTemplateVariables);
+				if (groupPathEnd == -1)
+				{
+					pathIdx = nextSegmentStart(path, segmentEnd(path, pathIdx));
+				}
+			}
+
+			if (groupPathEnd == -1)
+			{
+				return false;
+			}
+
+			pattIdx = groupEnd;
+			pathIdx = nextSegmentStart(path, groupPathEnd);
+		}
+
+		return true;
+	}
+
+	/**
+	 * Match the pattern elements between <code>groupStart</code> (inclusive)
+	 * and <code>groupEnd</code> (exclusive) against consecutive path elements
+	 * beginning at the given path offset.
 	 * 
-	 * @param pattern pattern to match against. Must not be <code>null</code>.
-	 * @param str string which must be matched against the pattern. Must not be
-	 *            <code>null</code>.
-	 * @return <code>true</code> if the string matches against the pattern, or
-	 *         <code>false</code> otherwise.
+	 * @return the offset where the last matched path element ends, or -1 if
+	 *         the group does not match.
 	 */
-	private boolean matchStrings(String pattern, String str,
+	private int matchGroup(AntPathSegment[] pattDirs, int groupStart,
+			int groupEnd, String path, int pathIdx,
 			Map<String, String> uriTemplateVariables)
 	{
-		AntPathStringMatcher matcher = new AntPathStringMatcher(pattern, str,
-				uriTemplateVariables);
-		return matcher.matchStrings();
+		int start = pathIdx;
+		int end = -1;
+		for (int i = groupStart; i < groupEnd; i++)
+		{
+			if (start == -1)
+			{
+				return -1;
+			}
+			end = segmentEnd(path, start);
+			if (!pattDirs[i].matchStrings(path, start, end,
+					uriTemplateVariables))
+			{
+				return -1;
+			}
+			start = nextSegmentStart(path, end);
+		}
+		return end;
+	}
+
+	/**
+	 * Get the offset where the next path element begins, with the same rules
+	 * than {@link #tokenizeToStringArray(String, String)}: separators and
+	 * leading whitespace are skipped.
+	 * 
+	 * @return the offset of the next path element, or -1 if there are no more
+	 *         elements.
+	 */
+	private int nextSegmentStart(String path, int from)
+	{
+		for (int i = from; i < path.length(); i++)
+		{
+			char c = path.charAt(i);
+			if (c > ' ' && this.pathSeparator.indexOf(c) == -1)
+			{
+				return i;
+			}
+		}
+		return -1;
+	}
+
+	/**
+	 * Get the first element of the given path.
+	 * 
+	 * @param path The path.
+	 * @return The first element of the path, or <code>null</code> if the path
+	 *         has no elements.
+	 */
+	String firstSegment(String path)
+	{
+		int start = nextSegmentStart(path, 0);
+		return start == -1 ? null : path.substring(start,
+				segmentEnd(path, start));
+	}
+
+	/**
+	 * Get the offset where the path element that begins at the given offset
+	 * ends, ignoring trailing whitespace.
+	 */
+	private int segmentEnd(String path, int start)
+	{
+		int end = start;
+		while (end < path.length()
+				&& this.pathSeparator.indexOf(path.charAt(end)) == -1)
+		{
+			end++;
+		}
+		while (end > start && path.charAt(end - 1) <= ' ')
+		{
+			end--;
+		}
+		return end;
 	}
 
 	/**
@@ -597,7 +820,7 @@ public class AntPathMatcher implements PathMatcher
 	 * @return an array of the tokens (<code>null</code> if the input String was
 	 *         <code>null</code>)
 	 */
-	private String[] tokenizeToStringArray(String str, String delimiters)
+	private static String[] tokenizeToStringArray(String str, String delimiters)
 	{
 		if (str == null)
 		{
@@ -618,6 +841,17 @@ public class AntPathMatcher implements PathMatcher
 		return tokens.toArray(new String[tokens.size()]);
 	}
 
+	/**
+	 * Tokenize the given path using the configured path separator.
+	 * 
+	 * @param path the path to tokenize.
+	 * @return the path segments.
+	 */
+	String[] tokenizePath(String path)
+	{
+		return tokenizeToStringArray(path, this.pathSeparator);
+	}
+
 	/**
 	 * Check that the given String is neither <code>null</code> nor of length 0.
 	 * Note: Will return <code>true</code> for a String that purely consists of
@@ -785,11 +1019,14 @@ public class AntPathMatcher implements PathMatcher
 	 * The pattern may contain special characters: '*' means zero or more
 	 * characters; '?' means one and only one character; '{' and '}' indicate a
 	 * URI template pattern.
+	 * <p>
+	 * Instances are immutable once created, so the same matcher can be reused
+	 * to match several strings against the same pattern.
 	 * 
 	 * @author Arjen Poutsma
 	 * @since 3.0
 	 */
-	private static class AntPathStringMatcher
+	static class AntPathStringMatcher
 	{
 
 		private static final Pattern GLOB_PATTERN = Pattern
@@ -799,18 +1036,11 @@ public class AntPathMatcher implements PathMatcher
 
 		private final Pattern pattern;
 
-		private String str;
-
 		private final List<String> variableNames = new LinkedList<String>();
 
-		private final Map<String, String> uriTemplateVariables;
-
 		/** Construct a new instance of the <code>AntPatchStringMatcher</code>. */
-		AntPathStringMatcher(String pattern, String str,
-				Map<String, String> uriTemplateVariables)
+		AntPathStringMatcher(String pattern)
 		{
-			this.str = str;
-			this.uriTemplateVariables = uriTemplateVariables;
 			this.pattern = createPattern(pattern);
 		}
 
@@ -868,10 +1098,14 @@ public class AntPathMatcher implements PathMatcher
 		/**
 		 * Main entry point.
 		 * 
+		 * @param str the string to match.
+		 * @param uriTemplateVariables the map where the URI template variables
+		 *            will be populated. May be <code>null</code>.
 		 * @return <code>true</code> if the string matches against the pattern,
 		 *         or <code>false</code> otherwise.
 		 */
-		public boolean matchStrings()
+		public boolean matchStrings(String str,
+				Map<String, String> uriTemplateVariables)
 		{
 			Matcher matcher = pattern.matcher(str);
 			if (matcher.matches())
@@ -894,4 +1128,225 @@ public class AntPathMatcher implements PathMatcher
 		}
 
 	}
+
+	/**
+	 * Package-protected helper class for {@link AntPathMatcher}. Holds a
+	 * pattern already split in segments, so it can be matched against several
+	 * paths without being parsed again.
+	 */
+	static class AntPathPattern
+	{
+
+		private final String pattern;
+
+		private final AntPathSegment[] segments;
+
+		/** Construct a new instance of the <code>AntPathPattern</code>. */
+		AntPathPattern(String pattern, String pathSeparator)
+		{
+			this.pattern = pattern;
+
+			String[] tokens = tokenizeToStringArray(pattern, pathSeparator);
+			this.segments = new AntPathSegment[tokens.length];
+			for (int i = 0; i < tokens.length; i++)
+			{
+				this.segments[i] = new AntPathSegment(tokens[i]);
+			}
+		}
+
+		public String getPattern()
+		{
+			return pattern;
+		}
+
+		public AntPathSegment[] getSegments()
+		{
+			return segments;
+		}
+
+		/**
+		 * Checks if the pattern ends with a '**' segment.
+		 */
+		public boolean isPrefixPattern()
+		{
+			return segments.length > 0
+					&& segments[segments.length - 1].isAnyPath();
+		}
+
+	}
+
+	/**
+	 * Package-protected helper class for {@link AntPathMatcher}. Tests whether
+	 * or not a path segment matches against a single pattern segment.
+	 * 
+	 * <p>
+	 * Literal segments are compared as plain strings and segments with '*' or
+	 * '?' wildcards are matched character by character. Regular expressions
+	 * are only used for segments with URI templates.
+	 */
+	static class AntPathSegment
+	{
+
+		private final String segment;
+
+		private final SegmentType type;
+
+		private final AntPathStringMatcher matcher;
+
+		/** Construct a new instance of the <code>AntPathSegment</code>. */
+		AntPathSegment(String segment)
+		{
+			this.segment = segment;
+
+			if (PATTERN_SUFFIX.equals(segment))
+			{
+				this.type = SegmentType.ANY_PATH;
+			}
+			else if (segment.indexOf('{') != -1)
+			{
+				this.type = SegmentType.TEMPLATE;
+			}
+			else if (segment.indexOf('*') != -1 || segment.indexOf('?') != -1)
+			{
+				this.type = SegmentType.GLOB;
+			}
+			else
+			{
+				this.type = SegmentType.LITERAL;
+			}
+
+			this.matcher = (type == SegmentType.TEMPLATE ? new AntPathStringMatcher(
+					segment) : null);
+		}
+
+		public String getSegment()
+		{
+			return segment;
+		}
+
+		/**
+		 * Checks if this is a '**' segment.
+		 */
+		public boolean isAnyPath()
+		{
+			return type == SegmentType.ANY_PATH;
+		}
+
+		/**
+		 * Checks if this segment contains wildcards or URI templates.
+		 */
+		public boolean isPattern()
+		{
+			return type != SegmentType.LITERAL;
+		}
+
+		/**
+		 * Main entry point.
+		 * 
+		 * @param str the string to match.
+		 * @param uriTemplateVariables the map where the URI template variables
+		 *            will be populated. May be <code>null</code>.
+		 * @return <code>true</code> if the string matches against the segment,
+		 *         or <code>false</code> otherwise.
+		 */
+		public boolean matchStrings(String str,
+				Map<String, String> uriTemplateVariables)
+		{
+			return matchStrings(str, 0, str.length(), uriTemplateVariables);
+		}
+
+		/**
+		 * Match the region of the given string between <code>start</code>
+		 * (inclusive) and <code>end</code> (exclusive) without extracting it.
+		 * 
+		 * @see #matchStrings(String, Map)
+		 */
+		public boolean matchStrings(String str, int start, int end,
+				Map<String, String> uriTemplateVariables)
+		{
+			switch (type)
+			{
+				case LITERAL:
+					return end - start == segment.length()
+							&& str.regionMatches(start, segment, 0,
+									segment.length());
+				case GLOB:
+					return matchGlob(str, start, end);
+				case TEMPLATE:
+					return matcher.matchStrings(str.substring(start, end),
+							uriTemplateVariables);
+				default:
+					return true;
+			}
+		}
+
+		/**
+		 * Match the given string against the wildcards in the segment, with
+		 * the same semantics than the regular expression built by the
+		 * {@link AntPathStringMatcher}.
+		 */
+		private boolean matchGlob(String str, int start, int end)
+		{
+			int patIdx = 0;
+			int strIdx = start;
+			int starPatIdx = -1;
+			int starStrIdx = -1;
+
+			while (strIdx < end)
+			{
+				if (patIdx < segment.length())
+				{
+					char patChar = segment.charAt(patIdx);
+					if (patChar == '*')
+					{
+						starPatIdx = patIdx++;
+						starStrIdx = strIdx;
+						continue;
+					}
+
+					char strChar = str.charAt(strIdx);
+					if (patChar == strChar
+							|| (patChar == '?' && !isLineTerminator(strChar)))
+					{
+						patIdx++;
+						strIdx++;
+						continue;
+					}
+				}
+
+				// Let the last '*' consume one more character, if possible
+				if (starPatIdx != -1
+						&& !isLineTerminator(str.charAt(starStrIdx)))
+				{
+					patIdx = starPatIdx + 1;
+					strIdx = ++starStrIdx;
+					continue;
+				}
+
+				return false;
+			}
+
+			while (patIdx < segment.length() && segment.charAt(patIdx) == '*')
+			{
+				patIdx++;
+			}
+
+			return patIdx == segment.length();
+		}
+
+		/**
+		 * Characters not matched by the '.' regular expression construct.
+		 */
+		private static boolean isLineTerminator(char c)
+		{
+			return c == '\n' || c == '\r' || c == '\u0085' || c == '\u2028'
+					|| c == '\u2029';
+		}
+
+		private enum SegmentType
+		{
+			LITERAL, GLOB, TEMPLATE, ANY_PATH
+		}
+
+	}
 }
@@ -0,0 +1,117 @@
+/**
+ * Copyright (c) 2010 Ignasi Barrera
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package org.sjmvc.web.dispatch.path;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.sjmvc.util.BoundedCache;
+
+/**
+ * {@link RouteTable} that caches the routes resolved by another route table.
+ * <p>
+ * Resolved routes are kept in a {@link BoundedCache} indexed by the requested
+ * path, so lookups do not take any lock. Paths that do not resolve to any
+ * mapping are not cached. The cache is bound to the decorated route table, so a
+ * new cache must be created when the routes change.
+ * 
+ * @author Ignasi Barrera
+ * 
+ * @see org.sjmvc.config.Configuration#DISPATCHER_CACHE_SIZE_PROPERTY
+ */
+public class CachingRouteTable implements RouteTable
+{
+	/** The route table used to resolve the routes that are not cached. */
+	private final RouteTable routes;
+
+	/** The resolved routes. */
+	private final BoundedCache<String, RouteMatch> cache;
+
+	/** The number of routes resolved from the cache. */
+	private final AtomicLong hits = new AtomicLong();
+
+	/** The number of routes not found in the cache. */
+	private final AtomicLong misses = new AtomicLong();
+
+	/**
+	 * Creates the route table.
+	 * 
+	 * @param routes The route table used to resolve the routes that are not
+	 *            cached.
+	 * @param capacity The maximum number of routes to cache.
+	 */
+	public CachingRouteTable(final RouteTable routes, final int capacity)
+	{
+		super();
+		this.routes = routes;
+		this.cache = new BoundedCache<String, RouteMatch>(capacity);
+	}
+
+	@Override
+	public RouteMatch match(final String path)
+	{
+		RouteMatch match = cache.get(path);
+
+		if (match != null)
+		{
+			hits.incrementAndGet();
+			return match;
+		}
+
+		misses.incrementAndGet();
+		match = routes.match(path);
+
+		if (match != null)
+		{
+			cache.put(path, match);
+		}
+
+		return match;
+	}
+
+	// Getters
+
+	public RouteTable getRoutes()
+	{
+		return routes;
+	}
+
+	public long getHits()
+	{
+		return hits.get();
+	}
+
+	public long getMisses()
+	{
+		return misses.get();
+	}
+
+	public int getSize()
+	{
+		return cache.size();
+	}
+
+	public int getCapacity()
+	{
+		return cache.getCapacity();
+	}
+}
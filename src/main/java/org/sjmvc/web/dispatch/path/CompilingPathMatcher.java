@@ -0,0 +1,45 @@
+/**
+ * Copyright (c) 2010 Ignasi Barrera
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package org.sjmvc.web.dispatch.path;
+
+/**
+ * {@link PathMatcher} that can compile the patterns before using them.
+ * <p>
+ * The {@link PathBasedRequestDispatcher} compiles all mapped patterns when
+ * loading the controller mappings, so invalid patterns are reported at startup
+ * and requests do not pay the cost of compiling them.
+ * 
+ * @author Ignasi Barrera
+ * 
+ * @see PathMatcher
+ */
+public interface CompilingPathMatcher extends PathMatcher
+{
+	/**
+	 * Compiles the given pattern and keeps it for later use.
+	 * 
+	 * @param pattern The pattern to compile.
+	 * @throws IllegalArgumentException If the pattern is not valid.
+	 */
+	public void compile(String pattern);
+}
@@ -0,0 +1,54 @@
+/**
+ * Copyright (c) 2010 Ignasi Barrera
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package org.sjmvc.web.dispatch.path;
+
+/**
+ * The strategies used by the {@link PathBasedRequestDispatcher} to resolve the
+ * controller mappings.
+ * 
+ * @author Ignasi Barrera
+ * 
+ * @see RouteTable
+ */
+public enum DispatcherMode
+{
+	/**
+	 * Check each mapping against the requested path using the configured
+	 * {@link PathMatcher}.
+	 * <p>
+	 * When using the {@link AntPathMatcher}, mappings are checked from the most
+	 * specific to the most generic one. When using the
+	 * {@link RegExpPathMatcher}, only the mappings whose literal prefix matches
+	 * the requested path are checked.
+	 */
+	LINEAR,
+
+	/**
+	 * Compile all mappings in a segment trie and resolve the most specific
+	 * mapping walking the requested path segments.
+	 * <p>
+	 * This mode requires the {@link AntPathMatcher}.
+	 */
+	TRIE;
+
+}
@@ -0,0 +1,152 @@
+/**
+ * Copyright (c) 2010 Ignasi Barrera
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package org.sjmvc.web.dispatch.path;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Set;
+
+import org.sjmvc.util.BoundedCache;
+import org.sjmvc.web.ResourceMapping;
+
+/**
+ * {@link RouteTable} that rejects the paths that cannot be handled by any
+ * mapping before resolving them with another route table.
+ * <p>
+ * When using the {@link AntPathMatcher} and all mappings begin with a literal
+ * element, paths that do not begin with one of those elements are rejected
+ * with a single lookup. Paths that could not be resolved recently are also
+ * rejected without resolving them again.
+ * 
+ * @author Ignasi Barrera
+ */
+public class FilteringRouteTable implements RouteTable
+{
+	/** Maximum number of unresolved paths to remember. */
+	public static final int NOT_FOUND_CACHE_SIZE = 1024;
+
+	/** The route table used to resolve the paths that are not rejected. */
+	private final RouteTable routes;
+
+	/** The path matcher used to get the first element of the paths. */
+	private final AntPathMatcher pathMatcher;
+
+	/**
+	 * The first element of all mappings, or <code>null</code> if paths cannot
+	 * be filtered by their first element.
+	 */
+	private final Set<String> firstSegments;
+
+	/** The paths that could not be resolved recently. */
+	private final BoundedCache<String, Boolean> notFound = new BoundedCache<String, Boolean>(
+			NOT_FOUND_CACHE_SIZE);
+
+	/**
+	 * Creates the route table.
+	 * 
+	 * @param routes The route table used to resolve the paths that are not
+	 *            rejected.
+	 * @param pathMatcher The path matcher used to check the mappings.
+	 * @param mappings The mappings in the route table.
+	 */
+	public FilteringRouteTable(final RouteTable routes,
+			final PathMatcher pathMatcher,
+			final Collection<ResourceMapping> mappings)
+	{
+		super();
+		this.routes = routes;
+
+		if (pathMatcher instanceof AntPathMatcher)
+		{
+			this.pathMatcher = (AntPathMatcher) pathMatcher;
+			this.firstSegments = getFirstSegments(this.pathMatcher, mappings);
+		}
+		else
+		{
+			this.pathMatcher = null;
+			this.firstSegments = null;
+		}
+	}
+
+	@Override
+	public RouteMatch match(final String path)
+	{
+		if (firstSegments != null
+				&& !firstSegments.contains(pathMatcher.firstSegment(path)))
+		{
+			return null;
+		}
+
+		if (notFound.get(path) != null)
+		{
+			return null;
+		}
+
+		RouteMatch match = routes.match(path);
+
+		if (match == null)
+		{
+			notFound.put(path, Boolean.TRUE);
+		}
+
+		return match;
+	}
+
+	/**
+	 * Get the first element of all mappings.
+	 * 
+	 * @return The first element of all mappings, or <code>null</code> if any
+	 *         mapping does not begin with a literal element.
+	 */
+	private static Set<String> getFirstSegments(
+			final AntPathMatcher pathMatcher,
+			final Collection<ResourceMapping> mappings)
+	{
+		Set<String> segments = new HashSet<String>();
+
+		for (ResourceMapping mapping : mappings)
+		{
+			String segment = pathMatcher.firstSegment(mapping.getPath());
+			if (segment == null || pathMatcher.isPattern(segment)
+					|| segment.indexOf('{') != -1)
+			{
+				return null;
+			}
+			segments.add(segment);
+		}
+
+		return segments;
+	}
+
+	// Getters
+
+	public RouteTable getRoutes()
+	{
+		return routes;
+	}
+
+	public boolean isFilteringFirstSegment()
+	{
+		return firstSegments != null;
+	}
+}
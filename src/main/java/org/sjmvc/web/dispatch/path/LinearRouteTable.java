@@ -0,0 +1,94 @@
+/**
+ * Copyright (c) 2010 Ignasi Barrera
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package org.sjmvc.web.dispatch.path;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+import org.sjmvc.web.ResourceMapping;
+
+/**
+ * {@link RouteTable} that checks each mapping against the requested path using
+ * the configured {@link PathMatcher}.
+ * <p>
+ * The first mapping that matches the requested path is used to handle the
+ * request.
+ * 
+ * @author Ignasi Barrera
+ * 
+ * @see DispatcherMode#LINEAR
+ */
+public class LinearRouteTable implements RouteTable
+{
+	/** The path matcher used to check the mappings. */
+	private final PathMatcher pathMatcher;
+
+	/** The mappings to check. */
+	private final List<ResourceMapping> mappings;
+
+	/**
+	 * Creates the route table.
+	 * 
+	 * @param pathMatcher The path matcher used to check the mappings.
+	 * @param mappings The mappings to check.
+	 */
+	public LinearRouteTable(final PathMatcher pathMatcher,
+			final Collection<ResourceMapping> mappings)
+	{
+		super();
+		this.pathMatcher = pathMatcher;
+		this.mappings = new ArrayList<ResourceMapping>(mappings);
+	}
+
+	@Override
+	public RouteMatch match(final String path)
+	{
+		for (ResourceMapping mapping : mappings)
+		{
+			if (pathMatcher.matches(mapping.getPath(), path))
+			{
+				return new RouteMatch(mapping, extractVariables(mapping, path));
+			}
+		}
+
+		return null;
+	}
+
+	/**
+	 * Extract the URI template variables, if supported by the path matcher.
+	 */
+	private Map<String, String> extractVariables(
+			final ResourceMapping mapping, final String path)
+	{
+		if (pathMatcher instanceof AntPathMatcher
+				&& mapping.getPath().indexOf('{') != -1)
+		{
+			return ((AntPathMatcher) pathMatcher).extractUriTemplateVariables(
+					mapping.getPath(), path);
+		}
+
+		return null;
+	}
+}
@@ -0,0 +1,75 @@
+/**
+ * Copyright (c) 2010 Ignasi Barrera
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package org.sjmvc.web.dispatch.path;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * The {@link RouteTable} used to resolve the requests of each HTTP method.
+ * <p>
+ * Each route table only contains the mappings that accept the corresponding
+ * method. Methods not declared by any mapping use the route table of the
+ * mappings that accept all methods.
+ * 
+ * @author Ignasi Barrera
+ * 
+ * @see org.sjmvc.web.ResourceMapping#getMethods()
+ */
+public class MethodRouteTable
+{
+	/** The route table of each declared HTTP method. */
+	private final Map<String, RouteTable> routesByMethod;
+
+	/** The route table of the mappings that accept all methods. */
+	private final RouteTable defaultRoutes;
+
+	/**
+	 * Creates the route table.
+	 * 
+	 * @param routesByMethod The route table of each declared HTTP method.
+	 * @param defaultRoutes The route table of the mappings that accept all
+	 *            methods.
+	 */
+	public MethodRouteTable(final Map<String, RouteTable> routesByMethod,
+			final RouteTable defaultRoutes)
+	{
+		super();
+		this.routesByMethod = Collections
+				.unmodifiableMap(new HashMap<String, RouteTable>(routesByMethod));
+		this.defaultRoutes = defaultRoutes;
+	}
+
+	/**
+	 * Get the route table used to resolve the requests of the given method.
+	 * 
+	 * @param method The HTTP method.
+	 * @return The route table for the given method.
+	 */
+	public RouteTable getRoutes(final String method)
+	{
+		RouteTable routes = routesByMethod.get(method);
+		return routes != null ? routes : defaultRoutes;
+	}
+}
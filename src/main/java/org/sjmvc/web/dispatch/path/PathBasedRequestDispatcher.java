@@ -22,16 +22,32 @@
 
 package org.sjmvc.web.dispatch.path;
 
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
-import java.util.Properties;
+import java.util.ServiceConfigurationError;
+import java.util.ServiceLoader;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.atomic.AtomicLong;
 
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 
+import org.apache.commons.lang.StringUtils;
 import org.sjmvc.config.Configuration;
 import org.sjmvc.config.ConfigurationException;
+import org.sjmvc.config.ConfigurationSnapshot;
+import org.sjmvc.config.MappingDefinition;
 import org.sjmvc.controller.Controller;
+import org.sjmvc.controller.ControllerFactories;
+import org.sjmvc.controller.ControllerFactory;
+import org.sjmvc.controller.PooledControllerFactory;
+import org.sjmvc.controller.SingletonControllerFactory;
 import org.sjmvc.web.ResourceMapping;
 import org.sjmvc.web.dispatch.RequestDispatcher;
 import org.slf4j.Logger;
@@ -50,23 +66,61 @@ public class PathBasedRequestDispatcher implements RequestDispatcher
 	private static final Logger LOGGER = LoggerFactory
 			.getLogger(PathBasedRequestDispatcher.class);
 
+	/** The minimum time between two logged requests to unmapped paths. */
+	private static final long NOT_FOUND_LOG_INTERVAL = 10000;
+
+	/** The HEAD HTTP method. */
+	private static final String METHOD_HEAD = "HEAD";
+
+	/** The time when the next request to an unmapped path can be logged. */
+	private final AtomicLong nextNotFoundLog = new AtomicLong();
+
+	/** The requests to unmapped paths not logged since the last one. */
+	private final AtomicLong skippedNotFoundLogs = new AtomicLong();
+
+	/** The configuration used by the dispatcher. */
+	protected final ConfigurationSnapshot configuration;
+
 	/** Mappings from request path to {@link ResourceMapping} objects. */
 	protected Map<String, ResourceMapping> mappings;
 
 	/** The path matcher used to check controller mappings. */
 	protected PathMatcher pathMatcher;
 
+	/** The compiled mappings used to resolve the controller mappings. */
+	protected RouteTable routes;
+
+	/**
+	 * The compiled mappings used to resolve the controller mappings for each
+	 * HTTP method, or <code>null</code> if all mappings accept all methods.
+	 */
+	protected MethodRouteTable methodRoutes;
+
 	/**
-	 * Creates the request dispatcher.
+	 * Creates the request dispatcher with the current configuration.
 	 * 
 	 * @throws ConfigurationException If controller mapping configuration cannot
 	 *             be read.
 	 */
 	public PathBasedRequestDispatcher() throws ConfigurationException
+	{
+		this(Configuration.createSnapshot());
+	}
+
+	/**
+	 * Creates the request dispatcher with the given configuration.
+	 * 
+	 * @param configuration The configuration.
+	 * @throws ConfigurationException If controller mappings cannot be loaded.
+	 */
+	public PathBasedRequestDispatcher(final ConfigurationSnapshot configuration)
+			throws ConfigurationException
 	{
 		super();
+		this.configuration = configuration;
 		loadPathMatcher();
 		loadControllerMappings();
+		compileRoutes();
 	}
 
 	@Override
@@ -76,32 +130,55 @@ public class PathBasedRequestDispatcher implements RequestDispatcher
 		LOGGER.debug("Looking for a controller to handle request to: {}",
 				req.getRequestURI());
 
-		ResourceMapping mapping = null;
 		String requestedPath = getRequestedPath(req);
+		req.setAttribute(Configuration.REQUESTED_PATH_ATTRIBUTE, requestedPath);
+
+		RouteTable candidates = methodRoutes == null ? routes : methodRoutes
+				.getRoutes(req.getMethod());
+		RouteMatch match = candidates.match(requestedPath);
 
-		for (String path : mappings.keySet())
+		if (match == null && candidates != routes)
 		{
-			if (pathMatcher.matches(path, requestedPath))
+			// Check if the resource exists but does not accept the method
+			RouteMatch other = routes.match(requestedPath);
+			if (other != null)
 			{
-				mapping = mappings.get(path);
-
-				LOGGER.debug("Using {} controller to handle request to: {}",
-						mapping.getClass().getName(), req.getRequestURI());
-
-				// Use first match to handle the request
-				break;
+				sendMethodNotAllowed(req, resp, other.getMapping());
+				return;
 			}
 		}
 
-		if (mapping != null)
+		if (match != null)
 		{
-			// Instantiate the controller on each request to make it thread-safe
-			Controller controller = mapping.getControllerClass().newInstance();
+			ResourceMapping mapping = match.getMapping();
+
+			LOGGER.debug("Using {} controller to handle request to: {}",
+					mapping.getControllerClass().getName(),
+					req.getRequestURI());
+
+			if (!match.getVariables().isEmpty())
+			{
+				req.setAttribute(Configuration.PATH_VARIABLES_ATTRIBUTE,
+						match.getVariables());
+			}
+
+			ControllerFactory factory = mapping.getControllerFactory();
+			Controller controller = factory.getController();
 
 			// Execute controller logic and get the view to render
-			String viewName = controller.execute(req, resp);
+			String viewName = null;
+			try
+			{
+				viewName = controller.execute(req, resp);
+			}
+			finally
+			{
+				factory.releaseController(controller);
+			}
 
-			if (viewName != null)
+			// Responses to HEAD requests have no body, so there is no need to
+			// render the view
+			if (viewName != null && !METHOD_HEAD.equals(req.getMethod()))
 			{
 				// Publish the view and layout attributes to render the view
 				if (mapping.getLayout() != null)
@@ -119,22 +196,103 @@ public class PathBasedRequestDispatcher implements RequestDispatcher
 		}
 		else
 		{
-			LOGGER.error("No controller was found to handle request to: {}",
-					req.getRequestURI());
+			logNotFound(req);
+			sendNotFound(resp);
+		}
+	}
+
+	/**
+	 * Destroy the controllers kept by the singleton and pooled controller
+	 * factories.
+	 * <p>
+	 * The dispatcher must not handle more requests once it has been destroyed.
+	 */
+	public void destroy()
+	{
+		for (ResourceMapping mapping : mappings.values())
+		{
+			ControllerFactory factory = mapping.getControllerFactory();
+
+			if (factory instanceof SingletonControllerFactory)
+			{
+				((SingletonControllerFactory) factory).destroy();
+			}
+			else if (factory instanceof PooledControllerFactory)
+			{
+				((PooledControllerFactory) factory).destroy();
+			}
+		}
+	}
 
-			resp.sendError(
-					HttpServletResponse.SC_NOT_FOUND,
-					"No controller was found to handle request to: "
-							+ req.getRequestURI());
+	/**
+	 * Log a request to an unmapped path.
+	 * <p>
+	 * Only one request is logged every {@link #NOT_FOUND_LOG_INTERVAL}
+	 * milliseconds, along with the number of requests that were not logged.
+	 * 
+	 * @param req The request.
+	 */
+	private void logNotFound(final HttpServletRequest req)
+	{
+		long now = System.currentTimeMillis();
+		long next = nextNotFoundLog.get();
+
+		if (now >= next
+				&& nextNotFoundLog.compareAndSet(next, now
+						+ NOT_FOUND_LOG_INTERVAL))
+		{
+			long skipped = skippedNotFoundLogs.getAndSet(0);
+			LOGGER.error("No controller was found to handle request to: {} "
+					+ "({} similar requests not logged)", req.getRequestURI(),
+					skipped);
+		}
+		else
+		{
+			skippedNotFoundLogs.incrementAndGet();
 		}
 	}
 
+	/**
+	 * Send the method not allowed response.
+	 * 
+	 * @param req The request.
+	 * @param resp The response.
+	 * @param mapping The mapping of the requested resource.
+	 * @throws IOException If the response cannot be sent.
+	 */
+	private void sendMethodNotAllowed(final HttpServletRequest req,
+			final HttpServletResponse resp, final ResourceMapping mapping)
+			throws IOException
+	{
+		LOGGER.debug("The {} controller does not accept {} requests",
+				mapping.getControllerClass().getName(), req.getMethod());
+
+		resp.setHeader("Allow", StringUtils.join(mapping.getMethods(), ", "));
+		resp.sendError(HttpServletResponse.SC_METHOD_NOT_ALLOWED);
+	}
+
+	/**
+	 * Send the not found response.
+	 * <p>
+	 * The error is sent without a message, so the container renders its
+	 * configured error page (or its default one) without building a response
+	 * body for each request to an unmapped path.
+	 * 
+	 * @param resp The response.
+	 * @throws IOException If the response cannot be sent.
+	 */
+	private void sendNotFound(final HttpServletResponse resp)
+			throws IOException
+	{
+		resp.sendError(HttpServletResponse.SC_NOT_FOUND);
+	}
+
 	/**
 	 * Load the {@link PathMatcher} to use to process request URIs.
 	 */
 	protected void loadPathMatcher() throws ConfigurationException
 	{
-		Class<? extends PathMatcher> pathMatcherClass = Configuration
+		Class<? extends PathMatcher> pathMatcherClass = configuration
 				.getPathMatcherClass();
 		try
 		{
@@ -150,73 +308,369 @@ public class PathBasedRequestDispatcher implements RequestDispatcher
 
 	/**
 	 * Load configured controller mappings.
+	 * <p>
+	 * If there is any {@link RouteProvider} in the classpath, its mappings are
+	 * used and the mappings in the configuration file are ignored.
 	 * 
 	 * @throws Exception If mappings cannot be loaded.
 	 */
 	protected void loadControllerMappings() throws ConfigurationException
 	{
+		List<RouteProvider> providers = loadRouteProviders();
+
+		if (!providers.isEmpty())
+		{
+			loadProvidedMappings(providers);
+			return;
+		}
+
 		mappings = new HashMap<String, ResourceMapping>();
-		Properties config = Configuration.getConfiguration();
 
 		LOGGER.info("Loading controller mappings...");
 
-		for (Object mappingKey : config.keySet())
+		for (MappingDefinition definition : configuration.getMappings())
 		{
-			String key = (String) mappingKey;
+			String path = definition.getPath();
+
+			compilePath(path);
+
+			Class<Controller> controllerClass = getControllerClass(definition
+					.getControllerClass());
 
-			if (Configuration.isControllerPathProperty(key))
+			ResourceMapping mapping = new ResourceMapping();
+			mapping.setPath(path);
+			mapping.setLayout(definition.getLayout());
+			mapping.setMethods(definition.getMethods());
+			mapping.setControllerClass(controllerClass);
+			mapping.setControllerFactory(ControllerFactories.createControllerFactory(
+					controllerClass, definition.getFactoryClass(),
+					definition.getScope(), definition.getPoolMin(),
+					definition.getPoolMax()));
+
+			mappings.put(path, mapping);
+
+			LOGGER.info("Mapping {} to {}", path, controllerClass.getName());
+		}
+	}
+
+	/**
+	 * Load the {@link RouteProvider} services available in the classpath.
+	 * 
+	 * @return The route providers.
+	 * @throws ConfigurationException If the providers cannot be loaded.
+	 */
+	protected List<RouteProvider> loadRouteProviders()
+			throws ConfigurationException
+	{
+		List<RouteProvider> providers = new ArrayList<RouteProvider>();
+		ClassLoader cl = Thread.currentThread().getContextClassLoader();
+
+		try
+		{
+			for (RouteProvider provider : ServiceLoader.load(
+					RouteProvider.class, cl))
+			{
+				providers.add(provider);
+			}
+		}
+		catch (ServiceConfigurationError ex)
+		{
+			throw new ConfigurationException(
+					"Could not load the route providers: " + ex.getMessage(), ex);
+		}
+
+		return providers;
+	}
+
+	/**
+	 * Load the controller mappings of the given providers.
+	 * <p>
+	 * The mappings are kept in the order they are provided.
+	 * 
+	 * @param providers The route providers.
+	 * @throws ConfigurationException If the mappings are not valid.
+	 */
+	private void loadProvidedMappings(final List<RouteProvider> providers)
+			throws ConfigurationException
+	{
+		mappings = new LinkedHashMap<String, ResourceMapping>();
+
+		LOGGER.info("Loading generated controller mappings...");
+
+		for (RouteProvider provider : providers)
+		{
+			for (ResourceMapping mapping : provider.getMappings())
 			{
-				String path = config.getProperty(key);
-				String clazz = config.getProperty(key.replace(
-						Configuration.CONTROLLER_PATH_SUFFIX,
-						Configuration.CONTROLLER_CLASS_SUFFIX));
-				String layout = config.getProperty(key.replace(
-						Configuration.CONTROLLER_PATH_SUFFIX,
-						Configuration.CONTROLLER_LAYOUT_SUFFIX));
-
-				if (clazz == null)
+				if (mappings.containsKey(mapping.getPath()))
 				{
-					throw new ConfigurationException(
-							"Missing controller class for path: " + path);
+					throw new ConfigurationException("Duplicate controller path: "
+							+ mapping.getPath());
 				}
 
-				try
-				{
-					ClassLoader cl = Thread.currentThread()
-							.getContextClassLoader();
+				compilePath(mapping.getPath());
+				mappings.put(mapping.getPath(), mapping);
 
-					@SuppressWarnings("unchecked")
-					Class<Controller> controllerClass = (Class<Controller>) Class
-							.forName(clazz, true, cl);
+				LOGGER.info("Mapping {} to {}", mapping.getPath(), mapping
+						.getControllerClass().getName());
+			}
+		}
+	}
 
-					ResourceMapping mapping = new ResourceMapping();
-					mapping.setPath(path);
-					mapping.setLayout(layout);
-					mapping.setControllerClass(controllerClass);
+	/**
+	 * Load the given {@link Controller} class.
+	 * 
+	 * @param clazz The name of the controller class.
+	 * @return The controller class.
+	 * @throws ConfigurationException If the class cannot be loaded or is not a
+	 *             controller.
+	 */
+	@SuppressWarnings("unchecked")
+	private Class<Controller> getControllerClass(final String clazz)
+			throws ConfigurationException
+	{
+		Class<?> controllerClass = null;
+
+		try
+		{
+			ClassLoader cl = Thread.currentThread().getContextClassLoader();
+			controllerClass = Class.forName(clazz, true, cl);
+		}
+		catch (Exception ex)
+		{
+			throw new ConfigurationException("Could not get controller class: "
+					+ clazz);
+		}
+
+		if (!Controller.class.isAssignableFrom(controllerClass))
+		{
+			throw new ConfigurationException("Class " + clazz
+					+ " does not implement " + Controller.class.getName());
+		}
 
-					mappings.put(path, mapping);
+		return (Class<Controller>) controllerClass;
+	}
+
+	/**
+	 * Compile the given mapping path, if supported by the {@link PathMatcher},
+	 * so it does not need to be compiled during request processing.
+	 * 
+	 * @param path The mapping path.
+	 * @throws ConfigurationException If the path is not a valid pattern.
+	 */
+	protected void compilePath(final String path) throws ConfigurationException
+	{
+		if (pathMatcher instanceof CompilingPathMatcher)
+		{
+			try
+			{
+				((CompilingPathMatcher) pathMatcher).compile(path);
+			}
+			catch (IllegalArgumentException ex)
+			{
+				throw new ConfigurationException("Invalid controller path: "
+						+ path + ". " + ex.getMessage(), ex);
+			}
+		}
+	}
 
-					LOGGER.info("Mapping {} to {}", path,
-							controllerClass.getName());
+	/**
+	 * Compile the loaded controller mappings according to the configured
+	 * {@link DispatcherMode}.
+	 * <p>
+	 * If any mapping declares the HTTP methods it accepts, a route table is
+	 * also compiled for each declared method.
+	 * 
+	 * @throws ConfigurationException If mappings cannot be compiled.
+	 */
+	protected void compileRoutes() throws ConfigurationException
+	{
+		DispatcherMode mode = configuration.getDispatcherMode();
+		int cacheSize = configuration.getDispatcherCacheSize();
+
+		LOGGER.info("Compiling controller mappings in {} mode...", mode);
+
+		if (mode == DispatcherMode.TRIE
+				&& !(pathMatcher instanceof AntPathMatcher))
+		{
+			throw new ConfigurationException("The " + mode
+					+ " dispatcher mode requires the "
+					+ AntPathMatcher.class.getName() + " path matcher");
+		}
+
+		if (cacheSize > 0)
+		{
+			LOGGER.info("Caching up to {} resolved routes", cacheSize);
+		}
+
+		routes = compileRoutes(mode, cacheSize, mappings.values());
+
+		// Compile a route table for each declared HTTP method
+		Set<String> methods = new TreeSet<String>();
+		for (ResourceMapping mapping : mappings.values())
+		{
+			if (mapping.getMethods() != null)
+			{
+				methods.addAll(mapping.getMethods());
+			}
+		}
+
+		if (methods.isEmpty())
+		{
+			methodRoutes = null;
+		}
+		else
+		{
+			Map<String, RouteTable> routesByMethod = new HashMap<String, RouteTable>();
+			for (String method : methods)
+			{
+				LOGGER.info("Compiling controller mappings for {} requests...",
+						method);
+				routesByMethod.put(method,
+						compileRoutes(mode, cacheSize, getMappings(method)));
+			}
+
+			methodRoutes = new MethodRouteTable(routesByMethod, compileRoutes(
+					mode, cacheSize, getMappings(null)));
+		}
+	}
+
+	/**
+	 * Compile the given mappings using the given {@link DispatcherMode}.
+	 * 
+	 * @param mode The dispatcher mode.
+	 * @param cacheSize The number of resolved routes to cache.
+	 * @param mappings The mappings to compile.
+	 * @return The route table with the given mappings.
+	 */
+	private RouteTable compileRoutes(final DispatcherMode mode,
+			final int cacheSize, final Collection<ResourceMapping> mappings)
+	{
+		RouteTable compiled = null;
+
+		switch (mode)
+		{
+			case TRIE:
+				compiled = new TrieRouteTable((AntPathMatcher) pathMatcher,
+						mappings);
+				break;
+			default:
+				if (pathMatcher instanceof AntPathMatcher)
+				{
+					compiled = new SortedRouteTable(
+							(AntPathMatcher) pathMatcher, mappings);
 				}
-				catch (Exception ex)
+				else if (pathMatcher instanceof RegExpPathMatcher)
 				{
-					throw new ConfigurationException(
-							"Could not get controller class: " + clazz);
+					compiled = new PrefixIndexedRouteTable(
+							(RegExpPathMatcher) pathMatcher, mappings);
 				}
+				else
+				{
+					compiled = new LinearRouteTable(pathMatcher, mappings);
+				}
+				break;
+		}
+
+		// The cache is bound to the compiled routes, so it is discarded
+		// each time the routes are compiled
+		if (cacheSize > 0)
+		{
+			compiled = new CachingRouteTable(compiled, cacheSize);
+		}
+
+		return new FilteringRouteTable(compiled, pathMatcher, mappings);
+	}
+
+	/**
+	 * Get the mappings that accept the given HTTP method.
+	 * 
+	 * @param method The HTTP method, or <code>null</code> to get the mappings
+	 *            that accept all methods.
+	 * @return The mappings that accept the given method.
+	 */
+	private Collection<ResourceMapping> getMappings(final String method)
+	{
+		List<ResourceMapping> accepting = new ArrayList<ResourceMapping>();
+		for (ResourceMapping mapping : mappings.values())
+		{
+			if (method == null ? mapping.getMethods() == null : mapping
+					.acceptsMethod(method))
+			{
+				accepting.add(mapping);
 			}
 		}
+		return accepting;
 	}
 
 	/**
 	 * Get the requested path relative to the servlet path.
+	 * <p>
+	 * If the path matcher ignores empty path elements, duplicate and trailing
+	 * slashes are removed from the path, so equivalent paths are resolved and
+	 * cached only once.
 	 * 
 	 * @param req The request.
 	 * @return The requested path.
 	 */
 	private String getRequestedPath(final HttpServletRequest req)
 	{
-		return req.getRequestURI().replaceFirst(req.getContextPath(), "")
-				.replaceFirst(req.getServletPath(), "");
+		return getPathWithinServlet(req.getRequestURI(), req.getContextPath(),
+				req.getServletPath(), pathMatcher instanceof AntPathMatcher);
+	}
+
+	/**
+	 * Get the part of the given request URI that is within the servlet
+	 * mapping.
+	 * 
+	 * @param uri The request URI.
+	 * @param contextPath The context path of the request.
+	 * @param servletPath The servlet path of the request.
+	 * @param normalize If duplicate and trailing slashes must be removed.
+	 * @return The requested path within the servlet mapping.
+	 */
+	static String getPathWithinServlet(final String uri,
+			final String contextPath, final String servletPath,
+			final boolean normalize)
+	{
+		int start = 0;
+
+		if (contextPath != null && uri.startsWith(contextPath))
+		{
+			start = contextPath.length();
+		}
+		if (servletPath != null && uri.startsWith(servletPath, start))
+		{
+			start += servletPath.length();
+		}
+
+		if (!normalize)
+		{
+			return uri.substring(start);
+		}
+
+		int end = uri.length();
+		while (end > start && uri.charAt(end - 1) == '/')
+		{
+			end--;
+		}
+
+		int duplicate = uri.indexOf("//", start);
+		if (duplicate == -1 || duplicate + 1 >= end)
+		{
+			return uri.substring(start, end);
+		}
+
+		StringBuilder path = new StringBuilder(end - start);
+		path.append(uri, start, duplicate + 1);
+		for (int i = duplicate + 1; i < end; i++)
+		{
+			char c = uri.charAt(i);
+			if (c != '/' || uri.charAt(i - 1) != '/')
+			{
+				path.append(c);
+			}
+		}
+
+		return path.toString();
 	}
 }
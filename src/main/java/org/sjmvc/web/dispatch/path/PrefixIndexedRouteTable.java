@@ -0,0 +1,255 @@
+/**
+ * Copyright (c) 2010 Ignasi Barrera
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package org.sjmvc.web.dispatch.path;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.sjmvc.web.ResourceMapping;
+
+/**
+ * {@link RouteTable} for regular expression mappings that only checks the
+ * mappings whose literal prefix matches the requested path.
+ * <p>
+ * The literal prefix of each regular expression is extracted when the table is
+ * built, and mappings are indexed by prefix in a sorted map. When a path is
+ * requested, only the mappings whose prefix is a prefix of the path are
+ * evaluated. Candidates are evaluated in the order the mappings were given, so
+ * the resolved mapping is the same one the {@link LinearRouteTable} would
+ * resolve.
+ * 
+ * @author Ignasi Barrera
+ * 
+ * @see RegExpPathMatcher
+ */
+public class PrefixIndexedRouteTable implements RouteTable
+{
+	/** The path matcher used to check the mappings. */
+	private final PathMatcher pathMatcher;
+
+	/** The mappings indexed by their literal prefix. */
+	private final TreeMap<String, Route[]> index = new TreeMap<String, Route[]>();
+
+	/**
+	 * Creates the route table.
+	 * 
+	 * @param pathMatcher The path matcher used to check the mappings.
+	 * @param mappings The mappings to check.
+	 */
+	public PrefixIndexedRouteTable(final RegExpPathMatcher pathMatcher,
+			final Collection<ResourceMapping> mappings)
+	{
+		super();
+		this.pathMatcher = pathMatcher;
+
+		Map<String, List<Route>> routesByPrefix = new TreeMap<String, List<Route>>();
+		int order = 0;
+
+		for (ResourceMapping mapping : mappings)
+		{
+			String prefix = literalPrefix(mapping.getPath());
+			List<Route> routes = routesByPrefix.get(prefix);
+			if (routes == null)
+			{
+				routes = new ArrayList<Route>();
+				routesByPrefix.put(prefix, routes);
+			}
+			routes.add(new Route(order++, mapping));
+		}
+
+		for (Map.Entry<String, List<Route>> entry : routesByPrefix.entrySet())
+		{
+			index.put(entry.getKey(),
+					entry.getValue().toArray(new Route[entry.getValue().size()]));
+		}
+	}
+
+	@Override
+	public RouteMatch match(final String path)
+	{
+		List<Route> candidates = null;
+		Route[] single = null;
+
+		// Walk all indexed prefixes of the path, from the longest to the
+		// shortest one
+		String probe = path;
+		while (probe != null)
+		{
+			String prefix = index.floorKey(probe);
+			if (prefix == null)
+			{
+				break;
+			}
+
+			if (path.startsWith(prefix))
+			{
+				Route[] routes = index.get(prefix);
+				if (single == null)
+				{
+					single = routes;
+				}
+				else
+				{
+					if (candidates == null)
+					{
+						candidates = new ArrayList<Route>();
+						Collections.addAll(candidates, single);
+					}
+					Collections.addAll(candidates, routes);
+				}
+
+				probe = prefix.isEmpty() ? null : prefix.substring(0,
+						prefix.length() - 1);
+			}
+			else
+			{
+				// No indexed prefix longer than the common prefix can be a
+				// prefix of the path
+				probe = path.substring(0, commonPrefixLength(prefix, path));
+			}
+		}
+
+		if (candidates != null)
+		{
+			Collections.sort(candidates, ROUTE_ORDER);
+			for (Route route : candidates)
+			{
+				if (pathMatcher.matches(route.mapping.getPath(), path))
+				{
+					return new RouteMatch(route.mapping, null);
+				}
+			}
+		}
+		else if (single != null)
+		{
+			for (Route route : single)
+			{
+				if (pathMatcher.matches(route.mapping.getPath(), path))
+				{
+					return new RouteMatch(route.mapping, null);
+				}
+			}
+		}
+
+		return null;
+	}
+
+	/**
+	 * Get the literal prefix that all the paths matching the given regular
+	 * expression must start with.
+	 * <p>
+	 * The returned prefix may be shorter than the actual one, but it is never
+	 * longer. Expressions with alternations have an empty prefix.
+	 * 
+	 * @param regex The regular expression.
+	 * @return The literal prefix of the regular expression.
+	 */
+	static String literalPrefix(final String regex)
+	{
+		if (regex.indexOf('|') != -1)
+		{
+			return "";
+		}
+
+		StringBuilder prefix = new StringBuilder();
+		int i = 0;
+
+		while (i < regex.length())
+		{
+			char c = regex.charAt(i);
+			int next = i + 1;
+
+			if (c == '\\')
+			{
+				// Only escaped non alphanumeric characters are literals
+				if (next >= regex.length()
+						|| Character.isLetterOrDigit(regex.charAt(next)))
+				{
+					break;
+				}
+				c = regex.charAt(next++);
+			}
+			else if (".[]{}()*+?^$".indexOf(c) != -1)
+			{
+				break;
+			}
+
+			// Quantified characters may not be present in the path
+			if (next < regex.length() && "*+?{".indexOf(regex.charAt(next)) != -1)
+			{
+				break;
+			}
+
+			prefix.append(c);
+			i = next;
+		}
+
+		return prefix.toString();
+	}
+
+	/**
+	 * Get the length of the common prefix of the given strings.
+	 */
+	private static int commonPrefixLength(final String a, final String b)
+	{
+		int max = Math.min(a.length(), b.length());
+		int i = 0;
+		while (i < max && a.charAt(i) == b.charAt(i))
+		{
+			i++;
+		}
+		return i;
+	}
+
+	/** Sorts the routes in the order the mappings were given. */
+	private static final Comparator<Route> ROUTE_ORDER = new Comparator<Route>() {
+		@Override
+		public int compare(final Route r1, final Route r2)
+		{
+			return r1.order < r2.order ? -1 : r1.order == r2.order ? 0 : 1;
+		}
+	};
+
+	/**
+	 * A mapping and its position in the list of mappings.
+	 */
+	private static class Route
+	{
+		/** The position of the mapping. */
+		private final int order;
+
+		/** The mapping. */
+		private final ResourceMapping mapping;
+
+		public Route(final int order, final ResourceMapping mapping)
+		{
+			this.order = order;
+			this.mapping = mapping;
+		}
+	}
+}
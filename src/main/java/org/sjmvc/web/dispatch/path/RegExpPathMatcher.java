@@ -22,19 +22,28 @@
 
 package org.sjmvc.web.dispatch.path;
 
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.sjmvc.util.BoundedCache;
+
 /**
  * Regular expression based {@link PathMatcher}.
  * <p>
  * This matcher checks from the beginning of the path to the end of the matching
  * pattern. It does not try to match the full path, in order to be able to map
  * global resources.
+ * <p>
+ * Compiled patterns are cached, and each thread reuses its own
+ * {@link Matcher} for each pattern, so matching a path only costs the match
+ * itself.
  * 
  * @author Ignasi Barrera
  * 
  * @see PathMatcher
  * @see PathBasedRequestDispatcher
  */
-public class RegExpPathMatcher implements PathMatcher
+public class RegExpPathMatcher implements CompilingPathMatcher
 {
 	/** Prefix used in the matching patter. */
 	private static final String PATTERN_PREFIX = "^";
@@ -42,11 +51,69 @@ public class RegExpPathMatcher implements PathMatcher
 	/** Suffix used in the matching patter. */
 	private static final String PATTERN_SUFFIX = ".*$";
 
+	/** Maximum number of compiled patterns to keep in the cache. */
+	public static final int PATTERN_CACHE_SIZE = 1024;
+
+	/** Compiled patterns, indexed by the original pattern. */
+	private final BoundedCache<String, CompiledPattern> patternCache = new BoundedCache<String, CompiledPattern>(
+			PATTERN_CACHE_SIZE);
+
 	@Override
 	public boolean matches(String pattern, String path)
 	{
-		String matchString = PATTERN_PREFIX + pattern + PATTERN_SUFFIX;
-		return path.matches(matchString);
+		return getCompiledPattern(pattern).matches(path);
+	}
+
+	@Override
+	public void compile(String pattern)
+	{
+		getCompiledPattern(pattern);
+	}
+
+	/**
+	 * Get the compiled version of the given pattern.
+	 * 
+	 * @param pattern The pattern.
+	 * @return The compiled pattern.
+	 */
+	private CompiledPattern getCompiledPattern(String pattern)
+	{
+		CompiledPattern compiled = patternCache.get(pattern);
+		if (compiled == null)
+		{
+			compiled = new CompiledPattern(PATTERN_PREFIX + pattern
+					+ PATTERN_SUFFIX);
+			patternCache.put(pattern, compiled);
+		}
+		return compiled;
+	}
+
+	/**
+	 * A compiled pattern with a reusable {@link Matcher} for each thread.
+	 */
+	private static class CompiledPattern
+	{
+		/** The compiled pattern. */
+		private final Pattern pattern;
+
+		/** The matcher used by each thread. */
+		private final ThreadLocal<Matcher> matcher = new ThreadLocal<Matcher>() {
+			@Override
+			protected Matcher initialValue()
+			{
+				return pattern.matcher("");
+			}
+		};
+
+		public CompiledPattern(String regex)
+		{
+			this.pattern = Pattern.compile(regex);
+		}
+
+		public boolean matches(String path)
+		{
+			return matcher.get().reset(path).matches();
+		}
 	}
 
 }
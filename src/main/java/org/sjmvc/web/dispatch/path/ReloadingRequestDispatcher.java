@@ -0,0 +1,361 @@
+/**
+ * Copyright (c) 2010 Ignasi Barrera
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.sjmvc.web.dispatch.path;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.apache.commons.lang.ObjectUtils;
+import org.sjmvc.config.ConfigurationListener;
+import org.sjmvc.config.ConfigurationSnapshot;
+import org.sjmvc.controller.ConstructorControllerFactory;
+import org.sjmvc.controller.ControllerFactory;
+import org.sjmvc.controller.PooledControllerFactory;
+import org.sjmvc.controller.SingletonControllerFactory;
+import org.sjmvc.web.ResourceMapping;
+import org.sjmvc.web.dispatch.RequestDispatcher;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * {@link RequestDispatcher} that replaces its {@link PathBasedRequestDispatcher}
+ * when the configuration changes.
+ * <p>
+ * The new dispatcher is built in the thread that reports the configuration
+ * change, and is published with a single volatile write. Requests being
+ * processed keep using the previous dispatcher, and request processing never
+ * blocks while the routes are rebuilt. If the new configuration cannot be
+ * loaded, the current dispatcher is kept.
+ * <p>
+ * The replaced dispatcher is destroyed once the requests it is processing have
+ * finished, so its singleton and pooled controllers are released.
+ * <p>
+ * Only the settings in the {@link ConfigurationSnapshot} are reloaded: the
+ * controller mappings, the path matcher and the dispatcher mode and cache
+ * size. The reload interval and the settings read from
+ * {@link org.sjmvc.config.Configuration} when they are used keep the values
+ * they had when the application started, and the mappings provided by the
+ * generated {@link RouteProvider} classes do not change.
+ * 
+ * @author Ignasi Barrera
+ * 
+ * @see org.sjmvc.config.ConfigurationWatcher
+ */
+public class ReloadingRequestDispatcher implements RequestDispatcher,
+		ConfigurationListener
+{
+	/** The logger. */
+	private static final Logger LOGGER = LoggerFactory
+			.getLogger(ReloadingRequestDispatcher.class);
+
+	/** The dispatcher for the current configuration. */
+	private volatile Generation current;
+
+	/**
+	 * Creates the dispatcher.
+	 * 
+	 * @param dispatcher The dispatcher for the initial configuration.
+	 */
+	public ReloadingRequestDispatcher(final PathBasedRequestDispatcher dispatcher)
+	{
+		super();
+		this.current = new Generation(dispatcher);
+	}
+
+	@Override
+	public void dispatch(final HttpServletRequest request,
+			final HttpServletResponse response) throws Exception
+	{
+		Generation generation = acquire();
+
+		try
+		{
+			generation.dispatcher.dispatch(request, response);
+		}
+		finally
+		{
+			release(generation);
+		}
+	}
+
+	/**
+	 * Get the current dispatcher, and register the request being processed.
+	 */
+	private Generation acquire()
+	{
+		while (true)
+		{
+			Generation generation = current;
+			generation.active.incrementAndGet();
+
+			if (!generation.retired)
+			{
+				return generation;
+			}
+
+			// The dispatcher has just been replaced
+			release(generation);
+		}
+	}
+
+	/**
+	 * Unregister a processed request, and destroy the dispatcher if it has been
+	 * replaced and it was the last request being processed.
+	 */
+	private static void release(final Generation generation)
+	{
+		if (generation.active.decrementAndGet() == 0 && generation.retired)
+		{
+			generation.destroy();
+		}
+	}
+
+	/**
+	 * Destroy the current dispatcher once the requests it is processing have
+	 * finished.
+	 */
+	public void destroy()
+	{
+		retire(current);
+	}
+
+	/**
+	 * Destroy the given dispatcher once the requests it is processing have
+	 * finished.
+	 */
+	private static void retire(final Generation generation)
+	{
+		generation.retired = true;
+
+		if (generation.active.get() == 0)
+		{
+			generation.destroy();
+		}
+	}
+
+	@Override
+	public void configurationChanged(final ConfigurationSnapshot configuration)
+	{
+		PathBasedRequestDispatcher reloaded = null;
+
+		try
+		{
+			reloaded = createDispatcher(configuration);
+		}
+		catch (Exception ex)
+		{
+			LOGGER.error("Could not load the new controller mappings. "
+					+ "The current ones will be kept: " + ex.getMessage(), ex);
+			return;
+		}
+
+		Generation previous = current;
+		List<String> changes = diff(previous.dispatcher.mappings,
+				reloaded.mappings);
+
+		current = new Generation(reloaded);
+		retire(previous);
+
+		if (changes.isEmpty())
+		{
+			LOGGER.info("Configuration reloaded. Controller mappings unchanged");
+		}
+		else
+		{
+			LOGGER.info("Configuration reloaded. Controller mappings changed:");
+			for (String change : changes)
+			{
+				LOGGER.info("  {}", change);
+			}
+		}
+	}
+
+	/**
+	 * Create the dispatcher for the given configuration.
+	 * 
+	 * @param configuration The configuration.
+	 * @return The dispatcher.
+	 */
+	protected PathBasedRequestDispatcher createDispatcher(
+			final ConfigurationSnapshot configuration)
+	{
+		return new PathBasedRequestDispatcher(configuration);
+	}
+
+	/**
+	 * Get the changes between the given controller mappings.
+	 * 
+	 * @param current The current mappings.
+	 * @param reloaded The new mappings.
+	 * @return The description of the added, removed and changed mappings.
+	 */
+	static List<String> diff(final Map<String, ResourceMapping> current,
+			final Map<String, ResourceMapping> reloaded)
+	{
+		List<String> changes = new ArrayList<String>();
+
+		for (ResourceMapping mapping : reloaded.values())
+		{
+			ResourceMapping previous = current.get(mapping.getPath());
+
+			if (previous == null)
+			{
+				changes.add("Added " + describe(mapping));
+			}
+			else if (previous.getControllerClass() != mapping
+					.getControllerClass()
+					|| !ObjectUtils.equals(previous.getLayout(),
+							mapping.getLayout())
+					|| !ObjectUtils.equals(previous.getMethods(),
+							mapping.getMethods())
+					|| !describeFactory(previous).equals(
+							describeFactory(mapping)))
+			{
+				changes.add("Changed " + describe(previous) + " to "
+						+ describe(mapping));
+			}
+		}
+
+		for (ResourceMapping mapping : current.values())
+		{
+			if (!reloaded.containsKey(mapping.getPath()))
+			{
+				changes.add("Removed " + describe(mapping));
+			}
+		}
+
+		return changes;
+	}
+
+	/**
+	 * Get the description of the given mapping.
+	 */
+	private static String describe(final ResourceMapping mapping)
+	{
+		StringBuilder description = new StringBuilder(mapping.getPath());
+		description.append(" -> ").append(
+				mapping.getControllerClass().getName());
+
+		if (mapping.getLayout() != null)
+		{
+			description.append(" (layout ").append(mapping.getLayout())
+					.append(")");
+		}
+		if (mapping.getMethods() != null)
+		{
+			description.append(" ").append(mapping.getMethods());
+		}
+
+		String factory = describeFactory(mapping);
+		if (factory.length() > 0)
+		{
+			description.append(" (").append(factory).append(")");
+		}
+
+		return description.toString();
+	}
+
+	/**
+	 * Get the description of the scope and the factory of the controllers of
+	 * the given mapping.
+	 * <p>
+	 * The default prototype scope and the default factory are not described.
+	 */
+	private static String describeFactory(final ResourceMapping mapping)
+	{
+		StringBuilder description = new StringBuilder();
+		ControllerFactory factory = mapping.getControllerFactory();
+
+		if (factory instanceof SingletonControllerFactory)
+		{
+			description.append("singleton");
+			factory = ((SingletonControllerFactory) factory).getFactory();
+		}
+		else if (factory instanceof PooledControllerFactory)
+		{
+			PooledControllerFactory pool = (PooledControllerFactory) factory;
+			description.append("pooled ").append(pool.getMinSize())
+					.append("-").append(pool.getMaxSize());
+			factory = pool.getFactory();
+		}
+
+		if (factory != null
+				&& factory.getClass() != ConstructorControllerFactory.class)
+		{
+			if (description.length() > 0)
+			{
+				description.append(", ");
+			}
+			description.append("factory ").append(factory.getClass().getName());
+		}
+
+		return description.toString();
+	}
+
+	/**
+	 * The dispatcher for a configuration, and the requests it is processing.
+	 */
+	private static class Generation
+	{
+		/** The dispatcher. */
+		private final PathBasedRequestDispatcher dispatcher;
+
+		/** The number of requests being processed. */
+		private final AtomicInteger active = new AtomicInteger();
+
+		/** Indicates if the dispatcher has been destroyed. */
+		private final AtomicBoolean destroyed = new AtomicBoolean();
+
+		/** Indicates if the dispatcher has been replaced. */
+		private volatile boolean retired;
+
+		public Generation(final PathBasedRequestDispatcher dispatcher)
+		{
+			super();
+			this.dispatcher = dispatcher;
+		}
+
+		/**
+		 * Destroy the dispatcher, if it has not already been destroyed.
+		 */
+		public void destroy()
+		{
+			if (destroyed.compareAndSet(false, true))
+			{
+				dispatcher.destroy();
+			}
+		}
+	}
+
+	// Getters
+
+	public PathBasedRequestDispatcher getDispatcher()
+	{
+		return current.dispatcher;
+	}
+}
@@ -0,0 +1,87 @@
+/**
+ * Copyright (c) 2010 Ignasi Barrera
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package org.sjmvc.web.dispatch.path;
+
+import java.util.Collections;
+import java.util.Map;
+
+import org.sjmvc.web.ResourceMapping;
+
+/**
+ * The result of resolving a requested path against a {@link RouteTable}.
+ * <p>
+ * It holds the resolved {@link ResourceMapping} and the values of the URI
+ * template variables, if any, found in the requested path.
+ * 
+ * @author Ignasi Barrera
+ * 
+ * @see RouteTable
+ */
+public class RouteMatch
+{
+	/** The resolved mapping. */
+	private final ResourceMapping mapping;
+
+	/** The values of the URI template variables. */
+	private final Map<String, String> variables;
+
+	/**
+	 * Creates a match without URI template variables.
+	 * 
+	 * @param mapping The resolved mapping.
+	 */
+	public RouteMatch(final ResourceMapping mapping)
+	{
+		this(mapping, null);
+	}
+
+	/**
+	 * Creates a match.
+	 * 
+	 * @param mapping The resolved mapping.
+	 * @param variables The values of the URI template variables. May be
+	 *            <code>null</code>.
+	 */
+	public RouteMatch(final ResourceMapping mapping,
+			final Map<String, String> variables)
+	{
+		super();
+		this.mapping = mapping;
+		this.variables = variables == null || variables.isEmpty() ? Collections
+				.<String, String> emptyMap() : Collections
+				.unmodifiableMap(variables);
+	}
+
+	// Getters
+
+	public ResourceMapping getMapping()
+	{
+		return mapping;
+	}
+
+	public Map<String, String> getVariables()
+	{
+		return variables;
+	}
+
+}
@@ -0,0 +1,159 @@
+/**
+ * Copyright (c) 2010 Ignasi Barrera
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package org.sjmvc.web.dispatch.path;
+
+import java.util.Comparator;
+
+/**
+ * The precedence of the {@link AntPathMatcher} mappings, used by all the route
+ * tables to choose the mapping that handles a path when several mappings match
+ * it.
+ * <p>
+ * Mappings are compared segment by segment, and the first segment that differs
+ * decides the precedence:
+ * <ol>
+ * <li>Literal segments win over any other segment.</li>
+ * <li>Segments with wildcards or URI template variables win over
+ * <code>**</code> segments, and are sorted in order of explicitness using the
+ * {@link AntPathMatcher} pattern comparator.</li>
+ * <li><code>**</code> segments win over the end of the mapping, so a mapping
+ * always wins over the shorter mappings that are a prefix of it.</li>
+ * </ol>
+ * Mappings with the same segments are sorted by the pattern comparator and by
+ * path, so the result never depends on the order of the mappings.
+ * 
+ * @author Ignasi Barrera
+ * 
+ * @see SortedRouteTable
+ * @see TrieRouteTable
+ */
+class RoutePrecedence implements Comparator<String>
+{
+	/** The rank of the literal segments. */
+	private static final int LITERAL = 0;
+
+	/** The rank of the segments with wildcards or URI template variables. */
+	private static final int PATTERN = 1;
+
+	/** The rank of the '**' segments. */
+	private static final int ANY_PATH = 2;
+
+	/** The rank of the end of a mapping. */
+	private static final int END = 3;
+
+	/** The path matcher used to tokenize the mappings. */
+	private final AntPathMatcher pathMatcher;
+
+	/** The comparator used to sort the patterns. */
+	private final Comparator<String> patternComparator;
+
+	/**
+	 * Creates the route precedence.
+	 * 
+	 * @param pathMatcher The path matcher used to tokenize the mappings.
+	 */
+	public RoutePrecedence(final AntPathMatcher pathMatcher)
+	{
+		super();
+		this.pathMatcher = pathMatcher;
+		this.patternComparator = pathMatcher.getPatternComparator(null);
+	}
+
+	@Override
+	public int compare(final String path1, final String path2)
+	{
+		String[] segments1 = pathMatcher.tokenizePath(path1);
+		String[] segments2 = pathMatcher.tokenizePath(path2);
+
+		for (int i = 0; i < Math.max(segments1.length, segments2.length); i++)
+		{
+			int result = compareSegments(
+					i < segments1.length ? segments1[i] : null,
+					i < segments2.length ? segments2[i] : null);
+
+			if (result != 0)
+			{
+				return result;
+			}
+		}
+
+		int result = patternComparator.compare(path1, path2);
+		return result != 0 ? result : path1.compareTo(path2);
+	}
+
+	/**
+	 * Compare two mapping segments.
+	 * 
+	 * @param segment1 The first segment, or <code>null</code> if the mapping
+	 *            has ended.
+	 * @param segment2 The second segment, or <code>null</code> if the mapping
+	 *            has ended.
+	 * @return A negative number if the first segment has precedence, a
+	 *         positive number if the second one has precedence, or zero if
+	 *         they are equal.
+	 */
+	public int compareSegments(final String segment1, final String segment2)
+	{
+		int rank1 = rank(segment1);
+		int rank2 = rank(segment2);
+
+		if (rank1 != rank2)
+		{
+			return rank1 - rank2;
+		}
+
+		if (rank1 == PATTERN)
+		{
+			int result = patternComparator.compare(segment1, segment2);
+			if (result != 0)
+			{
+				return result;
+			}
+		}
+
+		// Different literal segments never match the same path segment
+		return rank1 == END ? 0 : segment1.compareTo(segment2);
+	}
+
+	/**
+	 * Get the rank of the given segment.
+	 */
+	private static int rank(final String segment)
+	{
+		if (segment == null)
+		{
+			return END;
+		}
+		else if (segment.equals("**"))
+		{
+			return ANY_PATH;
+		}
+		else if (segment.indexOf('{') != -1 || segment.indexOf('*') != -1
+				|| segment.indexOf('?') != -1)
+		{
+			return PATTERN;
+		}
+
+		return LITERAL;
+	}
+}
@@ -0,0 +1,49 @@
+/**
+ * Copyright (c) 2010 Ignasi Barrera
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.sjmvc.web.dispatch.path;
+
+import java.util.List;
+
+import org.sjmvc.web.ResourceMapping;
+
+/**
+ * Provides the controller mappings used by the
+ * {@link PathBasedRequestDispatcher} instead of the ones configured in the
+ * <code>sjmvc.properties</code> file.
+ * <p>
+ * Providers are discovered with the {@link java.util.ServiceLoader}. They are
+ * usually generated at compile time by the
+ * {@link org.sjmvc.processor.RouteProcessor}.
+ * 
+ * @author Ignasi Barrera
+ * 
+ * @see AbstractRouteProvider
+ */
+public interface RouteProvider
+{
+	/**
+	 * Get the controller mappings.
+	 * 
+	 * @return The controller mappings.
+	 */
+	public List<ResourceMapping> getMappings();
+}
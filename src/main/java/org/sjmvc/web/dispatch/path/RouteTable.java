@@ -0,0 +1,47 @@
+/**
+ * Copyright (c) 2010 Ignasi Barrera
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package org.sjmvc.web.dispatch.path;
+
+/**
+ * Compiled set of controller mappings used to resolve the mapping that handles
+ * a request.
+ * <p>
+ * Implementations are built once when the mappings are loaded and must be safe
+ * to use concurrently by several request threads.
+ * 
+ * @author Ignasi Barrera
+ * 
+ * @see RouteMatch
+ * @see PathBasedRequestDispatcher
+ */
+public interface RouteTable
+{
+	/**
+	 * Resolves the mapping that handles the given path.
+	 * 
+	 * @param path The requested path, relative to the servlet path.
+	 * @return The resolved mapping or <code>null</code> if no mapping handles
+	 *         the given path.
+	 */
+	public RouteMatch match(String path);
+}
@@ -0,0 +1,153 @@
+/**
+ * Copyright (c) 2010 Ignasi Barrera
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package org.sjmvc.web.dispatch.path;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.sjmvc.web.ResourceMapping;
+
+/**
+ * {@link RouteTable} that checks the mappings ordered by specificity, so the
+ * most specific mapping that matches the requested path is always used.
+ * <p>
+ * Mappings are sorted once following the {@link RoutePrecedence}, so this table
+ * resolves the same mapping as the {@link TrieRouteTable}. Requests to the
+ * exact path of a literal mapping are resolved with a single lookup, without
+ * matching any pattern.
+ * 
+ * @author Ignasi Barrera
+ * 
+ * @see RoutePrecedence
+ * @see DispatcherMode#LINEAR
+ */
+public class SortedRouteTable implements RouteTable
+{
+	/** The path matcher used to check the mappings. */
+	private final AntPathMatcher pathMatcher;
+
+	/** The mappings, sorted from the most specific to the most generic. */
+	private final ResourceMapping[] mappings;
+
+	/** The resolved routes for the exact paths of the literal mappings. */
+	private final Map<String, RouteMatch> exactRoutes = new HashMap<String, RouteMatch>();
+
+	/**
+	 * Creates the route table.
+	 * 
+	 * @param pathMatcher The path matcher used to check the mappings.
+	 * @param mappings The mappings to check.
+	 */
+	public SortedRouteTable(final AntPathMatcher pathMatcher,
+			final Collection<ResourceMapping> mappings)
+	{
+		super();
+		this.pathMatcher = pathMatcher;
+		this.mappings = mappings.toArray(new ResourceMapping[mappings.size()]);
+
+		final RoutePrecedence precedence = new RoutePrecedence(pathMatcher);
+
+		// The first mapping that matches a path is the one with the highest
+		// precedence
+		Arrays.sort(this.mappings, new Comparator<ResourceMapping>() {
+			@Override
+			public int compare(final ResourceMapping m1,
+					final ResourceMapping m2)
+			{
+				return precedence.compare(m1.getPath(), m2.getPath());
+			}
+		});
+
+		for (ResourceMapping mapping : this.mappings)
+		{
+			if (isLiteral(mapping.getPath()))
+			{
+				// Resolve the path once, since a more specific mapping may
+				// also match it
+				String path = normalize(mapping.getPath());
+				if (!exactRoutes.containsKey(path))
+				{
+					exactRoutes.put(path, scan(path));
+				}
+			}
+		}
+	}
+
+	@Override
+	public RouteMatch match(final String path)
+	{
+		RouteMatch match = exactRoutes.get(path);
+		return match != null ? match : scan(path);
+	}
+
+	/**
+	 * Check the sorted mappings and return the first one that matches the given
+	 * path.
+	 */
+	private RouteMatch scan(final String path)
+	{
+		for (ResourceMapping mapping : mappings)
+		{
+			if (pathMatcher.matches(mapping.getPath(), path))
+			{
+				return new RouteMatch(mapping, extractVariables(mapping, path));
+			}
+		}
+
+		return null;
+	}
+
+	/**
+	 * Extract the URI template variables of the given mapping.
+	 */
+	private Map<String, String> extractVariables(
+			final ResourceMapping mapping, final String path)
+	{
+		return mapping.getPath().indexOf('{') != -1 ? pathMatcher
+				.extractUriTemplateVariables(mapping.getPath(), path) : null;
+	}
+
+	/**
+	 * Check if the given mapping path does not contain any pattern.
+	 */
+	private boolean isLiteral(final String path)
+	{
+		return !pathMatcher.isPattern(path) && path.indexOf('{') == -1;
+	}
+
+	/**
+	 * Get the canonical form of the given literal path.
+	 */
+	private String normalize(final String path)
+	{
+		StringBuilder normalized = new StringBuilder();
+		for (String token : pathMatcher.tokenizePath(path))
+		{
+			normalized.append('/').append(token);
+		}
+		return normalized.toString();
+	}
+}
@@ -0,0 +1,305 @@
+/**
+ * Copyright (c) 2010 Ignasi Barrera
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package org.sjmvc.web.dispatch.path;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.sjmvc.config.ConfigurationException;
+import org.sjmvc.web.ResourceMapping;
+import org.sjmvc.web.dispatch.path.AntPathMatcher.AntPathSegment;
+
+/**
+ * {@link RouteTable} that compiles the mappings in a segment trie.
+ * <p>
+ * Each node of the trie represents a path segment. Literal segments are
+ * indexed by their value, while segments with wildcards or URI template
+ * variables are checked in order of explicitness only when no literal segment
+ * leads to a match. The <code>**</code> segments are checked the last.
+ * <p>
+ * The children of each node are visited following the {@link RoutePrecedence},
+ * so the first match found is the one the {@link SortedRouteTable} resolves.
+ * Since <code>**</code> segments may consume a different number of path
+ * segments, the matches below them are compared using the precedence of the
+ * mappings. For mappings without <code>**</code> segments, the cost of the
+ * lookup depends only on the depth of the requested path, and not on the
+ * number of mappings.
+ * 
+ * @author Ignasi Barrera
+ * 
+ * @see RoutePrecedence
+ * @see DispatcherMode#TRIE
+ */
+public class TrieRouteTable implements RouteTable
+{
+	/** The path matcher used to tokenize paths and match pattern segments. */
+	private final AntPathMatcher pathMatcher;
+
+	/** The precedence of the mappings and the pattern segments. */
+	private final RoutePrecedence precedence;
+
+	/** The root of the trie. */
+	private final Node root = new Node();
+
+	/**
+	 * Creates the route table.
+	 * 
+	 * @param pathMatcher The path matcher used to match the pattern segments.
+	 * @param mappings The mappings to compile.
+	 * @throws ConfigurationException If two mappings resolve to the same route.
+	 */
+	public TrieRouteTable(final AntPathMatcher pathMatcher,
+			final Collection<ResourceMapping> mappings)
+			throws ConfigurationException
+	{
+		super();
+		this.pathMatcher = pathMatcher;
+		this.precedence = new RoutePrecedence(pathMatcher);
+
+		List<Node> routes = new ArrayList<Node>();
+		for (ResourceMapping mapping : mappings)
+		{
+			routes.add(add(mapping));
+		}
+
+		// Rank the mappings so matches can be compared without parsing them
+		Collections.sort(routes, new Comparator<Node>() {
+			@Override
+			public int compare(final Node n1, final Node n2)
+			{
+				return precedence.compare(n1.mapping.getPath(),
+						n2.mapping.getPath());
+			}
+		});
+
+		for (int i = 0; i < routes.size(); i++)
+		{
+			routes.get(i).rank = i;
+		}
+	}
+
+	@Override
+	public RouteMatch match(final String path)
+	{
+		Node node = find(root, pathMatcher.tokenizePath(path), 0);
+
+		if (node == null)
+		{
+			return null;
+		}
+
+		ResourceMapping mapping = node.mapping;
+		Map<String, String> variables = null;
+		if (mapping.getPath().indexOf('{') != -1)
+		{
+			variables = pathMatcher.extractUriTemplateVariables(
+					mapping.getPath(), path);
+		}
+
+		return new RouteMatch(mapping, variables);
+	}
+
+	/**
+	 * Adds the given mapping to the trie.
+	 * 
+	 * @return The node of the mapping.
+	 */
+	private Node add(final ResourceMapping mapping)
+	{
+		Node node = root;
+
+		for (String token : pathMatcher.tokenizePath(mapping.getPath()))
+		{
+			AntPathSegment segment = new AntPathSegment(token);
+
+			if (segment.isAnyPath())
+			{
+				if (node.anyPath == null)
+				{
+					node.anyPath = new Node();
+				}
+				node = node.anyPath;
+			}
+			else if (segment.isPattern())
+			{
+				node = node.patternChild(segment);
+			}
+			else
+			{
+				node = node.literalChild(token);
+			}
+		}
+
+		if (node.mapping != null)
+		{
+			throw new ConfigurationException("Mappings "
+					+ node.mapping.getPath() + " and " + mapping.getPath()
+					+ " resolve to the same route");
+		}
+
+		node.mapping = mapping;
+		return node;
+	}
+
+	/**
+	 * Find the node of the most specific mapping for the given path segments,
+	 * starting at the given node.
+	 */
+	private Node find(final Node node, final String[] segments,
+			final int index)
+	{
+		Node match = findBelow(node, segments, index);
+		return match != null ? match : node.mapping != null ? node : null;
+	}
+
+	/**
+	 * Find the node of the most specific mapping for the given path segments
+	 * in the children of the given node.
+	 */
+	private Node findBelow(final Node node, final String[] segments,
+			final int index)
+	{
+		Node found = null;
+
+		if (index < segments.length)
+		{
+			String segment = segments[index];
+
+			// Literal segments are always more specific than patterns
+			Node literal = node.literals.get(segment);
+			if (literal != null)
+			{
+				found = find(literal, segments, index + 1);
+			}
+
+			for (int i = 0; found == null && i < node.patterns.size(); i++)
+			{
+				PatternEdge edge = node.patterns.get(i);
+				if (edge.segment.matchStrings(segment, null))
+				{
+					found = find(edge.node, segments, index + 1);
+				}
+			}
+		}
+
+		if (found == null && node.anyPath != null)
+		{
+			// The '**' segment may consume any number of path segments, and
+			// each number of consumed segments may match a different mapping
+			for (int i = index; i <= segments.length; i++)
+			{
+				Node match = findBelow(node.anyPath, segments, i);
+				if (match != null
+						&& (found == null || match.rank < found.rank))
+				{
+					found = match;
+				}
+			}
+
+			if (found == null && node.anyPath.mapping != null)
+			{
+				found = node.anyPath;
+			}
+		}
+
+		return found;
+	}
+
+	/**
+	 * A node of the trie.
+	 */
+	private class Node
+	{
+		/** Children for the literal segments, indexed by segment. */
+		private final Map<String, Node> literals = new HashMap<String, Node>();
+
+		/** Children for the pattern segments, in order of explicitness. */
+		private final List<PatternEdge> patterns = new ArrayList<PatternEdge>();
+
+		/** Child for the '**' segment. */
+		private Node anyPath;
+
+		/** The mapping of the route that ends in this node. */
+		private ResourceMapping mapping;
+
+		/** The precedence of the mapping among all the mappings. */
+		private int rank;
+
+		private Node literalChild(final String segment)
+		{
+			Node child = literals.get(segment);
+			if (child == null)
+			{
+				child = new Node();
+				literals.put(segment, child);
+			}
+			return child;
+		}
+
+		private Node patternChild(final AntPathSegment segment)
+		{
+			for (PatternEdge edge : patterns)
+			{
+				if (edge.segment.getSegment().equals(segment.getSegment()))
+				{
+					return edge.node;
+				}
+			}
+
+			PatternEdge edge = new PatternEdge(segment);
+			patterns.add(edge);
+			Collections.sort(patterns);
+
+			return edge.node;
+		}
+	}
+
+	/**
+	 * A link to a child node through a pattern segment.
+	 */
+	private class PatternEdge implements Comparable<PatternEdge>
+	{
+		/** The compiled pattern segment. */
+		private final AntPathSegment segment;
+
+		/** The child node. */
+		private final Node node = new Node();
+
+		private PatternEdge(final AntPathSegment segment)
+		{
+			this.segment = segment;
+		}
+
+		@Override
+		public int compareTo(final PatternEdge other)
+		{
+			return precedence.compareSegments(segment.getSegment(),
+					other.segment.getSegment());
+		}
+	}
+}
@@ -24,6 +24,10 @@ package org.sjmvc.binding;
 
 import static org.testng.Assert.assertEquals;
 
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.List;
+
 import org.sjmvc.NestedTestPojo;
 import org.sjmvc.TestPojo;
 import org.sjmvc.util.ReflectionUtils;
@@ -186,6 +190,34 @@ public class AbstractBinderTest extends BindingTestSupport<TestPojo>
 		checkBindNestedField("integerProperty", "-1", "17", "9");
 	}
 
+	@Test
+	@SuppressWarnings("deprecation")
+	public void testDeprecatedHooksAreCalled() throws Exception
+	{
+		final List<String> names = new ArrayList<String>();
+		AbstractBinder<TestPojo, Object> legacy = new AbstractBinder<TestPojo, Object>(
+				target, null) {
+			@Override
+			protected void doBind()
+			{
+				// Do nothing. Not used in this test.
+			}
+
+			@Override
+			protected void setSimpleValue(Field field, Object currentObject,
+					String name, String value) throws Exception
+			{
+				names.add(field.getName());
+				super.setSimpleValue(field, currentObject, name, value);
+			}
+		};
+
+		legacy.setValue(target, "stringProperty", new String[] { "test" });
+
+		assertEquals(names.toString(), "[stringProperty]");
+		assertEquals(target.getStringProperty(), "test");
+	}
+
 	// Helper methods
 
 	private void checkBindNestedField(String nestedPropertyName,
@@ -0,0 +1,171 @@
+/**
+ * Copyright (c) 2010 Ignasi Barrera
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package org.sjmvc.binding;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertSame;
+import static org.testng.Assert.assertTrue;
+import static org.testng.Assert.fail;
+
+import java.util.List;
+
+import org.sjmvc.NestedTestPojo;
+import org.sjmvc.TestPojo;
+import org.sjmvc.util.ConverterRegistry;
+import org.testng.annotations.Test;
+
+/**
+ * Unit tests for the {@link BindingMetadata} class.
+ * 
+ * @author Ignasi Barrera
+ */
+public class BindingMetadataTest
+{
+	@Test
+	public void testMetadataIsCached()
+	{
+		assertSame(BindingMetadata.forClass(TestPojo.class),
+				BindingMetadata.forClass(TestPojo.class));
+	}
+
+	@Test
+	public void testPropertyKinds() throws Exception
+	{
+		BindingMetadata metadata = BindingMetadata.forClass(TestPojo.class);
+
+		checkProperty(metadata, "stringProperty", PropertyKind.SIMPLE,
+				String.class, null);
+		checkProperty(metadata, "integerProperty", PropertyKind.SIMPLE,
+				Integer.class, null);
+		checkProperty(metadata, "nestedProperty", PropertyKind.NESTED,
+				NestedTestPojo.class, null);
+		checkProperty(metadata, "stringList", PropertyKind.COLLECTION,
+				List.class, String.class);
+		checkProperty(metadata, "integerList", PropertyKind.COLLECTION,
+				List.class, Integer.class);
+		checkProperty(metadata, "stringArray", PropertyKind.ARRAY,
+				String[].class, String.class);
+		checkProperty(metadata, "integerArray", PropertyKind.ARRAY,
+				Integer[].class, Integer.class);
+	}
+
+	@Test
+	public void testConvertersAreResolved() throws Exception
+	{
+		BindingMetadata metadata = BindingMetadata.forClass(TestPojo.class);
+
+		assertSame(metadata.getProperty("integerProperty").getConverter(),
+				ConverterRegistry.getConverter(Integer.class));
+		assertSame(metadata.getProperty("stringList").getConverter(),
+				ConverterRegistry.getConverter(String.class));
+		assertSame(metadata.getProperty("integerArray").getConverter(),
+				ConverterRegistry.getConverter(Integer.class));
+		assertNull(metadata.getProperty("nestedProperty").getConverter());
+	}
+
+	@Test
+	public void testStaticAndTransientPropertiesAreNotBindable()
+			throws Exception
+	{
+		BindingMetadata metadata = BindingMetadata
+				.forClass(MetadataPojo.class);
+
+		assertFalse(metadata.getProperty("CONSTANT").isBindable());
+		assertFalse(metadata.getProperty("transientProperty").isBindable());
+		assertTrue(metadata.getProperty("rawList").isBindable());
+		assertNull(metadata.getProperty("rawList").getElementType());
+	}
+
+	@Test
+	public void testUnexistingProperty()
+	{
+		try
+		{
+			BindingMetadata.forClass(TestPojo.class).getProperty(
+					"unexistingProperty");
+			fail("getProperty should have failed for an unexisting property");
+		}
+		catch (NoSuchFieldException ex)
+		{
+			// Test succeeded
+		}
+	}
+
+	@Test
+	public void testSetRawCollectionFails() throws Exception
+	{
+		AbstractBinder<MetadataPojo, Object> binder = new AbstractBinder<MetadataPojo, Object>(
+				new MetadataPojo(), null) {
+			@Override
+			protected void doBind()
+			{
+				// Do nothing. Not used in this test.
+			}
+		};
+
+		try
+		{
+			binder.setValue(binder.getTarget(), "rawList",
+					new String[] { "a" });
+			fail("Raw collections should not be bound");
+		}
+		catch (BindingError ex)
+		{
+			// Test succeeded
+		}
+	}
+
+	private static void checkProperty(BindingMetadata metadata, String name,
+			PropertyKind kind, Class<?> type, Class<?> elementType)
+			throws Exception
+	{
+		PropertyMetadata property = metadata.getProperty(name);
+
+		assertEquals(property.getName(), name);
+		assertEquals(property.getKind(), kind);
+		assertEquals(property.getType(), type);
+		assertEquals(property.getElementType(), elementType);
+		assertTrue(property.isBindable());
+		assertTrue(property.getField().isAccessible());
+	}
+
+	/**
+	 * Class with properties that cannot be bound.
+	 * 
+	 * @author Ignasi Barrera
+	 */
+	public static class MetadataPojo
+	{
+		/** A static property. */
+		public static String CONSTANT = "constant";
+
+		/** A transient property. */
+		private transient String transientProperty;
+
+		/** A collection without element type. */
+		@SuppressWarnings("rawtypes")
+		private List rawList;
+	}
+}
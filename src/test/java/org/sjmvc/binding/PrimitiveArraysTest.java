@@ -0,0 +1,226 @@
+/**
+ * Copyright (c) 2010 Ignasi Barrera
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package org.sjmvc.binding;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+import static org.testng.Assert.fail;
+
+import java.util.Arrays;
+
+import org.sjmvc.util.Converter;
+import org.sjmvc.util.ConverterRegistry;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+/**
+ * Unit tests for the {@link PrimitiveArrays} class.
+ * 
+ * @author Ignasi Barrera
+ */
+public class PrimitiveArraysTest
+{
+	/** The model object used in tests. */
+	private ArrayPojo target;
+
+	/** The binder used in tests. */
+	private AbstractBinder<ArrayPojo, Object> binder;
+
+	@BeforeMethod
+	public void setUp()
+	{
+		target = new ArrayPojo();
+		binder = new AbstractBinder<ArrayPojo, Object>(target, null) {
+			@Override
+			protected void doBind()
+			{
+				// Do nothing. Not used in this test.
+			}
+		};
+	}
+
+	@Test
+	public void testIsSupported()
+	{
+		assertTrue(PrimitiveArrays.isSupported(int.class));
+		assertTrue(PrimitiveArrays.isSupported(long.class));
+		assertTrue(PrimitiveArrays.isSupported(double.class));
+		assertFalse(PrimitiveArrays.isSupported(Integer.class));
+		assertFalse(PrimitiveArrays.isSupported(float.class));
+	}
+
+	@Test
+	public void testSplit()
+	{
+		checkSplit("1", "1");
+		checkSplit("1,2,3", "1", "2", "3");
+		checkSplit(" 1 , 2 ", "1", "2");
+		checkSplit("1,,3", "1", "3");
+		checkSplit("1,2,", "1", "2");
+		checkSplit(" , ");
+		checkSplit("");
+	}
+
+	@Test
+	public void testTrim()
+	{
+		assertEquals(PrimitiveArrays.trim(new String[] { " 1", "2 " }),
+				new String[] { "1", "2" });
+		assertEquals(PrimitiveArrays.trim(new String[] { "1", " ", "2" }),
+				new String[] { "1", "2" });
+		assertEquals(PrimitiveArrays.trim(new String[] { "1", null }),
+				new String[] { "1", null });
+	}
+
+	@Test
+	public void testBindMultipleValues() throws Exception
+	{
+		binder.setValue(target, "ints", new String[] { "1", "-2", "3" });
+		binder.setValue(target, "longs", new String[] { "12345678901", "0" });
+		binder.setValue(target, "doubles", new String[] { "1.5", "-2" });
+
+		assertTrue(Arrays.equals(target.ints, new int[] { 1, -2, 3 }));
+		assertTrue(Arrays.equals(target.longs, new long[] { 12345678901L, 0 }));
+		assertTrue(Arrays.equals(target.doubles, new double[] { 1.5, -2 }));
+	}
+
+	@Test
+	public void testBindCommaSeparatedValue() throws Exception
+	{
+		binder.setValue(target, "ints", new String[] { "1,-2, 3" });
+		binder.setValue(target, "longs", new String[] { "12345678901" });
+		binder.setValue(target, "doubles", new String[] { "1.5,-2" });
+
+		assertTrue(Arrays.equals(target.ints, new int[] { 1, -2, 3 }));
+		assertTrue(Arrays.equals(target.longs, new long[] { 12345678901L }));
+		assertTrue(Arrays.equals(target.doubles, new double[] { 1.5, -2 }));
+	}
+
+	@Test
+	public void testBindEmptyElements() throws Exception
+	{
+		binder.setValue(target, "ints", new String[] { "1,,2," });
+		binder.setValue(target, "longs", new String[] { " 1 ", "", "2" });
+		binder.setValue(target, "doubles", new String[] { "" });
+
+		assertTrue(Arrays.equals(target.ints, new int[] { 1, 2 }));
+		assertTrue(Arrays.equals(target.longs, new long[] { 1, 2 }));
+		assertTrue(Arrays.equals(target.doubles, new double[0]));
+	}
+
+	@Test
+	public void testBindLargeArray() throws Exception
+	{
+		StringBuilder value = new StringBuilder();
+		for (int i = 0; i < 10000; i++)
+		{
+			value.append(i > 0 ? "," : "").append(i);
+		}
+
+		binder.setValue(target, "ints", new String[] { value.toString() });
+
+		assertEquals(target.ints.length, 10000);
+		assertEquals(target.ints[9999], 9999);
+	}
+
+	@Test
+	public void testBindInvalidValues() throws Exception
+	{
+		checkInvalidSetValue("ints", "1,a");
+		checkInvalidSetValue("ints", "1", "a");
+		checkInvalidSetValue("longs", "1", null);
+		checkInvalidSetValue("doubles", new String[] { null });
+	}
+
+	@Test
+	public void testBindWithRegisteredConverter() throws Exception
+	{
+		Converter<Integer> original = ConverterRegistry.getConverter(int.class);
+		ConverterRegistry.register(int.class, new Converter<Integer>() {
+			@Override
+			public Integer convert(String value)
+			{
+				return Integer.valueOf(value, 16);
+			}
+		});
+
+		try
+		{
+			// Converters are looked up when the model class is first bound
+			HexArrayPojo hex = new HexArrayPojo();
+			binder.setValue(hex, "ints", new String[] { "a,ff" });
+			assertTrue(Arrays.equals(hex.ints, new int[] { 10, 255 }));
+		}
+		finally
+		{
+			ConverterRegistry.register(int.class, original);
+		}
+	}
+
+	private void checkSplit(String value, String... expected)
+	{
+		assertEquals(PrimitiveArrays.split(value), expected);
+	}
+
+	private void checkInvalidSetValue(String name, String... values)
+	{
+		try
+		{
+			binder.setValue(target, name, values);
+			fail("Binding of [" + name + "] should fail");
+		}
+		catch (BindingError ex)
+		{
+			// Test succeeded
+		}
+	}
+
+	/**
+	 * Model object with primitive arrays.
+	 * 
+	 * @author Ignasi Barrera
+	 */
+	public static class ArrayPojo
+	{
+		/** An int array. */
+		private int[] ints;
+
+		/** A long array. */
+		private long[] longs;
+
+		/** A double array. */
+		private double[] doubles;
+	}
+
+	/**
+	 * Model object bound with a custom converter.
+	 * 
+	 * @author Ignasi Barrera
+	 */
+	public static class HexArrayPojo
+	{
+		/** An int array. */
+		private int[] ints;
+	}
+}
@@ -0,0 +1,281 @@
+/**
+ * Copyright (c) 2010 Ignasi Barrera
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package org.sjmvc.binding;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNotNull;
+import static org.testng.Assert.assertSame;
+import static org.testng.Assert.assertTrue;
+import static org.testng.Assert.fail;
+
+import org.sjmvc.TestPojo;
+import org.testng.annotations.Test;
+
+/**
+ * Unit tests for the {@link PropertyPath} class.
+ * 
+ * @author Ignasi Barrera
+ */
+public class PropertyPathTest
+{
+	@Test
+	public void testPathsAreCached() throws Exception
+	{
+		BindingMetadata metadata = BindingMetadata.forClass(TestPojo.class);
+
+		assertSame(metadata.getPath("nestedProperty.stringProperty"),
+				metadata.getPath("nestedProperty.stringProperty"));
+		assertSame(metadata.getPath("stringProperty"),
+				metadata.getPath("stringProperty"));
+	}
+
+	@Test
+	public void testSimplePath() throws Exception
+	{
+		TestPojo pojo = new TestPojo();
+		PropertyPath path = BindingMetadata.forClass(TestPojo.class).getPath(
+				"stringProperty");
+
+		assertFalse(path.isNested());
+		assertEquals(path.getPropertyName(), "stringProperty");
+		assertSame(path.resolve(pojo), pojo);
+	}
+
+	@Test
+	public void testDeepPathCreatesNestedObjects() throws Exception
+	{
+		Person person = new Person();
+		PropertyPath path = BindingMetadata.forClass(Person.class).getPath(
+				"address.geo.lat");
+
+		assertTrue(path.isNested());
+		assertEquals(path.getPropertyName(), "lat");
+
+		Object owner = path.resolve(person);
+		assertNotNull(person.address);
+		assertNotNull(person.address.geo);
+		assertSame(owner, person.address.geo);
+
+		// Existing nested objects are reused
+		assertSame(path.resolve(person), owner);
+	}
+
+	@Test
+	public void testBindDeepPath()
+	{
+		Person person = new Person();
+		AbstractBinder<Person, Object> binder = new AbstractBinder<Person, Object>(
+				person, null) {
+			@Override
+			protected void doBind()
+			{
+				// Do nothing. Not used in this test.
+			}
+		};
+
+		binder.bindField(person, "address.geo.lat", "41.38");
+		binder.bindField(person, "address.street", "Rambla");
+
+		assertFalse(binder.errors.hasErrors());
+		assertEquals(person.address.geo.lat, Double.valueOf(41.38));
+		assertEquals(person.address.street, "Rambla");
+	}
+
+	@Test
+	public void testInvalidPaths()
+	{
+		checkInvalidPath(Person.class, "unexisting");
+		checkInvalidPath(Person.class, "address.unexisting");
+		checkInvalidPath(Person.class, "address..street");
+		checkInvalidPath(Person.class, "address.");
+		checkInvalidPath(Person.class, "name.length");
+	}
+
+	@Test
+	public void testNestedObjectWithoutDefaultConstructor() throws Exception
+	{
+		PropertyPath path = BindingMetadata.forClass(Person.class).getPath(
+				"employer.name");
+
+		try
+		{
+			path.resolve(new Person());
+			fail("Nested objects without default constructor can not be created");
+		}
+		catch (InstantiationException ex)
+		{
+			// Test succeeded
+		}
+
+		// Existing objects can still be bound
+		Person person = new Person();
+		person.employer = new Company("sjmvc");
+		assertSame(path.resolve(person), person.employer);
+	}
+
+	@Test
+	public void testResolveAgainstRuntimeClass() throws Exception
+	{
+		Person person = new Person();
+		Phone phone = new Phone();
+		person.contact = phone;
+
+		PropertyPath path = BindingMetadata.forClass(Person.class).getPath(
+				"contact.geo.lat");
+		assertSame(path.resolve(person), phone.geo);
+
+		AbstractBinder<Person, Object> binder = new AbstractBinder<Person, Object>(
+				person, null) {
+			@Override
+			protected void doBind()
+			{
+				// Do nothing. Not used in this test.
+			}
+		};
+
+		binder.bindField(person, "contact.number", "555");
+		binder.bindField(person, "contact.geo.lat", "41.38");
+
+		assertFalse(binder.errors.hasErrors());
+		assertEquals(phone.number, "555");
+		assertEquals(phone.geo.lat, Double.valueOf(41.38));
+	}
+
+	@Test
+	public void testUnexistingPropertyOfDeclaredType() throws Exception
+	{
+		PropertyPath path = BindingMetadata.forClass(Person.class).getPath(
+				"contact.number");
+
+		try
+		{
+			path.resolve(new Person());
+			fail("The declared type of the nested property has no number");
+		}
+		catch (NoSuchFieldException ex)
+		{
+			// Test succeeded
+		}
+	}
+
+	private static void checkInvalidPath(Class<?> type, String name)
+	{
+		try
+		{
+			BindingMetadata.forClass(type).getPath(name);
+			fail("Parsing [" + name + "] should fail");
+		}
+		catch (NoSuchFieldException ex)
+		{
+			// Test succeeded
+		}
+	}
+
+	/**
+	 * Model object with several levels of nested objects.
+	 * 
+	 * @author Ignasi Barrera
+	 */
+	public static class Person
+	{
+		/** A simple property. */
+		private String name;
+
+		/** A nested property. */
+		private Address address;
+
+		/** A nested property without default constructor. */
+		private Company employer;
+
+		/** A nested property whose value can be a subclass. */
+		private Contact contact;
+	}
+
+	/**
+	 * Nested model object that can be extended.
+	 * 
+	 * @author Ignasi Barrera
+	 */
+	public static class Contact
+	{
+		/** A simple property. */
+		private String email;
+	}
+
+	/**
+	 * Subclass of a nested model object.
+	 * 
+	 * @author Ignasi Barrera
+	 */
+	public static class Phone extends Contact
+	{
+		/** A simple property. */
+		private String number;
+
+		/** A nested property. */
+		private Geo geo;
+	}
+
+	/**
+	 * Nested model object.
+	 * 
+	 * @author Ignasi Barrera
+	 */
+	public static final class Address
+	{
+		/** A simple property. */
+		private String street;
+
+		/** A nested property. */
+		private Geo geo;
+	}
+
+	/**
+	 * Nested model object.
+	 * 
+	 * @author Ignasi Barrera
+	 */
+	public static final class Geo
+	{
+		/** A simple property. */
+		private Double lat;
+	}
+
+	/**
+	 * Nested model object without default constructor.
+	 * 
+	 * @author Ignasi Barrera
+	 */
+	public static class Company
+	{
+		/** A simple property. */
+		private String name;
+
+		public Company(String name)
+		{
+			super();
+			this.name = name;
+		}
+	}
+}
@@ -0,0 +1,211 @@
+/**
+ * Copyright (c) 2010 Ignasi Barrera
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package org.sjmvc.binding;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNotNull;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.fail;
+
+import java.util.List;
+import java.util.Locale;
+
+import org.sjmvc.util.Converter;
+import org.sjmvc.util.ConverterRegistry;
+import org.sjmvc.util.IntConverter;
+import org.testng.annotations.Test;
+
+/**
+ * Unit tests for the {@link PropertyWriters} class.
+ * 
+ * @author Ignasi Barrera
+ */
+public class PropertyWritersTest
+{
+	@Test
+	public void testWritersAreCreatedForSimpleProperties() throws Exception
+	{
+		BindingMetadata metadata = BindingMetadata.forClass(WriterPojo.class);
+
+		assertNotNull(metadata.getProperty("name").getWriter());
+		assertNull(metadata.getProperty("names").getWriter());
+		assertNull(metadata.getProperty("nested").getWriter());
+
+		// Properties without converter are bound reflectively
+		assertNull(metadata.getProperty("locale").getWriter());
+	}
+
+	@Test
+	public void testWriteField() throws Exception
+	{
+		WriterPojo pojo = new WriterPojo();
+		PropertyWriter writer = BindingMetadata.forClass(WriterPojo.class)
+				.getProperty("name").getWriter();
+
+		// The field is written without calling the setter
+		writer.write(pojo, "sjmvc");
+		assertEquals(pojo.name, "sjmvc");
+
+		writer.write(pojo, null);
+		assertNull(pojo.name);
+	}
+
+	@Test
+	public void testWritePrimitiveFields() throws Exception
+	{
+		PrimitivePojo pojo = new PrimitivePojo();
+		BindingMetadata metadata = BindingMetadata.forClass(PrimitivePojo.class);
+
+		metadata.getProperty("count").getWriter().write(pojo, "7");
+		metadata.getProperty("total").getWriter().write(pojo, "12345678901");
+		metadata.getProperty("ratio").getWriter().write(pojo, "0.5");
+
+		assertEquals(pojo.count, 7);
+		assertEquals(pojo.total, 12345678901L);
+		assertEquals(pojo.ratio, 0.5);
+
+		try
+		{
+			metadata.getProperty("count").getWriter().write(pojo, null);
+			fail("Primitive properties can not be set to null");
+		}
+		catch (IllegalArgumentException ex)
+		{
+			// Test succeeded
+		}
+	}
+
+	@Test
+	public void testBindPrimitiveFieldWithRegisteredConverter()
+	{
+		Converter<Integer> originalInt = ConverterRegistry
+				.getConverter(int.class);
+		Converter<Long> originalLong = ConverterRegistry
+				.getConverter(long.class);
+
+		// A specialized converter and a boxing one
+		ConverterRegistry.register(int.class, new IntConverter() {
+			@Override
+			public Integer convert(String value)
+			{
+				return Integer.valueOf(convertInt(value));
+			}
+
+			@Override
+			public int convertInt(String value)
+			{
+				return Integer.parseInt(value, 16);
+			}
+		});
+		ConverterRegistry.register(long.class, new Converter<Long>() {
+			@Override
+			public Long convert(String value)
+			{
+				return Long.valueOf(value, 2);
+			}
+		});
+
+		try
+		{
+			// Converters are looked up when the model class is first bound
+			HexPojo pojo = new HexPojo();
+			AbstractBinder<HexPojo, Object> binder = new AbstractBinder<HexPojo, Object>(
+					pojo, null) {
+				@Override
+				protected void doBind()
+				{
+					// Do nothing. Not used in this test.
+				}
+			};
+
+			binder.bindField(pojo, "count", "ff");
+			binder.bindField(pojo, "total", "101");
+
+			assertFalse(binder.errors.hasErrors());
+			assertEquals(pojo.count, 255);
+			assertEquals(pojo.total, 5L);
+		}
+		finally
+		{
+			ConverterRegistry.register(int.class, originalInt);
+			ConverterRegistry.register(long.class, originalLong);
+		}
+	}
+
+	/**
+	 * Model object used in tests.
+	 * 
+	 * @author Ignasi Barrera
+	 */
+	public static class WriterPojo
+	{
+		/** A simple property. */
+		private String name;
+
+		/** A collection property. */
+		private List<String> names;
+
+		/** A nested property. */
+		private WriterPojo nested;
+
+		/** A simple property without converter. */
+		private Locale locale;
+
+		public void setName(String name)
+		{
+			this.name = name.toUpperCase();
+		}
+	}
+
+	/**
+	 * Model object with primitive properties.
+	 * 
+	 * @author Ignasi Barrera
+	 */
+	public static class PrimitivePojo
+	{
+		/** An int property. */
+		private int count;
+
+		/** A long property. */
+		private long total;
+
+		/** A double property. */
+		private double ratio;
+	}
+
+	/**
+	 * Model object bound with custom converters.
+	 * 
+	 * @author Ignasi Barrera
+	 */
+	public static class HexPojo
+	{
+		/** An int property. */
+		private int count;
+
+		/** A long property. */
+		private long total;
+	}
+}
@@ -0,0 +1,120 @@
+/**
+ * Copyright (c) 2010 Ignasi Barrera
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.sjmvc.config;
+
+import static org.sjmvc.config.Configuration.DEFAULT_CONTROLLER_POOL_MAX;
+import static org.sjmvc.config.Configuration.DEFAULT_DISPATCHER_CACHE_SIZE;
+import static org.sjmvc.config.Configuration.DEFAULT_DISPATCHER_MODE;
+import static org.sjmvc.config.Configuration.DEFAULT_PATH_MATCHER;
+import static org.sjmvc.config.Configuration.DISPATCHER_CACHE_SIZE_PROPERTY;
+import static org.sjmvc.config.Configuration.DISPATCHER_MODE_PROPERTY;
+import static org.sjmvc.config.Configuration.PATH_MATCHER_PROPERTY;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNull;
+
+import java.util.Properties;
+
+import org.sjmvc.controller.ControllerScope;
+import org.sjmvc.web.dispatch.path.DispatcherMode;
+import org.sjmvc.web.dispatch.path.RegExpPathMatcher;
+import org.testng.annotations.Test;
+
+/**
+ * Unit tests for the {@link ConfigurationSnapshot} class.
+ * 
+ * @author Ignasi Barrera
+ */
+public class ConfigurationSnapshotTest
+{
+	@Test
+	public void testCreateSnapshot()
+	{
+		ConfigurationSnapshot snapshot = Configuration.createSnapshot();
+
+		assertEquals(snapshot.getPathMatcherClass(), DEFAULT_PATH_MATCHER);
+		assertEquals(snapshot.getDispatcherMode(), DEFAULT_DISPATCHER_MODE);
+		assertEquals(snapshot.getDispatcherCacheSize(),
+				DEFAULT_DISPATCHER_CACHE_SIZE);
+		assertEquals(snapshot.getMappings().size(), 1);
+
+		MappingDefinition mapping = snapshot.getMappings().get(0);
+		assertEquals(mapping.getName(), "mock");
+		assertEquals(mapping.getPath(), "/mock");
+		assertEquals(mapping.getControllerClass(),
+				"org.sjmvc.controller.MockController");
+		assertEquals(mapping.getLayout(), "layout.jsp");
+		assertNull(mapping.getMethods());
+		assertNull(mapping.getFactoryClass());
+		assertEquals(mapping.getScope(), ControllerScope.PROTOTYPE);
+		assertEquals(mapping.getPoolMax(), DEFAULT_CONTROLLER_POOL_MAX);
+	}
+
+	@Test
+	public void testSnapshotIsImmutable()
+	{
+		Properties config = new Properties();
+		config.setProperty(PATH_MATCHER_PROPERTY,
+				RegExpPathMatcher.class.getName());
+		config.setProperty(DISPATCHER_MODE_PROPERTY, "trie");
+		config.setProperty(DISPATCHER_CACHE_SIZE_PROPERTY, "10");
+		config.setProperty("sjmvc.controller.users.path", "/users/*");
+		config.setProperty("sjmvc.controller.users.class", "Users");
+		config.setProperty("sjmvc.controller.users.methods", "get");
+		config.setProperty("sjmvc.controller.users.scope", "pooled");
+		config.setProperty("sjmvc.controller.users.pool.min", "2");
+
+		ConfigurationSnapshot snapshot = new ConfigurationSnapshot(config);
+		config.clear();
+
+		assertEquals(snapshot.getPathMatcherClass(), RegExpPathMatcher.class);
+		assertEquals(snapshot.getDispatcherMode(), DispatcherMode.TRIE);
+		assertEquals(snapshot.getDispatcherCacheSize(), 10);
+		assertEquals(snapshot.getMappings().size(), 1);
+
+		MappingDefinition mapping = snapshot.getMappings().get(0);
+		assertEquals(mapping.getMethods().toString(), "[GET, HEAD]");
+		assertEquals(mapping.getScope(), ControllerScope.POOLED);
+		assertEquals(mapping.getPoolMin(), 2);
+	}
+
+	@Test(expectedExceptions = UnsupportedOperationException.class)
+	public void testMappingsAreUnmodifiable()
+	{
+		Configuration.createSnapshot().getMappings().clear();
+	}
+
+	@Test(expectedExceptions = ConfigurationException.class)
+	public void testMissingControllerClass()
+	{
+		Properties config = new Properties();
+		config.setProperty("sjmvc.controller.users.path", "/users/*");
+		new ConfigurationSnapshot(config);
+	}
+
+	@Test(expectedExceptions = ConfigurationException.class)
+	public void testInvalidDispatcherMode()
+	{
+		Properties config = new Properties();
+		config.setProperty(DISPATCHER_MODE_PROPERTY, "unexisting");
+		new ConfigurationSnapshot(config);
+	}
+}
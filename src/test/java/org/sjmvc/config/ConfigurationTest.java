@@ -24,10 +24,13 @@ package org.sjmvc.config;
 
 import static org.sjmvc.config.Configuration.CONTROLLER_PATH_SUFFIX;
 import static org.sjmvc.config.Configuration.CONTROLLER_PREFIX;
+import static org.sjmvc.config.Configuration.DEFAULT_DISPATCHER_CACHE_SIZE;
 import static org.sjmvc.config.Configuration.DEFAULT_PATH_MATCHER;
+import static org.sjmvc.config.Configuration.DISPATCHER_CACHE_SIZE_PROPERTY;
 import static org.sjmvc.config.Configuration.PATH_MATCHER_PROPERTY;
 import static org.sjmvc.config.Configuration.getConfigValue;
 import static org.sjmvc.config.Configuration.getConfiguration;
+import static org.sjmvc.config.Configuration.getDispatcherCacheSize;
 import static org.sjmvc.config.Configuration.getPathMatcherClass;
 import static org.testng.Assert.assertEquals;
 import static org.testng.Assert.assertFalse;
@@ -53,6 +56,7 @@ public class ConfigurationTest
 		// Reset the configuration to the default values in the test
 		// configuration file
 		getConfiguration().remove(PATH_MATCHER_PROPERTY);
+		getConfiguration().remove(DISPATCHER_CACHE_SIZE_PROPERTY);
 	}
 
 	@Test
@@ -120,4 +124,29 @@ public class ConfigurationTest
 				"org.sjmvc.UnexistingClass");
 		getPathMatcherClass();
 	}
+
+	@Test
+	public void testGetDispatcherCacheSize()
+	{
+		// Default cache size
+		assertEquals(getDispatcherCacheSize(), DEFAULT_DISPATCHER_CACHE_SIZE);
+
+		// Configured cache size
+		getConfiguration().put(DISPATCHER_CACHE_SIZE_PROPERTY, " 50 ");
+		assertEquals(getDispatcherCacheSize(), 50);
+	}
+
+	@Test(expectedExceptions = ConfigurationException.class)
+	public void testGetDispatcherCacheSizeNegative()
+	{
+		getConfiguration().put(DISPATCHER_CACHE_SIZE_PROPERTY, "-1");
+		getDispatcherCacheSize();
+	}
+
+	@Test(expectedExceptions = ConfigurationException.class)
+	public void testGetDispatcherCacheSizeNotANumber()
+	{
+		getConfiguration().put(DISPATCHER_CACHE_SIZE_PROPERTY, "many");
+		getDispatcherCacheSize();
+	}
 }
@@ -0,0 +1,143 @@
+/**
+ * Copyright (c) 2010 Ignasi Barrera
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.sjmvc.config;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertTrue;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Properties;
+
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+/**
+ * Unit tests for the {@link ConfigurationWatcher} class.
+ * 
+ * @author Ignasi Barrera
+ */
+public class ConfigurationWatcherTest
+{
+	/** The watched configuration file. */
+	private File file;
+
+	/** The last configuration received by the listener. */
+	private volatile ConfigurationSnapshot reloaded;
+
+	/** The watcher being tested. */
+	private ConfigurationWatcher watcher;
+
+	@BeforeMethod
+	public void setUp() throws IOException
+	{
+		file = File.createTempFile("sjmvc", ".properties");
+		reloaded = null;
+		watcher = new ConfigurationWatcher(file, 10, new ConfigurationListener()
+		{
+			@Override
+			public void configurationChanged(
+					final ConfigurationSnapshot configuration)
+			{
+				reloaded = configuration;
+			}
+		});
+	}
+
+	@AfterMethod
+	public void tearDown()
+	{
+		watcher.stop();
+		file.delete();
+	}
+
+	@Test
+	public void testCheckUnmodifiedFile()
+	{
+		assertFalse(watcher.check());
+		assertNull(reloaded);
+	}
+
+	@Test
+	public void testCheckModifiedFile() throws IOException
+	{
+		write("sjmvc.controller.users.path", "/users/*",
+				"sjmvc.controller.users.class", "Users");
+
+		assertTrue(watcher.check());
+		assertEquals(reloaded.getMappings().size(), 1);
+		assertEquals(reloaded.getMappings().get(0).getPath(), "/users/*");
+
+		// The same modification is not notified twice
+		reloaded = null;
+		assertFalse(watcher.check());
+		assertNull(reloaded);
+	}
+
+	@Test
+	public void testCheckInvalidFile() throws IOException
+	{
+		write(Configuration.DISPATCHER_MODE_PROPERTY, "unexisting");
+
+		assertFalse(watcher.check());
+		assertNull(reloaded);
+	}
+
+	@Test
+	public void testStart() throws Exception
+	{
+		watcher.start();
+		write("sjmvc.controller.users.path", "/users/*",
+				"sjmvc.controller.users.class", "Users");
+
+		for (int i = 0; i < 200 && reloaded == null; i++)
+		{
+			Thread.sleep(10);
+		}
+
+		assertEquals(reloaded.getMappings().size(), 1);
+	}
+
+	private void write(final String... properties) throws IOException
+	{
+		Properties config = new Properties();
+		for (int i = 0; i < properties.length; i += 2)
+		{
+			config.setProperty(properties[i], properties[i + 1]);
+		}
+
+		OutputStream out = new FileOutputStream(file);
+		try
+		{
+			config.store(out, null);
+		}
+		finally
+		{
+			out.close();
+		}
+	}
+}
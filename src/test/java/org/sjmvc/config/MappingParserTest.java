@@ -0,0 +1,115 @@
+/**
+ * Copyright (c) 2010 Ignasi Barrera
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package org.sjmvc.config;
+
+import static org.sjmvc.config.MappingParser.parseMapping;
+import static org.sjmvc.config.MappingParser.parseMethods;
+import static org.sjmvc.config.MappingParser.parsePoolSize;
+import static org.sjmvc.config.MappingParser.parseScope;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNull;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.sjmvc.controller.ControllerScope;
+import org.testng.annotations.Test;
+
+/**
+ * Unit tests for the {@link MappingParser} class.
+ * 
+ * @author Ignasi Barrera
+ */
+public class MappingParserTest
+{
+	@Test
+	public void testParseMapping()
+	{
+		Map<String, String> config = new HashMap<String, String>();
+		config.put("sjmvc.controller.users.path", "/users");
+		config.put("sjmvc.controller.users.class", " org.sjmvc.Users ");
+		config.put("sjmvc.controller.users.layout", "layout.jsp");
+		config.put("sjmvc.controller.users.methods", "get");
+		config.put("sjmvc.controller.users.scope", "pooled");
+		config.put("sjmvc.controller.users.pool.max", "4");
+
+		MappingDefinition mapping = parseMapping(config,
+				"sjmvc.controller.users.path");
+
+		assertEquals(mapping.getName(), "users");
+		assertEquals(mapping.getPath(), "/users");
+		assertEquals(mapping.getControllerClass(), "org.sjmvc.Users");
+		assertEquals(mapping.getLayout(), "layout.jsp");
+		assertEquals(mapping.getMethods().toString(), "[GET, HEAD]");
+		assertNull(mapping.getFactoryClass());
+		assertEquals(mapping.getScope(), ControllerScope.POOLED);
+		assertEquals(mapping.getPoolMin(),
+				Configuration.DEFAULT_CONTROLLER_POOL_MIN);
+		assertEquals(mapping.getPoolMax(), 4);
+	}
+
+	@Test(expectedExceptions = ConfigurationException.class)
+	public void testParseMappingWithoutClass()
+	{
+		Map<String, String> config = new HashMap<String, String>();
+		config.put("sjmvc.controller.users.path", "/users");
+		parseMapping(config, "sjmvc.controller.users.path");
+	}
+
+	@Test
+	public void testParsePoolSize()
+	{
+		assertEquals(parsePoolSize(null, 3), 3);
+		assertEquals(parsePoolSize(" 7 ", 3), 7);
+	}
+
+	@Test(expectedExceptions = ConfigurationException.class)
+	public void testParseInvalidPoolSize()
+	{
+		parsePoolSize("many", 3);
+	}
+
+	@Test
+	public void testParseScope()
+	{
+		assertEquals(parseScope(null), ControllerScope.PROTOTYPE);
+		assertEquals(parseScope("prototype"), ControllerScope.PROTOTYPE);
+		assertEquals(parseScope(" Singleton "), ControllerScope.SINGLETON);
+	}
+
+	@Test(expectedExceptions = ConfigurationException.class)
+	public void testParseInvalidScope()
+	{
+		parseScope("session");
+	}
+
+	@Test
+	public void testParseMethods()
+	{
+		assertNull(parseMethods(null));
+		assertNull(parseMethods(" "));
+		assertEquals(parseMethods("post").toString(), "[POST]");
+		assertEquals(parseMethods(" Get, POST,,").toString(),
+				"[GET, HEAD, POST]");
+	}
+}
@@ -30,6 +30,8 @@ import javax.servlet.http.HttpServletRequest;
 
 import org.sjmvc.TestPojo;
 import org.sjmvc.binding.RequestBinderTestBase;
+import org.sjmvc.error.Error;
+import org.sjmvc.error.ErrorType;
 import org.testng.annotations.BeforeMethod;
 import org.testng.annotations.Test;
 
@@ -57,7 +59,7 @@ public class AbstractControllerTest extends RequestBinderTestBase<TestPojo>
 		HttpServletRequest request = getRequest("stringProperty");
 		controller.bind(target, request);
 
-		assertFalse(controller.messages.getErrors().hasErrors());
+		assertFalse(controller.getMessages().getErrors().hasErrors());
 		assertEquals(target.getStringProperty(), "stringProperty");
 	}
 
@@ -67,8 +69,8 @@ public class AbstractControllerTest extends RequestBinderTestBase<TestPojo>
 		HttpServletRequest request = getRequest("unexistingProperty");
 		controller.bind(target, request);
 
-		assertTrue(controller.messages.getErrors().hasErrors());
-		assertEquals(controller.messages.getErrors().errorCount(), 1);
+		assertTrue(controller.getMessages().getErrors().hasErrors());
+		assertEquals(controller.getMessages().getErrors().errorCount(), 1);
 	}
 
 	@Test
@@ -77,7 +79,7 @@ public class AbstractControllerTest extends RequestBinderTestBase<TestPojo>
 		target.setRequiredFields();
 		controller.validate(target);
 
-		assertFalse(controller.messages.getErrors().hasErrors());
+		assertFalse(controller.getMessages().getErrors().hasErrors());
 	}
 
 	@Test
@@ -85,8 +87,8 @@ public class AbstractControllerTest extends RequestBinderTestBase<TestPojo>
 	{
 		controller.validate(target);
 
-		assertTrue(controller.messages.getErrors().hasErrors());
-		assertEquals(controller.messages.getErrors().errorCount(), 2);
+		assertTrue(controller.getMessages().getErrors().hasErrors());
+		assertEquals(controller.getMessages().getErrors().errorCount(), 2);
 	}
 
 	@Test
@@ -97,8 +99,8 @@ public class AbstractControllerTest extends RequestBinderTestBase<TestPojo>
 
 		// Validation should not be executed,
 		// only the binding error should be present
-		assertTrue(controller.messages.getErrors().hasErrors());
-		assertEquals(controller.messages.getErrors().errorCount(), 1);
+		assertTrue(controller.getMessages().getErrors().hasErrors());
+		assertEquals(controller.getMessages().getErrors().errorCount(), 1);
 	}
 
 	@Test
@@ -108,8 +110,8 @@ public class AbstractControllerTest extends RequestBinderTestBase<TestPojo>
 		controller.bindAndValidate(target, request);
 
 		// Binding should succeed and validation fail
-		assertTrue(controller.messages.getErrors().hasErrors());
-		assertEquals(controller.messages.getErrors().errorCount(), 2);
+		assertTrue(controller.getMessages().getErrors().hasErrors());
+		assertEquals(controller.getMessages().getErrors().errorCount(), 2);
 	}
 
 	@Test
@@ -125,6 +127,56 @@ public class AbstractControllerTest extends RequestBinderTestBase<TestPojo>
 		controller.bindAndValidate(target, request);
 
 		// Binding should succeed and validation fail
-		assertFalse(controller.messages.getErrors().hasErrors());
+		assertFalse(controller.getMessages().getErrors().hasErrors());
+	}
+
+	@Test
+	public void testRequestStatePerThread() throws Exception
+	{
+		controller.setModel("main");
+		controller.error("Main thread error");
+
+		final Object[] otherState = new Object[2];
+		Thread other = new Thread() {
+			@Override
+			public void run()
+			{
+				otherState[0] = controller.getModel();
+				otherState[1] = controller.errors();
+				controller.setModel("other");
+			}
+		};
+		other.start();
+		other.join();
+
+		// Each thread has its own state
+		assertEquals(otherState[0], null);
+		assertEquals(otherState[1], false);
+		assertEquals(controller.getModel(), "main");
+		assertTrue(controller.errors());
+	}
+
+	@Test
+	@SuppressWarnings("deprecation")
+	public void testDeprecatedMessagesFieldDelegates()
+	{
+		controller.messages.add("Message");
+		controller.messages.getErrors().add(
+				new Error(ErrorType.CONTROLLER, "Error"));
+
+		assertEquals(controller.getMessages().messageCount(), 1);
+		assertTrue(controller.errors());
+	}
+
+	@Test
+	public void testReleaseContext()
+	{
+		controller.setModel("model");
+		controller.message("Message");
+
+		AbstractController.releaseContext(controller);
+
+		assertEquals(controller.getModel(), null);
+		assertFalse(controller.getMessages().hasMessages());
 	}
 }
@@ -0,0 +1,112 @@
+/**
+ * Copyright (c) 2010 Ignasi Barrera
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package org.sjmvc.controller;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNotNull;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertSame;
+
+import javax.servlet.ServletRequest;
+import javax.servlet.ServletResponse;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.testng.annotations.Test;
+
+/**
+ * Unit tests for the {@link ActionTable} class.
+ * 
+ * @author Ignasi Barrera
+ */
+public class ActionTableTest
+{
+	@Test
+	public void testForClass()
+	{
+		assertSame(ActionTable.forClass(MockController.class),
+				ActionTable.forClass(MockController.class));
+	}
+
+	@Test
+	public void testGetAction() throws Exception
+	{
+		ActionTable actions = ActionTable.forClass(MockController.class);
+
+		assertEquals(actions.getAction("success").getMethod(),
+				MockController.class.getMethod("success",
+						HttpServletRequest.class, HttpServletResponse.class));
+
+		// Methods that do not receive the request and the response
+		assertNotNull(actions.getAction("invalidArguments"));
+		assertNull(actions.getAction("invalidArguments").getMethod());
+
+		// Unexisting and framework methods
+		assertNull(actions.getAction("unexisting"));
+		assertNull(actions.getAction("execute"));
+		assertNull(actions.getAction("getModel"));
+		assertNull(actions.getAction("toString"));
+	}
+
+	@Test
+	public void testGetOverloadedAction() throws Exception
+	{
+		ActionTable actions = ActionTable.forClass(OverloadingController.class);
+
+		assertEquals(actions.getAction("list").getMethod(),
+				OverloadingController.class.getMethod("list",
+						HttpServletRequest.class, HttpServletResponse.class));
+		assertEquals(actions.getAction("show").getMethod(),
+				OverloadingController.class.getMethod("show",
+						ServletRequest.class, ServletResponse.class));
+	}
+
+	public static class OverloadingController extends MethodInvokingController
+	{
+		public void list(String argument)
+		{
+			// Not an action
+		}
+
+		public void list(ServletRequest request, ServletResponse response)
+		{
+			// Less specific action
+		}
+
+		public void list(HttpServletRequest request,
+				HttpServletResponse response)
+		{
+			// Exact action
+		}
+
+		public void show(ServletRequest request, ServletResponse response)
+		{
+			// Generic action
+		}
+
+		public void show(String argument)
+		{
+			// Not an action
+		}
+	}
+}
@@ -0,0 +1,114 @@
+/**
+ * Copyright (c) 2010 Ignasi Barrera
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package org.sjmvc.controller;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNotSame;
+import static org.testng.Assert.assertNull;
+
+import org.sjmvc.config.ConfigurationException;
+import org.testng.annotations.Test;
+
+/**
+ * Unit tests for the {@link ConstructorControllerFactory} class.
+ * 
+ * @author Ignasi Barrera
+ */
+public class ConstructorControllerFactoryTest
+{
+	@Test
+	public void testGetController() throws Exception
+	{
+		ControllerFactory factory = new ConstructorControllerFactory(
+				MockController.class);
+
+		Controller controller = factory.getController();
+		assertEquals(controller.getClass(), MockController.class);
+		assertNotSame(factory.getController(), controller);
+
+		// Non public constructors can also be used
+		factory = new ConstructorControllerFactory(PrivateController.class);
+		assertEquals(factory.getController().getClass(),
+				PrivateController.class);
+	}
+
+	@Test
+	public void testReleaseControllerRemovesRequestState() throws Exception
+	{
+		ControllerFactory factory = new ConstructorControllerFactory(
+				MockController.class);
+		MockController controller = (MockController) factory.getController();
+		ControllerContext context = controller.getContext();
+		controller.setModel("model");
+
+		factory.releaseController(controller);
+
+		assertNotSame(controller.getContext(), context);
+		assertNull(controller.getModel());
+	}
+
+	@Test(expectedExceptions = ConfigurationException.class)
+	public void testAbstractController()
+	{
+		new ConstructorControllerFactory(AbstractController.class);
+	}
+
+	@Test(expectedExceptions = ConfigurationException.class)
+	public void testMissingDefaultConstructor()
+	{
+		new ConstructorControllerFactory(ArgumentController.class);
+	}
+
+	@Test(expectedExceptions = ControllerException.class)
+	public void testFailingConstructor() throws Exception
+	{
+		new ConstructorControllerFactory(FailingController.class)
+				.getController();
+	}
+
+	private static class PrivateController extends MockController
+	{
+		private PrivateController()
+		{
+			super();
+		}
+	}
+
+	private static class ArgumentController extends MockController
+	{
+		@SuppressWarnings("unused")
+		public ArgumentController(String argument)
+		{
+			super();
+		}
+	}
+
+	private static class FailingController extends MockController
+	{
+		@SuppressWarnings("unused")
+		public FailingController()
+		{
+			throw new IllegalStateException("Controller creation failure");
+		}
+	}
+}
@@ -0,0 +1,80 @@
+/**
+ * Copyright (c) 2010 Ignasi Barrera
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package org.sjmvc.controller;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertSame;
+import static org.testng.Assert.assertTrue;
+
+import org.sjmvc.config.ConfigurationException;
+import org.testng.annotations.Test;
+
+/**
+ * Unit tests for the {@link ControllerFactories} class.
+ * 
+ * @author Ignasi Barrera
+ */
+public class ControllerFactoriesTest
+{
+	@Test
+	public void testCreateControllerFactory() throws Exception
+	{
+		ControllerFactory factory = ControllerFactories
+				.createControllerFactory(controllerClass(), null,
+						ControllerScope.PROTOTYPE, 1, 1);
+		assertTrue(factory instanceof ConstructorControllerFactory);
+
+		factory = ControllerFactories.createControllerFactory(
+				controllerClass(), MockControllerFactory.class.getName(),
+				ControllerScope.SINGLETON, 1, 1);
+		assertTrue(factory instanceof SingletonControllerFactory);
+		assertEquals(factory.getController().getClass(), MockController.class);
+	}
+
+	@Test
+	public void testScoped()
+	{
+		ControllerFactory factory = new ConstructorControllerFactory(
+				MockController.class);
+
+		assertSame(ControllerFactories.scoped(factory,
+				ControllerScope.PROTOTYPE, 1, 1), factory);
+		assertTrue(ControllerFactories.scoped(factory,
+				ControllerScope.SINGLETON, 1, 1) instanceof SingletonControllerFactory);
+		assertTrue(ControllerFactories.scoped(factory, ControllerScope.POOLED,
+				1, 2) instanceof PooledControllerFactory);
+	}
+
+	@Test(expectedExceptions = ConfigurationException.class)
+	public void testInvalidFactoryClass()
+	{
+		ControllerFactories.createControllerFactory(controllerClass(),
+				String.class.getName(), ControllerScope.PROTOTYPE, 1, 1);
+	}
+
+	@SuppressWarnings("unchecked")
+	private static Class<Controller> controllerClass()
+	{
+		return (Class<Controller>) (Class<?>) MockController.class;
+	}
+}
@@ -0,0 +1,116 @@
+/**
+ * Copyright (c) 2010 Ignasi Barrera
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package org.sjmvc.controller;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertSame;
+import static org.testng.Assert.fail;
+
+import java.io.IOException;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.testng.annotations.Test;
+
+/**
+ * Unit tests for the {@link MethodActionInvoker} class.
+ * 
+ * @author Ignasi Barrera
+ */
+public class MethodActionInvokerTest
+{
+	/** The controller used in the tests. */
+	private final FailingController controller = new FailingController();
+
+	@Test
+	public void testInvoke() throws Exception
+	{
+		invoker("succeed").invoke(controller, null, null);
+		assertEquals(controller.invocations, 1);
+	}
+
+	@Test(expectedExceptions = IOException.class)
+	public void testInvokeUnwrapsCheckedExceptions() throws Exception
+	{
+		invoker("checkedFailure").invoke(controller, null, null);
+	}
+
+	@Test(expectedExceptions = OutOfMemoryError.class)
+	public void testInvokeUnwrapsErrors() throws Exception
+	{
+		invoker("errorFailure").invoke(controller, null, null);
+	}
+
+	@Test
+	public void testInvokePropagatesControllerExceptions() throws Exception
+	{
+		try
+		{
+			invoker("controllerFailure").invoke(controller, null, null);
+			fail("Expected ControllerException");
+		}
+		catch (ControllerException ex)
+		{
+			assertSame(ex, controller.failure);
+		}
+	}
+
+	private static ActionInvoker invoker(String name) throws Exception
+	{
+		return new MethodActionInvoker(FailingController.class.getMethod(
+				name, HttpServletRequest.class, HttpServletResponse.class));
+	}
+
+	public static class FailingController extends MethodInvokingController
+	{
+		private int invocations;
+
+		private final ControllerException failure = new ControllerException(
+				"Controller failure");
+
+		public void succeed(HttpServletRequest request,
+				HttpServletResponse response)
+		{
+			invocations++;
+		}
+
+		public void checkedFailure(HttpServletRequest request,
+				HttpServletResponse response) throws IOException
+		{
+			throw new IOException("Checked failure");
+		}
+
+		public void errorFailure(HttpServletRequest request,
+				HttpServletResponse response)
+		{
+			throw new OutOfMemoryError("Error failure");
+		}
+
+		public void controllerFailure(HttpServletRequest request,
+				HttpServletResponse response) throws ControllerException
+		{
+			throw failure;
+		}
+	}
+}
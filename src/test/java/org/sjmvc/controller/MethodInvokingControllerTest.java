@@ -68,6 +68,16 @@ public class MethodInvokingControllerTest
 		assertFalse(controller.errors());
 	}
 
+	@Test
+	public void testFrameworkMethod() throws Exception
+	{
+		InvocationContext ic = servletClient.newInvocation(BASE_PATH
+				+ "/execute");
+
+		checkControllerException(ic, NoSuchMethodException.class);
+		assertFalse(controller.errors());
+	}
+
 	@Test
 	public void testSuccessMethod() throws Exception
 	{
@@ -113,7 +123,7 @@ public class MethodInvokingControllerTest
 		assertTrue(controller.errors());
 		assertEquals(controller.getView(), "addError");
 		assertEquals(messages.getErrors().getErrors().size(), 1);
-		assertEquals(controller.messages.getErrors().errorCount(), 1);
+		assertEquals(controller.getMessages().getErrors().errorCount(), 1);
 	}
 
 	private void checkControllerException(InvocationContext ic,
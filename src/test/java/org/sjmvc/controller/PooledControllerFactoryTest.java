@@ -0,0 +1,117 @@
+/**
+ * Copyright (c) 2010 Ignasi Barrera
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package org.sjmvc.controller;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNotSame;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertSame;
+import static org.testng.Assert.assertTrue;
+
+import org.sjmvc.config.ConfigurationException;
+import org.testng.annotations.Test;
+
+/**
+ * Unit tests for the {@link PooledControllerFactory} class.
+ * 
+ * @author Ignasi Barrera
+ */
+public class PooledControllerFactoryTest
+{
+	@Test
+	public void testCreateMinimumControllers()
+	{
+		PooledControllerFactory pool = pool(2, 4);
+
+		assertEquals(pool.getCreatedCount(), 2);
+		assertEquals(pool.getIdleCount(), 2);
+		assertEquals(pool.getMaxSize(), 4);
+	}
+
+	@Test
+	public void testReuseReleasedControllers() throws Exception
+	{
+		PooledControllerFactory pool = pool(0, 2);
+
+		MockController controller = (MockController) pool.getController();
+		controller.setModel("model");
+		pool.releaseController(controller);
+
+		// The request state is cleaned up before reusing the controller
+		assertSame(pool.getController(), controller);
+		assertNull(controller.getModel());
+		assertEquals(pool.getCreatedCount(), 1);
+	}
+
+	@Test
+	public void testPoolExhaustion() throws Exception
+	{
+		PooledControllerFactory pool = pool(1, 1);
+
+		Controller first = pool.getController();
+		Controller second = pool.getController();
+		assertNotSame(first, second);
+		assertEquals(pool.getCreatedCount(), 2);
+		assertEquals(pool.getExhaustedCount(), 1);
+
+		// Only one controller fits in the pool
+		pool.releaseController(first);
+		pool.releaseController(second);
+		assertEquals(pool.getIdleCount(), 1);
+		assertEquals(pool.getDiscardedCount(), 1);
+	}
+
+	@Test
+	public void testDestroy() throws Exception
+	{
+		PooledControllerFactory pool = new PooledControllerFactory(
+				new ConstructorControllerFactory(MockCloseableController.class),
+				1, 1);
+
+		MockCloseableController idle = (MockCloseableController) pool
+				.getController();
+		MockCloseableController discarded = (MockCloseableController) pool
+				.getController();
+		pool.releaseController(idle);
+		pool.releaseController(discarded);
+		assertTrue(discarded.isClosed());
+		assertFalse(idle.isClosed());
+
+		pool.destroy();
+		assertTrue(idle.isClosed());
+		assertEquals(pool.getIdleCount(), 0);
+	}
+
+	@Test(expectedExceptions = ConfigurationException.class)
+	public void testInvalidSize()
+	{
+		pool(2, 1);
+	}
+
+	private static PooledControllerFactory pool(int minSize, int maxSize)
+	{
+		return new PooledControllerFactory(new ConstructorControllerFactory(
+				MockController.class), minSize, maxSize);
+	}
+}
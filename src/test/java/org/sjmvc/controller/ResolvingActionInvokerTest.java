@@ -0,0 +1,305 @@
+/**
+ * Copyright (c) 2010 Ignasi Barrera
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.sjmvc.controller;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertSame;
+import static org.testng.Assert.assertTrue;
+import static org.testng.Assert.fail;
+
+import java.lang.reflect.Method;
+import java.util.Collections;
+import java.util.Locale;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.sjmvc.config.Configuration;
+import org.sjmvc.config.ConfigurationException;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import com.meterware.servletunit.InvocationContext;
+import com.meterware.servletunit.ServletRunner;
+import com.meterware.servletunit.ServletUnitClient;
+
+/**
+ * Unit tests for the {@link ResolvingActionInvoker} class.
+ * 
+ * @author Ignasi Barrera
+ */
+public class ResolvingActionInvokerTest
+{
+	/** The base path used for web requests. */
+	private static final String BASE_PATH = "http://sjmvc.org/sjmvc/web/typed";
+
+	/** The controller used in the tests. */
+	private TypedController controller;
+
+	/** The servlet client used to perform unit tests. */
+	private ServletUnitClient servletClient;
+
+	@BeforeMethod
+	public void setUp()
+	{
+		controller = new TypedController();
+		servletClient = new ServletRunner().newClient();
+	}
+
+	@Test
+	public void testResolvePathVariables() throws Exception
+	{
+		InvocationContext ic = servletClient.newInvocation(BASE_PATH + "/show");
+		ic.getRequest().setAttribute(Configuration.PATH_VARIABLES_ATTRIBUTE,
+				Collections.singletonMap("id", "7"));
+
+		invoker("show").invoke(controller, ic.getRequest(), ic.getResponse());
+
+		assertEquals(controller.id, 7L);
+		assertSame(controller.response, ic.getResponse());
+	}
+
+	@Test(expectedExceptions = ControllerException.class)
+	public void testResolveMissingPathVariable() throws Exception
+	{
+		InvocationContext ic = servletClient.newInvocation(BASE_PATH + "/show");
+		invoker("show").invoke(controller, ic.getRequest(), ic.getResponse());
+	}
+
+	@Test
+	public void testResolveRequestParams() throws Exception
+	{
+		InvocationContext ic = servletClient.newInvocation(BASE_PATH
+				+ "/list?page=3&filter=active");
+
+		invoker("list").invoke(controller, ic.getRequest(), ic.getResponse());
+
+		assertEquals(controller.page, 3);
+		assertEquals(controller.filter, "active");
+	}
+
+	@Test
+	public void testResolveMissingOptionalRequestParams() throws Exception
+	{
+		InvocationContext ic = servletClient.newInvocation(BASE_PATH + "/list");
+
+		invoker("list").invoke(controller, ic.getRequest(), ic.getResponse());
+
+		assertEquals(controller.page, 0);
+		assertNull(controller.filter);
+	}
+
+	@Test
+	public void testResolveCharRequestParam() throws Exception
+	{
+		InvocationContext ic = servletClient.newInvocation(BASE_PATH
+				+ "/initial?letter=s");
+
+		invoker("initial").invoke(controller, ic.getRequest(),
+				ic.getResponse());
+
+		assertEquals(controller.letter, 's');
+	}
+
+	@Test(expectedExceptions = ControllerException.class)
+	public void testResolveMissingRequiredRequestParam() throws Exception
+	{
+		InvocationContext ic = servletClient.newInvocation(BASE_PATH
+				+ "/search");
+		invoker("search").invoke(controller, ic.getRequest(), ic.getResponse());
+	}
+
+	@Test(expectedExceptions = ControllerException.class)
+	public void testResolveInvalidRequestParam() throws Exception
+	{
+		InvocationContext ic = servletClient.newInvocation(BASE_PATH
+				+ "/list?page=first");
+		invoker("list").invoke(controller, ic.getRequest(), ic.getResponse());
+	}
+
+	@Test
+	public void testResolveModel() throws Exception
+	{
+		InvocationContext ic = servletClient.newInvocation(BASE_PATH
+				+ "/save?model.name=test");
+
+		invoker("save").invoke(controller, ic.getRequest(), ic.getResponse());
+
+		assertEquals(controller.model.name, "test");
+		assertSame(controller.getModel(), controller.model);
+		assertFalse(controller.errors());
+	}
+
+	@Test
+	public void testResolveModelWithErrors() throws Exception
+	{
+		InvocationContext ic = servletClient.newInvocation(BASE_PATH
+				+ "/save?model.unexisting=test");
+
+		invoker("save").invoke(controller, ic.getRequest(), ic.getResponse());
+
+		assertNull(controller.model.name);
+		assertTrue(controller.errors());
+	}
+
+	@Test(expectedExceptions = ConfigurationException.class)
+	public void testUnresolvableParameter() throws Exception
+	{
+		new ResolvingActionInvoker(UnresolvableController.class.getMethod(
+				"unresolvable", String.class, Integer.class));
+	}
+
+	@Test(expectedExceptions = ConfigurationException.class)
+	public void testParameterWithoutConverter() throws Exception
+	{
+		new ResolvingActionInvoker(UnresolvableController.class.getMethod(
+				"unconvertible", Locale.class));
+	}
+
+	@Test
+	public void testUnresolvableActionOnlyFailsItself() throws Exception
+	{
+		ActionTable actions = ActionTable.forClass(UnresolvableController.class);
+		InvocationContext ic = servletClient.newInvocation(BASE_PATH
+				+ "/resolvable");
+		UnresolvableController unresolvable = new UnresolvableController();
+
+		actions.getAction("resolvable").invoke(unresolvable, ic.getRequest(),
+				ic.getResponse());
+		assertTrue(unresolvable.invoked);
+
+		try
+		{
+			actions.getAction("unresolvable").invoke(unresolvable,
+					ic.getRequest(), ic.getResponse());
+			fail("The unresolvable action should fail");
+		}
+		catch (ConfigurationException ex)
+		{
+			// Test succeeded
+		}
+	}
+
+	@Test
+	public void testActionTable() throws Exception
+	{
+		ActionTable actions = ActionTable.forClass(TypedController.class);
+
+		assertEquals(actions.getAction("show").getMethod(),
+				TypedController.class.getMethod("show", long.class,
+						HttpServletResponse.class));
+		assertNull(actions.getAction("plain").getMethod());
+	}
+
+	private static ActionInvoker invoker(String name) throws Exception
+	{
+		for (Method method : TypedController.class.getMethods())
+		{
+			if (method.getName().equals(name))
+			{
+				return new ResolvingActionInvoker(method);
+			}
+		}
+
+		throw new NoSuchMethodException(name);
+	}
+
+	public static class TypedController extends MethodInvokingController
+	{
+		private long id;
+
+		private int page;
+
+		private String filter;
+
+		private char letter;
+
+		private HttpServletResponse response;
+
+		private TypedModel model;
+
+		public void show(@PathVariable("id") long id,
+				HttpServletResponse response)
+		{
+			this.id = id;
+			this.response = response;
+		}
+
+		public void list(
+				@RequestParam(value = "page", required = false) int page,
+				@RequestParam(value = "filter", required = false) String filter)
+		{
+			this.page = page;
+			this.filter = filter;
+		}
+
+		public void initial(@RequestParam("letter") char letter)
+		{
+			this.letter = letter;
+		}
+
+		public void search(@RequestParam("query") String query,
+				HttpServletRequest request)
+		{
+			// Never invoked without the query
+		}
+
+		public void save(@Model TypedModel model)
+		{
+			this.model = model;
+		}
+
+		public void plain(String argument)
+		{
+			// Not an action
+		}
+	}
+
+	public static class UnresolvableController extends MethodInvokingController
+	{
+		private boolean invoked;
+
+		public void unresolvable(@RequestParam("query") String query,
+				Integer argument)
+		{
+			// Can not be resolved
+		}
+
+		public void unconvertible(@RequestParam("locale") Locale locale)
+		{
+			// There is no converter for the parameter
+		}
+
+		public void resolvable(HttpServletRequest request,
+				HttpServletResponse response)
+		{
+			invoked = true;
+		}
+	}
+
+	public static class TypedModel
+	{
+		private String name;
+	}
+}
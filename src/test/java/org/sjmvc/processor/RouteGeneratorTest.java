@@ -0,0 +1,192 @@
+/**
+ * Copyright (c) 2010 Ignasi Barrera
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.sjmvc.processor;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertTrue;
+import static org.testng.Assert.fail;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.List;
+import java.util.Properties;
+import java.util.ServiceLoader;
+
+import javax.tools.ToolProvider;
+
+import org.sjmvc.config.Configuration;
+import org.sjmvc.config.ConfigurationException;
+import org.sjmvc.controller.MockController;
+import org.sjmvc.controller.PooledControllerFactory;
+import org.sjmvc.controller.SingletonControllerFactory;
+import org.sjmvc.web.ResourceMapping;
+import org.sjmvc.web.dispatch.path.RegExpPathMatcher;
+import org.sjmvc.web.dispatch.path.RouteProvider;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+/**
+ * Unit tests for the {@link RouteGenerator} class.
+ * 
+ * @author Ignasi Barrera
+ */
+public class RouteGeneratorTest
+{
+	/** The directory where the provider is generated and compiled. */
+	private File output;
+
+	/** The configuration used in the tests. */
+	private Properties config;
+
+	@BeforeMethod
+	public void setUp() throws IOException
+	{
+		output = File.createTempFile("sjmvc-routes", "");
+		output.delete();
+		output.mkdirs();
+
+		config = new Properties();
+		mapping("users", "/users/*", MockController.class.getName());
+		config.setProperty("sjmvc.controller.users.layout", "layout.jsp");
+		config.setProperty("sjmvc.controller.users.methods", "get,post");
+		config.setProperty("sjmvc.controller.users.scope", "pooled");
+		config.setProperty("sjmvc.controller.users.pool.max", "4");
+		mapping("groups", "/groups/*", MockController.class.getName());
+		config.setProperty("sjmvc.controller.groups.factory",
+				"org.sjmvc.controller.MockControllerFactory");
+		config.setProperty("sjmvc.controller.groups.scope", "singleton");
+	}
+
+	@AfterMethod
+	public void tearDown()
+	{
+		RouteProcessorTest.delete(output);
+	}
+
+	@Test
+	public void testGenerate() throws Exception
+	{
+		new RouteGenerator(config, getClass().getClassLoader()).generate(
+				output, output);
+
+		File source = new File(output,
+				"org/sjmvc/generated/GeneratedRouteProvider.java");
+		assertEquals(ToolProvider.getSystemJavaCompiler().run(null, null, null,
+				"-d", output.getAbsolutePath(), "-classpath",
+				System.getProperty("java.class.path"), source.getAbsolutePath()),
+				0);
+
+		ClassLoader cl = new URLClassLoader(new URL[] {output.toURI().toURL()},
+				getClass().getClassLoader());
+		List<ResourceMapping> mappings = ServiceLoader
+				.load(RouteProvider.class, cl).iterator().next().getMappings();
+
+		assertEquals(mappings.size(), 2);
+
+		// Mappings are sorted by path
+		ResourceMapping groups = mappings.get(0);
+		assertEquals(groups.getPath(), "/groups/*");
+		assertNull(groups.getLayout());
+		assertNull(groups.getMethods());
+		assertTrue(groups.getControllerFactory() instanceof SingletonControllerFactory);
+
+		ResourceMapping users = mappings.get(1);
+		assertEquals(users.getPath(), "/users/*");
+		assertEquals(users.getLayout(), "layout.jsp");
+		assertEquals(users.getMethods().toString(), "[GET, HEAD, POST]");
+		assertEquals(users.getControllerClass(), MockController.class);
+		assertEquals(((PooledControllerFactory) users.getControllerFactory())
+				.getMaxSize(), 4);
+	}
+
+	@Test
+	public void testLoadInvalidRoutes()
+	{
+		mapping("missing", "/missing", "org.sjmvc.controller.Unexisting");
+		mapping("invalid", "/invalid", String.class.getName());
+		mapping("duplicate", "/users/*", MockController.class.getName());
+		config.setProperty("sjmvc.controller.invalidMethods.path", "/nomethods");
+
+		checkErrors(4);
+	}
+
+	@Test
+	public void testLoadInvalidPath()
+	{
+		config.setProperty(Configuration.PATH_MATCHER_PROPERTY,
+				RegExpPathMatcher.class.getName());
+		mapping("regexp", "/invalid/[", MockController.class.getName());
+
+		checkErrors(1);
+	}
+
+	@Test
+	public void testLoadMissingLayout() throws IOException
+	{
+		File layouts = new File(output, Configuration.LAYOUT_PATH);
+		layouts.mkdirs();
+
+		RouteGenerator generator = new RouteGenerator(config, getClass()
+				.getClassLoader());
+		generator.setWebappDirectory(output);
+
+		try
+		{
+			generator.loadRoutes();
+			fail("Expected ConfigurationException");
+		}
+		catch (ConfigurationException ex)
+		{
+			assertTrue(ex.getMessage().contains("Layout not found: layout.jsp"));
+		}
+
+		new File(layouts, "layout.jsp").createNewFile();
+		assertEquals(generator.loadRoutes().size(), 2);
+	}
+
+	private void mapping(final String name, final String path,
+			final String controllerClass)
+	{
+		config.setProperty("sjmvc.controller." + name + ".path", path);
+		config.setProperty("sjmvc.controller." + name + ".class",
+				controllerClass);
+	}
+
+	private void checkErrors(final int count)
+	{
+		try
+		{
+			new RouteGenerator(config, getClass().getClassLoader())
+					.loadRoutes();
+			fail("Expected ConfigurationException");
+		}
+		catch (ConfigurationException ex)
+		{
+			// One line for each invalid mapping
+			assertEquals(ex.getMessage().split("\n\t").length, count + 1);
+		}
+	}
+}
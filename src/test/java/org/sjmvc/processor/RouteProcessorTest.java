@@ -0,0 +1,341 @@
+/**
+ * Copyright (c) 2010 Ignasi Barrera
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.sjmvc.processor;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Writer;
+import java.net.URI;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.ServiceLoader;
+import java.util.Set;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.Processor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.TypeElement;
+import javax.tools.Diagnostic;
+import javax.tools.DiagnosticCollector;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaCompiler.CompilationTask;
+import javax.tools.JavaFileObject;
+import javax.tools.SimpleJavaFileObject;
+import javax.tools.ToolProvider;
+
+import org.sjmvc.controller.PooledControllerFactory;
+import org.sjmvc.controller.SingletonControllerFactory;
+import org.sjmvc.web.ResourceMapping;
+import org.sjmvc.web.dispatch.path.RouteProvider;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+/**
+ * Unit tests for the {@link RouteProcessor} class.
+ * 
+ * @author Ignasi Barrera
+ */
+public class RouteProcessorTest
+{
+	/** The directory where the test sources are compiled. */
+	private File output;
+
+	@BeforeMethod
+	public void setUp() throws IOException
+	{
+		output = File.createTempFile("sjmvc-routes", "");
+		output.delete();
+		output.mkdirs();
+	}
+
+	@AfterMethod
+	public void tearDown()
+	{
+		delete(output);
+	}
+
+	@Test
+	public void testGenerateRouteProvider() throws Exception
+	{
+		assertTrue(compile(
+				source("test.UsersController", "package test;\n"
+						+ "@org.sjmvc.controller.Route(value = \"/users/*\", "
+						+ "layout = \"layout.jsp\", methods = {\"get\", \"post\"}, "
+						+ "scope = org.sjmvc.controller.ControllerScope.POOLED)\n"
+						+ "public class UsersController extends "
+						+ "org.sjmvc.controller.MethodInvokingController {}"),
+				source("test.HomeController", "package test;\n"
+						+ "public class HomeController {\n"
+						+ "  @org.sjmvc.controller.Route(value = \"/\\\"home\\\"\", "
+						+ "scope = org.sjmvc.controller.ControllerScope.SINGLETON)\n"
+						+ "  public static class Index extends "
+						+ "org.sjmvc.controller.MethodInvokingController {}\n"
+						+ "}")).isEmpty());
+
+		List<ResourceMapping> mappings = loadProvider().getMappings();
+		assertEquals(mappings.size(), 2);
+
+		// Mappings are sorted by path
+		ResourceMapping home = mappings.get(0);
+		assertEquals(home.getPath(), "/\"home\"");
+		assertNull(home.getLayout());
+		assertNull(home.getMethods());
+		assertEquals(home.getControllerClass().getName(),
+				"test.HomeController$Index");
+		assertTrue(home.getControllerFactory() instanceof SingletonControllerFactory);
+
+		ResourceMapping users = mappings.get(1);
+		assertEquals(users.getPath(), "/users/*");
+		assertEquals(users.getLayout(), "layout.jsp");
+		assertEquals(users.getMethods().toString(), "[GET, HEAD, POST]");
+		assertTrue(users.getControllerFactory() instanceof PooledControllerFactory);
+		assertEquals(users.getControllerFactory().getController().getClass(),
+				users.getControllerClass());
+	}
+
+	@Test
+	public void testInvalidRoutes() throws Exception
+	{
+		List<String> errors = compile(
+				source("test.NotAController", "package test;\n"
+						+ "@org.sjmvc.controller.Route(\"/a\")\n"
+						+ "public class NotAController {}"),
+				source("test.AbstractController", "package test;\n"
+						+ "@org.sjmvc.controller.Route(\"/b\")\n"
+						+ "public abstract class AbstractController extends "
+						+ "org.sjmvc.controller.MethodInvokingController {}"),
+				source("test.NoDefaultConstructor", "package test;\n"
+						+ "@org.sjmvc.controller.Route(\"/c\")\n"
+						+ "public class NoDefaultConstructor extends "
+						+ "org.sjmvc.controller.MethodInvokingController {\n"
+						+ "  public NoDefaultConstructor(String name) {}\n}"),
+				source("test.Duplicate", "package test;\n"
+						+ "public class Duplicate {\n"
+						+ "  @org.sjmvc.controller.Route(\"/d\")\n"
+						+ "  public static class First extends "
+						+ "org.sjmvc.controller.MethodInvokingController {}\n"
+						+ "  @org.sjmvc.controller.Route(\"/d\")\n"
+						+ "  public static class Second extends "
+						+ "org.sjmvc.controller.MethodInvokingController {}\n"
+						+ "}"));
+
+		assertEquals(errors.size(), 4);
+		assertFalse(new File(output, "META-INF").exists());
+	}
+
+	@Test
+	public void testIncludeRoutesOfLaterRounds() throws Exception
+	{
+		assertTrue(compile(
+				Arrays.<Processor> asList(new ControllerGenerator(),
+						new RouteProcessor()),
+				source("test.UsersController", "package test;\n"
+						+ "@org.sjmvc.controller.Route(\"/users/*\")\n"
+						+ "public class UsersController extends "
+						+ "org.sjmvc.controller.MethodInvokingController {}"))
+				.isEmpty());
+
+		List<ResourceMapping> mappings = loadProvider().getMappings();
+		assertEquals(mappings.size(), 2);
+		assertEquals(mappings.get(0).getControllerClass().getName(),
+				"test.GeneratedController");
+		assertEquals(mappings.get(1).getControllerClass().getName(),
+				"test.UsersController");
+	}
+
+	@Test
+	public void testKeepRoutesOfPreviousCompilations() throws Exception
+	{
+		assertTrue(compile(
+				source("test.UsersController", "package test;\n"
+						+ "@org.sjmvc.controller.Route(\"/users/*\")\n"
+						+ "public class UsersController extends "
+						+ "org.sjmvc.controller.MethodInvokingController {}"),
+				source("test.GroupsController", "package test;\n"
+						+ "@org.sjmvc.controller.Route(\"/groups/*\")\n"
+						+ "public class GroupsController extends "
+						+ "org.sjmvc.controller.MethodInvokingController {}"))
+				.isEmpty());
+
+		// Recompile only one of the controllers, changing its path
+		assertTrue(compile(source("test.UsersController", "package test;\n"
+				+ "@org.sjmvc.controller.Route(\"/people/*\")\n"
+				+ "public class UsersController extends "
+				+ "org.sjmvc.controller.MethodInvokingController {}")).isEmpty());
+
+		List<ResourceMapping> mappings = loadProvider().getMappings();
+		assertEquals(mappings.size(), 2);
+		assertEquals(mappings.get(0).getPath(), "/groups/*");
+		assertEquals(mappings.get(0).getControllerClass().getName(),
+				"test.GroupsController");
+		assertEquals(mappings.get(1).getPath(), "/people/*");
+		assertEquals(mappings.get(1).getControllerClass().getName(),
+				"test.UsersController");
+	}
+
+	@Test
+	public void testLiteral()
+	{
+		assertEquals(RouteProviderWriter.literal("/a\\b\"c\né"),
+				"\"/a\\\\b\\\"c\\n\\u00e9\"");
+	}
+
+	/**
+	 * Compile the given sources with the {@link RouteProcessor}.
+	 * 
+	 * @return The compilation errors.
+	 */
+	private List<String> compile(final JavaFileObject... sources)
+	{
+		return compile(Arrays.<Processor> asList(new RouteProcessor()),
+				sources);
+	}
+
+	/**
+	 * Compile the given sources with the given processors. The classes of
+	 * previous compilations are in the classpath.
+	 * 
+	 * @return The compilation errors.
+	 */
+	private List<String> compile(final List<Processor> processors,
+			final JavaFileObject... sources)
+	{
+		JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+		DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<JavaFileObject>();
+
+		CompilationTask task = compiler.getTask(null, null, diagnostics,
+				Arrays.asList("-d", output.getAbsolutePath(), "-classpath",
+						output.getAbsolutePath() + File.pathSeparator
+								+ System.getProperty("java.class.path")), null,
+				Arrays.asList(sources));
+		task.setProcessors(processors);
+		task.call();
+
+		List<String> errors = new ArrayList<String>();
+		for (Diagnostic<? extends JavaFileObject> diagnostic : diagnostics
+				.getDiagnostics())
+		{
+			if (diagnostic.getKind() == Diagnostic.Kind.ERROR)
+			{
+				errors.add(diagnostic.getMessage(null));
+			}
+		}
+
+		return errors;
+	}
+
+	private RouteProvider loadProvider() throws Exception
+	{
+		ClassLoader cl = new URLClassLoader(new URL[] {output.toURI().toURL()},
+				getClass().getClassLoader());
+		return ServiceLoader.load(RouteProvider.class, cl).iterator().next();
+	}
+
+	private static JavaFileObject source(final String className,
+			final String code)
+	{
+		return new SimpleJavaFileObject(URI.create("string:///"
+				+ className.replace('.', '/') + JavaFileObject.Kind.SOURCE.extension),
+				JavaFileObject.Kind.SOURCE) {
+			@Override
+			public CharSequence getCharContent(final boolean ignoreEncodingErrors)
+			{
+				return code;
+			}
+		};
+	}
+
+	/**
+	 * Processor that generates a {@link org.sjmvc.controller.Route} annotated
+	 * controller in the first round.
+	 */
+	@SupportedAnnotationTypes("*")
+	public static class ControllerGenerator extends AbstractProcessor
+	{
+		private boolean generated = false;
+
+		@Override
+		public SourceVersion getSupportedSourceVersion()
+		{
+			return SourceVersion.latestSupported();
+		}
+
+		@Override
+		public boolean process(final Set<? extends TypeElement> annotations,
+				final RoundEnvironment roundEnv)
+		{
+			if (!generated)
+			{
+				generated = true;
+
+				try
+				{
+					Writer writer = processingEnv.getFiler()
+							.createSourceFile("test.GeneratedController")
+							.openWriter();
+
+					try
+					{
+						writer.write("package test;\n"
+								+ "@org.sjmvc.controller.Route(\"/generated\")\n"
+								+ "public class GeneratedController extends "
+								+ "org.sjmvc.controller.MethodInvokingController {}");
+					}
+					finally
+					{
+						writer.close();
+					}
+				}
+				catch (IOException ex)
+				{
+					throw new RuntimeException(ex);
+				}
+			}
+
+			return false;
+		}
+	}
+
+	static void delete(final File file)
+	{
+		File[] children = file.listFiles();
+		if (children != null)
+		{
+			for (File child : children)
+			{
+				delete(child);
+			}
+		}
+		file.delete();
+	}
+}
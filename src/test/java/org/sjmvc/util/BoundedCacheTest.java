@@ -0,0 +1,171 @@
+/**
+ * Copyright (c) 2010 Ignasi Barrera
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package org.sjmvc.util;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNull;
+
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+/**
+ * Unit tests for the {@link BoundedCache} class.
+ * 
+ * @author Ignasi Barrera
+ */
+public class BoundedCacheTest
+{
+	/** The cache to test. */
+	private BoundedCache<String, Integer> cache;
+
+	@BeforeMethod
+	public void setUp()
+	{
+		cache = new BoundedCache<String, Integer>(3);
+	}
+
+	@Test
+	public void testGetAndPut()
+	{
+		assertNull(cache.get("one"));
+
+		cache.put("one", 1);
+		cache.put("two", 2);
+		cache.put("two", 22);
+
+		assertEquals(cache.size(), 2);
+		assertEquals(cache.get("one"), Integer.valueOf(1));
+		assertEquals(cache.get("two"), Integer.valueOf(22));
+	}
+
+	@Test
+	public void testEvictUnusedEntries()
+	{
+		cache.put("one", 1);
+		cache.put("two", 2);
+		cache.put("three", 3);
+
+		// Recently read entries get a second chance
+		cache.get("one");
+		cache.get("three");
+		cache.put("four", 4);
+
+		assertEquals(cache.size(), 3);
+		assertEquals(cache.get("one"), Integer.valueOf(1));
+		assertNull(cache.get("two"));
+		assertEquals(cache.get("three"), Integer.valueOf(3));
+		assertEquals(cache.get("four"), Integer.valueOf(4));
+	}
+
+	@Test
+	public void testEvictionResumesFromTheClockHand()
+	{
+		cache.put("one", 1);
+		cache.put("two", 2);
+		cache.put("three", 3);
+
+		// The hand gives "one" a second chance and evicts "two"
+		cache.get("one");
+		cache.put("four", 4);
+		assertNull(cache.get("two"));
+
+		// The hand continues from "three" instead of scanning "one" again
+		cache.put("five", 5);
+
+		assertEquals(cache.size(), 3);
+		assertEquals(cache.get("one"), Integer.valueOf(1));
+		assertNull(cache.get("three"));
+		assertEquals(cache.get("four"), Integer.valueOf(4));
+		assertEquals(cache.get("five"), Integer.valueOf(5));
+	}
+
+	@Test(timeOut = 5000)
+	public void testEvictWhenAllEntriesAreUsed()
+	{
+		cache.put("one", 1);
+		cache.put("two", 2);
+		cache.put("three", 3);
+
+		// A full pass clears the flags and the hand evicts the oldest entry
+		cache.get("one");
+		cache.get("two");
+		cache.get("three");
+		cache.put("four", 4);
+
+		assertEquals(cache.size(), 3);
+		assertNull(cache.get("one"));
+		assertEquals(cache.get("two"), Integer.valueOf(2));
+		assertEquals(cache.get("three"), Integer.valueOf(3));
+		assertEquals(cache.get("four"), Integer.valueOf(4));
+	}
+
+	@Test(timeOut = 5000)
+	public void testAddedEntryIsNeverEvicted()
+	{
+		BoundedCache<String, Integer> single = new BoundedCache<String, Integer>(
+				1);
+
+		single.put("one", 1);
+		single.get("one");
+		single.put("two", 2);
+
+		assertEquals(single.size(), 1);
+		assertNull(single.get("one"));
+		assertEquals(single.get("two"), Integer.valueOf(2));
+
+		single.put("three", 3);
+
+		assertEquals(single.size(), 1);
+		assertNull(single.get("two"));
+		assertEquals(single.get("three"), Integer.valueOf(3));
+	}
+
+	@Test
+	public void testReplaceDoesNotGrowTheCache()
+	{
+		for (int i = 0; i < 10; i++)
+		{
+			cache.put("one", i);
+		}
+
+		assertEquals(cache.size(), 1);
+		assertEquals(cache.get("one"), Integer.valueOf(9));
+	}
+
+	@Test
+	public void testClear()
+	{
+		cache.put("one", 1);
+		cache.put("two", 2);
+		cache.clear();
+
+		assertEquals(cache.size(), 0);
+		assertNull(cache.get("one"));
+	}
+
+	@Test(expectedExceptions = IllegalArgumentException.class)
+	public void testInvalidCapacity()
+	{
+		new BoundedCache<String, Integer>(0);
+	}
+}
@@ -0,0 +1,58 @@
+/**
+ * Copyright (c) 2010 Ignasi Barrera
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package org.sjmvc.util;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertSame;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.testng.annotations.Test;
+
+/**
+ * Unit tests for the {@link ClassCache} class.
+ * 
+ * @author Ignasi Barrera
+ */
+public class ClassCacheTest
+{
+	@Test
+	public void testValuesAreComputedOnce()
+	{
+		final AtomicInteger computed = new AtomicInteger();
+		ClassCache<String> cache = new ClassCache<String>() {
+			@Override
+			protected String compute(Class<?> type)
+			{
+				computed.incrementAndGet();
+				return new String(type.getName());
+			}
+		};
+
+		String value = cache.get(String.class);
+		assertEquals(value, String.class.getName());
+		assertSame(cache.get(String.class), value);
+		assertEquals(cache.get(Integer.class), Integer.class.getName());
+		assertEquals(computed.get(), 2);
+	}
+}
@@ -0,0 +1,151 @@
+/**
+ * Copyright (c) 2010 Ignasi Barrera
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package org.sjmvc.util;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNotNull;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertSame;
+import static org.testng.Assert.fail;
+
+import java.util.Locale;
+
+import org.testng.annotations.Test;
+
+/**
+ * Unit tests for the {@link ConverterRegistry} class.
+ * 
+ * @author Ignasi Barrera
+ */
+public class ConverterRegistryTest
+{
+	@Test
+	public void testConvertPrimitives() throws Exception
+	{
+		assertEquals(ConverterRegistry.convert(int.class, "5"),
+				Integer.valueOf(5));
+		assertEquals(ConverterRegistry.convert(long.class, "5"),
+				Long.valueOf(5));
+		assertEquals(ConverterRegistry.convert(double.class, "5.5"),
+				Double.valueOf(5.5));
+		assertEquals(ConverterRegistry.convert(boolean.class, "true"),
+				Boolean.TRUE);
+		assertEquals(ConverterRegistry.convert(char.class, "c"),
+				Character.valueOf('c'));
+		assertEquals(ConverterRegistry.convert(Character.class, "c"),
+				Character.valueOf('c'));
+	}
+
+	@Test
+	public void testPrimitiveConverters() throws Exception
+	{
+		assertEquals(((IntConverter) ConverterRegistry.getConverter(int.class))
+				.convertInt("5"), 5);
+		assertEquals(((LongConverter) ConverterRegistry
+				.getConverter(long.class)).convertLong("5"), 5L);
+		assertEquals(((DoubleConverter) ConverterRegistry
+				.getConverter(double.class)).convertDouble("5.5"), 5.5);
+	}
+
+	@Test
+	public void testConvertNull() throws Exception
+	{
+		assertNull(ConverterRegistry.convert(int.class, null));
+		assertNull(ConverterRegistry.convert(Locale.class, null));
+	}
+
+	@Test
+	public void testEnumConvertersAreCached() throws Exception
+	{
+		Converter<TestEnum> converter = ConverterRegistry
+				.getConverter(TestEnum.class);
+
+		assertNotNull(converter);
+		assertSame(ConverterRegistry.getConverter(TestEnum.class), converter);
+		assertEquals(converter.convert("VALUE"), TestEnum.VALUE);
+	}
+
+	@Test
+	public void testMissingConverter() throws Exception
+	{
+		assertNull(ConverterRegistry.getConverter(Locale.class));
+
+		try
+		{
+			ConverterRegistry.convert(Locale.class, "en");
+			fail("Conversion should fail if there is no converter");
+		}
+		catch (Exception ex)
+		{
+			// Test succeeded
+		}
+	}
+
+	@Test
+	public void testInvalidCharacter()
+	{
+		try
+		{
+			ConverterRegistry.convert(char.class, "chars");
+			fail("Conversion should fail for more than one character");
+		}
+		catch (Exception ex)
+		{
+			// Test succeeded
+		}
+	}
+
+	@Test
+	public void testRegisterConverter() throws Exception
+	{
+		ConverterRegistry.register(StringBuilder.class,
+				new Converter<StringBuilder>() {
+					@Override
+					public StringBuilder convert(String value)
+					{
+						return new StringBuilder(value).reverse();
+					}
+				});
+
+		assertEquals(ConverterRegistry.convert(StringBuilder.class, "abc")
+				.toString(), "cba");
+		assertEquals(ReflectionUtils.fromString(StringBuilder.class, "abc")
+				.toString(), "cba");
+	}
+
+	@Test(expectedExceptions = IllegalArgumentException.class)
+	public void testRegisterNullConverter()
+	{
+		ConverterRegistry.register(String.class, null);
+	}
+
+	/**
+	 * Enum used in tests.
+	 * 
+	 * @author Ignasi Barrera
+	 */
+	public static enum TestEnum
+	{
+		VALUE
+	}
+}
@@ -22,6 +22,9 @@
 
 package org.sjmvc.web;
 
+import static org.sjmvc.config.Configuration.CONTROLLER_METHODS_SUFFIX;
+import static org.sjmvc.config.Configuration.CONTROLLER_PREFIX;
+import static org.sjmvc.config.Configuration.getConfiguration;
 import static org.testng.Assert.assertEquals;
 import static org.testng.Assert.assertFalse;
 import static org.testng.Assert.assertTrue;
@@ -29,12 +32,16 @@ import static org.testng.Assert.fail;
 
 import javax.servlet.http.HttpServletResponse;
 
+import org.testng.annotations.AfterMethod;
 import org.testng.annotations.BeforeMethod;
 import org.testng.annotations.Test;
 
+import com.meterware.httpunit.HeadMethodWebRequest;
 import com.meterware.httpunit.HttpException;
 import com.meterware.httpunit.PostMethodWebRequest;
 import com.meterware.httpunit.WebRequest;
+import com.meterware.httpunit.WebResponse;
+import com.meterware.servletunit.InvocationContext;
 import com.meterware.servletunit.ServletRunner;
 import com.meterware.servletunit.ServletUnitClient;
 
@@ -53,6 +60,10 @@ public class MVCServletTest
 	/** The base path used for web requests. */
 	private static final String BASE_PATH = "http://sjmvc.org/sjmvc/web";
 
+	/** Methods property of the mock mapping. */
+	private static final String MOCK_METHODS_PROPERTY = CONTROLLER_PREFIX + "mock"
+			+ CONTROLLER_METHODS_SUFFIX;
+
 	/** The servlet client used to perform unit tests. */
 	private ServletUnitClient servletClient;
 
@@ -74,6 +85,38 @@ public class MVCServletTest
 		assertFalse(ex.getMessage().contains(".jsp"));
 	}
 
+	@AfterMethod
+	public void tearDown()
+	{
+		getConfiguration().remove(MOCK_METHODS_PROPERTY);
+	}
+
+	@Test
+	public void testHandleMethodNotAllowed() throws Exception
+	{
+		getConfiguration().put(MOCK_METHODS_PROPERTY, "GET");
+
+		WebRequest request = new PostMethodWebRequest(BASE_PATH + "/mock/success");
+		checkReponseError(request, HttpServletResponse.SC_METHOD_NOT_ALLOWED);
+
+		// Ensure the allowed methods are sent
+		InvocationContext context = servletClient.newInvocation(request);
+		context.service();
+		assertTrue(context.getResponse().containsHeader("Allow"));
+	}
+
+	@Test
+	public void testHandleHeadRequest() throws Exception
+	{
+		getConfiguration().put(MOCK_METHODS_PROPERTY, "GET");
+
+		// The view is not rendered
+		WebRequest request = new HeadMethodWebRequest(BASE_PATH + "/mock/success");
+		WebResponse response = servletClient.getResponse(request);
+
+		assertEquals(response.getResponseCode(), HttpServletResponse.SC_OK);
+	}
+
 	@Test
 	public void testControllerError() throws Exception
 	{
@@ -22,9 +22,13 @@
 
 package org.sjmvc.web.dispatch.path;
 
+import static org.testng.Assert.assertEquals;
 import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertSame;
 import static org.testng.Assert.assertTrue;
 
+import java.util.Map;
+
 import org.testng.annotations.BeforeMethod;
 import org.testng.annotations.Test;
 
@@ -70,4 +74,73 @@ public class AntPathMatcherTest
 		assertFalse(matcher.matches("/api/t?est/test", "/api/t12est/test"));
 	}
 
+	@Test
+	public void testMatchesWildcards()
+	{
+		assertTrue(matcher.matches("/api/*.html", "/api/index.html"));
+		assertTrue(matcher.matches("/api/*.html", "/api/.html"));
+		assertTrue(matcher.matches("/api/a*b*c", "/api/abbbc"));
+		assertTrue(matcher.matches("/api/a*b*c", "/api/aXbYbZc"));
+		assertTrue(matcher.matches("/api/?", "/api/a"));
+		assertTrue(matcher.matches("/api/a.b", "/api/a.b"));
+
+		assertFalse(matcher.matches("/api/*.html", "/api/index.htm"));
+		assertFalse(matcher.matches("/api/a*b*c", "/api/aXbYc0"));
+		assertFalse(matcher.matches("/api/?", "/api/ab"));
+		assertFalse(matcher.matches("/api/a.b", "/api/axb"));
+		assertFalse(matcher.matches("/api/*", "/api/line\nbreak"));
+	}
+
+	@Test
+	public void testMatchesPathSegments()
+	{
+		// Empty and blank path elements are ignored
+		assertTrue(matcher.matches("/api/test", "//api///test"));
+		assertTrue(matcher.matches("/api/test", "/ api / test /"));
+		assertTrue(matcher.matches("/api/*/test", "/api/ /x/test"));
+
+		// Several ** groups
+		assertTrue(matcher.matches("/a/**/b/c/**/d", "/a/x/b/c/y/z/d/e"));
+		assertTrue(matcher.matches("/a/**/b/**/**/c", "/a/b/c"));
+		assertTrue(matcher.matches("/a/**/b/c", "/a/b/x/b/c"));
+		assertFalse(matcher.matches("/a/**/b/c", "/a/b/x/b"));
+		assertFalse(matcher.matches("/a/**/b/c/**/d", "/a/x/b/c/y"));
+		assertFalse(matcher.matches("/a/**/b", "/a"));
+	}
+
+	@Test
+	public void testMatchesTemplates()
+	{
+		assertTrue(matcher.matches("/api/{id}", "/api/17"));
+		assertTrue(matcher.matches("/api/{id:[0-9]+}", "/api/17"));
+		assertTrue(matcher.matches("/api/{id}.json", "/api/17.json"));
+
+		assertFalse(matcher.matches("/api/{id:[0-9]+}", "/api/abc"));
+		assertFalse(matcher.matches("/api/{id}.json", "/api/17.xml"));
+	}
+
+	@Test
+	public void testExtractUriTemplateVariables()
+	{
+		Map<String, String> variables = matcher.extractUriTemplateVariables(
+				"/api/{resource}/{id:[0-9]+}", "/api/users/17/edit");
+
+		assertEquals(variables.size(), 2);
+		assertEquals(variables.get("resource"), "users");
+		assertEquals(variables.get("id"), "17");
+	}
+
+	@Test(expectedExceptions = IllegalStateException.class)
+	public void testExtractUriTemplateVariablesNoMatch()
+	{
+		matcher.extractUriTemplateVariables("/api/{id:[0-9]+}", "/api/abc");
+	}
+
+	@Test
+	public void testPrefixPatternCache()
+	{
+		assertSame(matcher.getPrefixPattern("/api/*"),
+				matcher.getPrefixPattern("/api/*"));
+	}
+
 }
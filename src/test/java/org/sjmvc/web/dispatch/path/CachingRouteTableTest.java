@@ -0,0 +1,86 @@
+/**
+ * Copyright (c) 2010 Ignasi Barrera
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package org.sjmvc.web.dispatch.path;
+
+import static org.sjmvc.web.dispatch.path.TrieRouteTableTest.mappings;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertSame;
+
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+/**
+ * Unit tests for the {@link CachingRouteTable} class.
+ * 
+ * @author Ignasi Barrera
+ */
+public class CachingRouteTableTest
+{
+	/** The route table to test. */
+	private CachingRouteTable routes;
+
+	@BeforeMethod
+	public void setUp()
+	{
+		routes = new CachingRouteTable(new SortedRouteTable(
+				new AntPathMatcher(), mappings("/api", "/api/users/{user}")), 2);
+	}
+
+	@Test
+	public void testMatchCachesRoutes()
+	{
+		RouteMatch match = routes.match("/api/users/17");
+		assertEquals(match.getVariables().get("user"), "17");
+		assertEquals(routes.getHits(), 0);
+		assertEquals(routes.getMisses(), 1);
+
+		assertSame(routes.match("/api/users/17"), match);
+		assertEquals(routes.getHits(), 1);
+		assertEquals(routes.getMisses(), 1);
+		assertEquals(routes.getSize(), 1);
+	}
+
+	@Test
+	public void testMatchDoesNotCacheMissingRoutes()
+	{
+		assertNull(routes.match("/unmapped"));
+		assertNull(routes.match("/unmapped"));
+		assertEquals(routes.getHits(), 0);
+		assertEquals(routes.getMisses(), 2);
+		assertEquals(routes.getSize(), 0);
+	}
+
+	@Test
+	public void testMatchIsBounded()
+	{
+		routes.match("/api/users/1");
+		routes.match("/api/users/2");
+		routes.match("/api/users/3");
+
+		assertEquals(routes.getSize(), 2);
+		assertEquals(routes.getCapacity(), 2);
+		assertEquals(routes.match("/api/users/1").getVariables().get("user"),
+				"1");
+	}
+}
@@ -0,0 +1,133 @@
+/**
+ * Copyright (c) 2010 Ignasi Barrera
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package org.sjmvc.web.dispatch.path;
+
+import static org.sjmvc.web.dispatch.path.TrieRouteTableTest.mappings;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertTrue;
+
+import java.util.List;
+
+import org.sjmvc.web.ResourceMapping;
+import org.testng.annotations.Test;
+
+/**
+ * Unit tests for the {@link FilteringRouteTable} class.
+ * 
+ * @author Ignasi Barrera
+ */
+public class FilteringRouteTableTest
+{
+	@Test
+	public void testMatchFiltersFirstSegment()
+	{
+		CountingRouteTable counter = routes("/api", "/static/**/*.css");
+		FilteringRouteTable routes = new FilteringRouteTable(counter,
+				new AntPathMatcher(), counter.mappings);
+
+		assertTrue(routes.isFilteringFirstSegment());
+		assertEquals(routes.match("/api/users").getMapping().getPath(), "/api");
+		assertEquals(routes.match(" /static/main.css").getMapping().getPath(),
+				"/static/**/*.css");
+		assertEquals(counter.count, 2);
+
+		// Rejected without resolving the paths
+		assertNull(routes.match("/"));
+		assertNull(routes.match(""));
+		assertNull(routes.match("/apis"));
+		assertNull(routes.match("/wp-admin/login.php"));
+		assertEquals(counter.count, 2);
+	}
+
+	@Test
+	public void testMatchWithoutFirstSegmentFilter()
+	{
+		CountingRouteTable counter = routes("/api", "/*/items");
+		FilteringRouteTable routes = new FilteringRouteTable(counter,
+				new AntPathMatcher(), counter.mappings);
+		assertFalse(routes.isFilteringFirstSegment());
+		assertEquals(routes.match("/users/items").getMapping().getPath(),
+				"/*/items");
+
+		counter = routes("", "/api");
+		routes = new FilteringRouteTable(counter, new AntPathMatcher(),
+				counter.mappings);
+		assertFalse(routes.isFilteringFirstSegment());
+		assertEquals(routes.match("/unmapped").getMapping().getPath(), "");
+
+		counter = routes("/api");
+		routes = new FilteringRouteTable(counter, new RegExpPathMatcher(),
+				counter.mappings);
+		assertFalse(routes.isFilteringFirstSegment());
+	}
+
+	@Test
+	public void testMatchCachesNotFoundPaths()
+	{
+		CountingRouteTable counter = routes("/api/users");
+		FilteringRouteTable routes = new FilteringRouteTable(counter,
+				new AntPathMatcher(), counter.mappings);
+
+		assertNull(routes.match("/api/unmapped"));
+		assertNull(routes.match("/api/unmapped"));
+		assertEquals(counter.count, 1);
+
+		assertEquals(routes.match("/api/users").getMapping().getPath(),
+				"/api/users");
+		assertEquals(routes.match("/api/users").getMapping().getPath(),
+				"/api/users");
+		assertEquals(counter.count, 3);
+	}
+
+	private static CountingRouteTable routes(String... paths)
+	{
+		return new CountingRouteTable(mappings(paths));
+	}
+
+	/**
+	 * Route table that counts the resolved paths.
+	 */
+	private static class CountingRouteTable implements RouteTable
+	{
+		private final List<ResourceMapping> mappings;
+
+		private final RouteTable routes;
+
+		private int count;
+
+		public CountingRouteTable(List<ResourceMapping> mappings)
+		{
+			this.mappings = mappings;
+			this.routes = new SortedRouteTable(new AntPathMatcher(), mappings);
+		}
+
+		@Override
+		public RouteMatch match(String path)
+		{
+			count++;
+			return routes.match(path);
+		}
+	}
+}
@@ -22,13 +22,38 @@
 
 package org.sjmvc.web.dispatch.path;
 
+import static org.sjmvc.config.Configuration.CONTROLLER_CLASS_SUFFIX;
+import static org.sjmvc.config.Configuration.CONTROLLER_FACTORY_SUFFIX;
+import static org.sjmvc.config.Configuration.CONTROLLER_METHODS_SUFFIX;
+import static org.sjmvc.config.Configuration.CONTROLLER_PATH_SUFFIX;
+import static org.sjmvc.config.Configuration.CONTROLLER_POOL_MAX_SUFFIX;
+import static org.sjmvc.config.Configuration.CONTROLLER_POOL_MIN_SUFFIX;
+import static org.sjmvc.config.Configuration.CONTROLLER_PREFIX;
+import static org.sjmvc.config.Configuration.CONTROLLER_SCOPE_SUFFIX;
 import static org.sjmvc.config.Configuration.DEFAULT_PATH_MATCHER;
+import static org.sjmvc.config.Configuration.DISPATCHER_CACHE_SIZE_PROPERTY;
+import static org.sjmvc.config.Configuration.DISPATCHER_MODE_PROPERTY;
 import static org.sjmvc.config.Configuration.PATH_MATCHER_PROPERTY;
 import static org.sjmvc.config.Configuration.getConfiguration;
+import static org.sjmvc.web.dispatch.path.PathBasedRequestDispatcher.getPathWithinServlet;
 import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNotSame;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertSame;
+import static org.testng.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.List;
 
 import org.sjmvc.config.ConfigurationException;
+import org.sjmvc.controller.ConstructorControllerFactory;
+import org.sjmvc.controller.ControllerFactory;
+import org.sjmvc.controller.ControllerScope;
 import org.sjmvc.controller.MockController;
+import org.sjmvc.controller.MockControllerFactory;
+import org.sjmvc.controller.PooledControllerFactory;
+import org.sjmvc.controller.SingletonControllerFactory;
 import org.sjmvc.web.ResourceMapping;
 import org.testng.annotations.AfterMethod;
 import org.testng.annotations.Test;
@@ -43,12 +68,49 @@ public class PathBasedRequestDispatcherTest
 {
 	// Request handling unit testing is covered in the MVCServletTest class
 
+	/** Path property of a mapping with an invalid path. */
+	private static final String INVALID_PATH_PROPERTY = CONTROLLER_PREFIX
+			+ "invalid" + CONTROLLER_PATH_SUFFIX;
+
+	/** Methods property of the mock mapping. */
+	private static final String MOCK_METHODS_PROPERTY = CONTROLLER_PREFIX
+			+ "mock" + CONTROLLER_METHODS_SUFFIX;
+
+	/** Factory property of the mock mapping. */
+	private static final String MOCK_FACTORY_PROPERTY = CONTROLLER_PREFIX
+			+ "mock" + CONTROLLER_FACTORY_SUFFIX;
+
+	/** Scope property of the mock mapping. */
+	private static final String MOCK_SCOPE_PROPERTY = CONTROLLER_PREFIX
+			+ "mock" + CONTROLLER_SCOPE_SUFFIX;
+
+	/** Minimum pool size property of the mock mapping. */
+	private static final String MOCK_POOL_MIN_PROPERTY = CONTROLLER_PREFIX
+			+ "mock" + CONTROLLER_POOL_MIN_SUFFIX;
+
+	/** Maximum pool size property of the mock mapping. */
+	private static final String MOCK_POOL_MAX_PROPERTY = CONTROLLER_PREFIX
+			+ "mock" + CONTROLLER_POOL_MAX_SUFFIX;
+
+	/** Class property of a mapping with an invalid path. */
+	private static final String INVALID_CLASS_PROPERTY = CONTROLLER_PREFIX
+			+ "invalid" + CONTROLLER_CLASS_SUFFIX;
+
 	@AfterMethod
 	public void tearDown()
 	{
 		// Reset the configuration to the default values in the test
 		// configuration file
 		getConfiguration().remove(PATH_MATCHER_PROPERTY);
+		getConfiguration().remove(DISPATCHER_MODE_PROPERTY);
+		getConfiguration().remove(DISPATCHER_CACHE_SIZE_PROPERTY);
+		getConfiguration().remove(INVALID_PATH_PROPERTY);
+		getConfiguration().remove(INVALID_CLASS_PROPERTY);
+		getConfiguration().remove(MOCK_METHODS_PROPERTY);
+		getConfiguration().remove(MOCK_FACTORY_PROPERTY);
+		getConfiguration().remove(MOCK_SCOPE_PROPERTY);
+		getConfiguration().remove(MOCK_POOL_MIN_PROPERTY);
+		getConfiguration().remove(MOCK_POOL_MAX_PROPERTY);
 	}
 
 	@Test
@@ -65,6 +127,68 @@ public class PathBasedRequestDispatcherTest
 		assertEquals(mapping.getControllerClass(), MockController.class);
 	}
 
+	@Test
+	public void testLoadControllerFactory() throws Exception
+	{
+		PathBasedRequestDispatcher dispatcher = new PathBasedRequestDispatcher();
+		ResourceMapping mapping = dispatcher.mappings.get("/mock");
+		assertEquals(mapping.getControllerFactory().getClass(),
+				ConstructorControllerFactory.class);
+		assertEquals(mapping.getControllerFactory().getController().getClass(),
+				MockController.class);
+
+		getConfiguration().put(MOCK_FACTORY_PROPERTY,
+				MockControllerFactory.class.getName());
+		dispatcher = new PathBasedRequestDispatcher();
+		mapping = dispatcher.mappings.get("/mock");
+		assertEquals(mapping.getControllerFactory().getClass(),
+				MockControllerFactory.class);
+	}
+
+	@Test
+	public void testLoadControllerScope() throws Exception
+	{
+		PathBasedRequestDispatcher dispatcher = new PathBasedRequestDispatcher();
+		ControllerFactory factory = dispatcher.mappings.get("/mock")
+				.getControllerFactory();
+		assertNotSame(factory.getController(), factory.getController());
+
+		getConfiguration().put(MOCK_SCOPE_PROPERTY, "singleton");
+		dispatcher = new PathBasedRequestDispatcher();
+		factory = dispatcher.mappings.get("/mock").getControllerFactory();
+		assertEquals(factory.getClass(), SingletonControllerFactory.class);
+		assertSame(factory.getController(), factory.getController());
+	}
+
+	@Test
+	public void testLoadPooledControllerScope()
+	{
+		getConfiguration().put(MOCK_SCOPE_PROPERTY, "pooled");
+		getConfiguration().put(MOCK_POOL_MIN_PROPERTY, "2");
+		getConfiguration().put(MOCK_POOL_MAX_PROPERTY, "5");
+
+		PathBasedRequestDispatcher dispatcher = new PathBasedRequestDispatcher();
+		PooledControllerFactory factory = (PooledControllerFactory) dispatcher.mappings
+				.get("/mock").getControllerFactory();
+		assertEquals(factory.getIdleCount(), 2);
+		assertEquals(factory.getMaxSize(), 5);
+	}
+
+	@Test(expectedExceptions = ConfigurationException.class)
+	public void testLoadInvalidControllerFactory()
+	{
+		getConfiguration().put(MOCK_FACTORY_PROPERTY, String.class.getName());
+		new PathBasedRequestDispatcher();
+	}
+
+	@Test(expectedExceptions = ConfigurationException.class)
+	public void testLoadInvalidControllerClass()
+	{
+		getConfiguration().put(INVALID_PATH_PROPERTY, "/invalid");
+		getConfiguration().put(INVALID_CLASS_PROPERTY, String.class.getName());
+		new PathBasedRequestDispatcher();
+	}
+
 	@Test
 	public void testLoadDefaultPathMatcher()
 	{
@@ -88,4 +212,213 @@ public class PathBasedRequestDispatcherTest
 				"org.sjmvc.UnexistingClass");
 		new PathBasedRequestDispatcher();
 	}
+
+	@Test
+	public void testCompileDefaultRoutes()
+	{
+		PathBasedRequestDispatcher dispatcher = new PathBasedRequestDispatcher();
+		assertEquals(resolvingRoutes(dispatcher).getClass(), SortedRouteTable.class);
+		assertEquals(dispatcher.routes.match("/mock/test").getMapping(),
+				dispatcher.mappings.get("/mock"));
+	}
+
+	@Test
+	public void testCompileRegExpRoutes()
+	{
+		getConfiguration().put(PATH_MATCHER_PROPERTY,
+				RegExpPathMatcher.class.getName());
+		PathBasedRequestDispatcher dispatcher = new PathBasedRequestDispatcher();
+		assertEquals(resolvingRoutes(dispatcher).getClass(), PrefixIndexedRouteTable.class);
+		assertEquals(dispatcher.routes.match("/mock/test").getMapping(),
+				dispatcher.mappings.get("/mock"));
+	}
+
+	@Test
+	public void testCompileTrieRoutes()
+	{
+		getConfiguration().put(DISPATCHER_MODE_PROPERTY, "trie");
+		PathBasedRequestDispatcher dispatcher = new PathBasedRequestDispatcher();
+		assertEquals(resolvingRoutes(dispatcher).getClass(), TrieRouteTable.class);
+		assertEquals(dispatcher.routes.match("/mock/test").getMapping(),
+				dispatcher.mappings.get("/mock"));
+	}
+
+	@Test
+	public void testCompileCachedRoutes()
+	{
+		getConfiguration().put(DISPATCHER_CACHE_SIZE_PROPERTY, "10");
+		PathBasedRequestDispatcher dispatcher = new PathBasedRequestDispatcher();
+		assertEquals(resolvingRoutes(dispatcher).getClass(), CachingRouteTable.class);
+
+		CachingRouteTable routes = (CachingRouteTable) resolvingRoutes(dispatcher);
+		assertEquals(routes.getCapacity(), 10);
+		assertEquals(routes.getRoutes().getClass(), SortedRouteTable.class);
+		assertEquals(routes.match("/mock/test").getMapping(),
+				dispatcher.mappings.get("/mock"));
+	}
+
+	@Test(expectedExceptions = ConfigurationException.class)
+	public void testCompileTrieRoutesWithRegExpPathMatcher()
+	{
+		getConfiguration().put(DISPATCHER_MODE_PROPERTY, "trie");
+		getConfiguration().put(PATH_MATCHER_PROPERTY,
+				RegExpPathMatcher.class.getName());
+		new PathBasedRequestDispatcher();
+	}
+
+	@Test(expectedExceptions = ConfigurationException.class)
+	public void testCompileInvalidDispatcherMode()
+	{
+		getConfiguration().put(DISPATCHER_MODE_PROPERTY, "unexisting");
+		new PathBasedRequestDispatcher();
+	}
+
+	@Test(expectedExceptions = ConfigurationException.class)
+	public void testLoadControllerMappingsWithInvalidPath()
+	{
+		getConfiguration().put(PATH_MATCHER_PROPERTY,
+				RegExpPathMatcher.class.getName());
+		getConfiguration().put(INVALID_PATH_PROPERTY, "/invalid/[a-z");
+		getConfiguration().put(INVALID_CLASS_PROPERTY,
+				MockController.class.getName());
+		new PathBasedRequestDispatcher();
+	}
+
+	@Test
+	public void testCompileFilteredRoutes()
+	{
+		PathBasedRequestDispatcher dispatcher = new PathBasedRequestDispatcher();
+		assertEquals(dispatcher.routes.getClass(), FilteringRouteTable.class);
+		assertTrue(((FilteringRouteTable) dispatcher.routes)
+				.isFilteringFirstSegment());
+		assertNull(dispatcher.routes.match("/unmapped"));
+	}
+
+	@Test
+	public void testGetPathWithinServlet()
+	{
+		assertEquals(getPathWithinServlet("/ctx/web/api", "/ctx", "/web", false),
+				"/api");
+		assertEquals(getPathWithinServlet("/ctx/web//api/", "/ctx", "/web",
+				false), "//api/");
+		assertEquals(getPathWithinServlet("/web/api", "", "/web", false),
+				"/api");
+		assertEquals(getPathWithinServlet("/api", "", "", false), "/api");
+
+		// Regular expression characters in the context and servlet paths
+		assertEquals(getPathWithinServlet("/c.x/w+b/api", "/c.x", "/w+b",
+				false), "/api");
+
+		// Normalized paths
+		assertEquals(getPathWithinServlet("/ctx/web", "/ctx", "/web", true), "");
+		assertEquals(getPathWithinServlet("/ctx/web/", "/ctx", "/web", true),
+				"");
+		assertEquals(getPathWithinServlet("/ctx/web/api/users", "/ctx",
+				"/web", true), "/api/users");
+		assertEquals(getPathWithinServlet("/ctx/web/api/users//", "/ctx",
+				"/web", true), "/api/users");
+		assertEquals(getPathWithinServlet("/ctx/web//api///users/", "/ctx",
+				"/web", true), "/api/users");
+	}
+
+	@Test
+	public void testCompileMethodRoutes()
+	{
+		PathBasedRequestDispatcher dispatcher = new PathBasedRequestDispatcher();
+		assertNull(dispatcher.methodRoutes);
+
+		getConfiguration().put(MOCK_METHODS_PROPERTY, "GET,PUT");
+		dispatcher = new PathBasedRequestDispatcher();
+
+		ResourceMapping mapping = dispatcher.mappings.get("/mock");
+		assertTrue(mapping.acceptsMethod("GET"));
+		assertTrue(mapping.acceptsMethod("HEAD"));
+		assertFalse(mapping.acceptsMethod("POST"));
+
+		MethodRouteTable routes = dispatcher.methodRoutes;
+		assertEquals(routes.getRoutes("GET").match("/mock/test").getMapping(),
+				mapping);
+		assertEquals(routes.getRoutes("HEAD").match("/mock/test")
+				.getMapping(), mapping);
+		assertEquals(routes.getRoutes("PUT").match("/mock/test").getMapping(),
+				mapping);
+		assertNull(routes.getRoutes("POST").match("/mock/test"));
+		assertNull(routes.getRoutes("OPTIONS").match("/mock/test"));
+	}
+
+	@Test
+	public void testLoadProvidedControllerMappings()
+	{
+		PathBasedRequestDispatcher dispatcher = new PathBasedRequestDispatcher()
+		{
+			@Override
+			protected List<RouteProvider> loadRouteProviders()
+			{
+				return Arrays.<RouteProvider> asList(new MockRouteProvider(
+						"/users/*", "/groups/*"));
+			}
+		};
+
+		// Configured mappings are ignored
+		assertEquals(dispatcher.mappings.size(), 2);
+		assertNull(dispatcher.mappings.get("/mock"));
+		assertEquals(dispatcher.mappings.keySet().toString(),
+				"[/users/*, /groups/*]");
+
+		ResourceMapping mapping = dispatcher.mappings.get("/users/*");
+		assertEquals(mapping.getControllerClass(), MockController.class);
+		assertEquals(mapping.getMethods().toString(), "[GET, HEAD]");
+		assertTrue(mapping.getControllerFactory() instanceof SingletonControllerFactory);
+		assertSame(dispatcher.routes.match("/users/list").getMapping(), mapping);
+	}
+
+	@Test(expectedExceptions = ConfigurationException.class)
+	public void testLoadDuplicateProvidedControllerMappings()
+	{
+		new PathBasedRequestDispatcher()
+		{
+			@Override
+			protected List<RouteProvider> loadRouteProviders()
+			{
+				return Arrays.<RouteProvider> asList(new MockRouteProvider(
+						"/users/*"), new MockRouteProvider("/users/*"));
+			}
+		};
+	}
+
+	/**
+	 * {@link RouteProvider} that maps the given paths to the
+	 * {@link MockController}.
+	 */
+	private static class MockRouteProvider extends AbstractRouteProvider
+	{
+		private final String[] paths;
+
+		public MockRouteProvider(final String... paths)
+		{
+			super();
+			this.paths = paths;
+		}
+
+		@Override
+		protected void addMappings(final List<ResourceMapping> mappings)
+		{
+			for (String path : paths)
+			{
+				mappings.add(mapping(path, null, MockController.class,
+						ControllerScope.SINGLETON,
+						new ConstructorControllerFactory(MockController.class),
+						"GET"));
+			}
+		}
+	}
+
+	/**
+	 * Get the route table used to resolve the paths that are not rejected.
+	 */
+	private static RouteTable resolvingRoutes(
+			PathBasedRequestDispatcher dispatcher)
+	{
+		return ((FilteringRouteTable) dispatcher.routes).getRoutes();
+	}
 }
@@ -0,0 +1,132 @@
+/**
+ * Copyright (c) 2010 Ignasi Barrera
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package org.sjmvc.web.dispatch.path;
+
+import static org.sjmvc.web.dispatch.path.PrefixIndexedRouteTable.literalPrefix;
+import static org.sjmvc.web.dispatch.path.TrieRouteTableTest.mappings;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNull;
+
+import java.util.List;
+
+import org.sjmvc.web.ResourceMapping;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+/**
+ * Unit tests for the {@link PrefixIndexedRouteTable} class.
+ * 
+ * @author Ignasi Barrera
+ */
+public class PrefixIndexedRouteTableTest
+{
+	/** The mappings in the route table. */
+	private List<ResourceMapping> mappings;
+
+	/** The route table to test. */
+	private PrefixIndexedRouteTable routes;
+
+	@BeforeMethod
+	public void setUp()
+	{
+		mappings = mappings("/api/v2/orders/[0-9]+", "/api/v2/orders",
+				"/api/v2/users/[a-z]+", "/api/v2", "/api/v1/.*/items",
+				"/static/.*\\.css", "/(docs|help)/", "/apis?/legacy", "/api");
+		routes = new PrefixIndexedRouteTable(new RegExpPathMatcher(),
+				mappings);
+	}
+
+	@Test
+	public void testLiteralPrefix()
+	{
+		assertEquals(literalPrefix(""), "");
+		assertEquals(literalPrefix("/api"), "/api");
+		assertEquals(literalPrefix("/api/v2/orders/[0-9]+"), "/api/v2/orders/");
+		assertEquals(literalPrefix("/api/.*"), "/api/");
+		assertEquals(literalPrefix("/static\\.files/x"), "/static.files/x");
+		assertEquals(literalPrefix("/api\\d+"), "/api");
+		assertEquals(literalPrefix("/apis?/legacy"), "/api");
+		assertEquals(literalPrefix("/api/v2*"), "/api/v");
+		assertEquals(literalPrefix("/api/v2+"), "/api/v");
+		assertEquals(literalPrefix("/ab{2}"), "/a");
+		assertEquals(literalPrefix("/(docs|help)/"), "");
+		assertEquals(literalPrefix("/docs|/help"), "");
+		assertEquals(literalPrefix("^/api"), "");
+	}
+
+	@Test
+	public void testMatchSameAsLinear()
+	{
+		LinearRouteTable linear = new LinearRouteTable(new RegExpPathMatcher(),
+				mappings);
+
+		String[] paths = { "", "/", "/api", "/api/", "/apis/legacy",
+				"/api/legacy", "/api/v2", "/api/v2/orders", "/api/v2/orders/17",
+				"/api/v2/orders/abc", "/api/v2/users/john",
+				"/api/v2/users/17", "/api/v1/a/items", "/api/v1/items",
+				"/static/css/main.css", "/static/main.js", "/docs/",
+				"/help/index", "/unmapped", "/ap" };
+
+		for (String path : paths)
+		{
+			RouteMatch expected = linear.match(path);
+			RouteMatch actual = routes.match(path);
+
+			if (expected == null)
+			{
+				assertNull(actual, path);
+			}
+			else
+			{
+				assertEquals(actual.getMapping(), expected.getMapping(), path);
+			}
+		}
+	}
+
+	@Test
+	public void testMatchInMappingOrder()
+	{
+		// The first mapping wins even if a longer prefix also matches
+		assertMatch("/api/v2/orders/17", "/api/v2/orders/[0-9]+");
+		assertMatch("/api/v2/orders/abc", "/api/v2/orders");
+		assertMatch("/api/v2/users/17", "/api/v2");
+		assertMatch("/api/v1/items", "/api");
+		assertMatch("/docs/", "/(docs|help)/");
+		assertMatch("/apis/legacy", "/apis?/legacy");
+	}
+
+	@Test
+	public void testNoMatch()
+	{
+		assertNull(routes.match("/"));
+		assertNull(routes.match("/ap"));
+		assertNull(routes.match("/static/main.js"));
+		assertNull(routes.match("/unmapped"));
+	}
+
+	private void assertMatch(String path, String expectedMapping)
+	{
+		assertEquals(routes.match(path).getMapping().getPath(),
+				expectedMapping);
+	}
+}
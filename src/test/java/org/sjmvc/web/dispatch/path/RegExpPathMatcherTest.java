@@ -22,9 +22,12 @@
 
 package org.sjmvc.web.dispatch.path;
 
+import static org.testng.Assert.assertEquals;
 import static org.testng.Assert.assertFalse;
 import static org.testng.Assert.assertTrue;
 
+import java.util.regex.PatternSyntaxException;
+
 import org.testng.annotations.BeforeMethod;
 import org.testng.annotations.Test;
 
@@ -63,4 +66,57 @@ public class RegExpPathMatcherTest
 		assertFalse(matcher.matches("/api/.*/", "/api/test"));
 	}
 
+	@Test
+	public void testMatchesWithCompiledPattern()
+	{
+		matcher.compile("/api/[a-z]*/");
+
+		// The same compiled pattern must be reusable for several paths
+		assertTrue(matcher.matches("/api/[a-z]*/", "/api/test/"));
+		assertFalse(matcher.matches("/api/[a-z]*/", "/api/TEST/"));
+		assertTrue(matcher.matches("/api/[a-z]*/", "/api/other/subpath"));
+	}
+
+	@Test
+	public void testMatchesFromSeveralThreads() throws Exception
+	{
+		final int iterations = 1000;
+		final int[] failures = new int[2];
+		Thread[] threads = new Thread[2];
+
+		for (int i = 0; i < threads.length; i++)
+		{
+			final int index = i;
+			final String path = index == 0 ? "/api/test" : "/other";
+			threads[i] = new Thread() {
+				@Override
+				public void run()
+				{
+					for (int j = 0; j < iterations; j++)
+					{
+						if (matcher.matches("/api", path) != (index == 0))
+						{
+							failures[index]++;
+						}
+					}
+				}
+			};
+			threads[i].start();
+		}
+
+		for (Thread thread : threads)
+		{
+			thread.join();
+		}
+
+		assertEquals(failures[0], 0);
+		assertEquals(failures[1], 0);
+	}
+
+	@Test(expectedExceptions = PatternSyntaxException.class)
+	public void testCompileInvalidPattern()
+	{
+		matcher.compile("/api/[a-z");
+	}
+
 }
@@ -0,0 +1,189 @@
+/**
+ * Copyright (c) 2010 Ignasi Barrera
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.sjmvc.web.dispatch.path;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNotSame;
+import static org.testng.Assert.assertSame;
+import static org.testng.Assert.assertTrue;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+
+import javax.servlet.http.HttpServletRequest;
+
+import org.sjmvc.config.Configuration;
+import org.sjmvc.config.ConfigurationSnapshot;
+import org.sjmvc.controller.ConstructorControllerFactory;
+import org.sjmvc.controller.MockCloseableController;
+import org.sjmvc.controller.MockController;
+import org.sjmvc.controller.SingletonControllerFactory;
+import org.sjmvc.web.ResourceMapping;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import com.meterware.servletunit.InvocationContext;
+import com.meterware.servletunit.ServletRunner;
+import com.meterware.servletunit.ServletUnitClient;
+
+/**
+ * Unit tests for the {@link ReloadingRequestDispatcher} class.
+ * 
+ * @author Ignasi Barrera
+ */
+public class ReloadingRequestDispatcherTest
+{
+	/** The dispatcher being tested. */
+	private ReloadingRequestDispatcher dispatcher;
+
+	@BeforeMethod
+	public void setUp()
+	{
+		dispatcher = new ReloadingRequestDispatcher(
+				new PathBasedRequestDispatcher(Configuration.createSnapshot()));
+	}
+
+	@Test
+	public void testConfigurationChanged()
+	{
+		PathBasedRequestDispatcher current = dispatcher.getDispatcher();
+
+		Properties config = new Properties();
+		config.setProperty("sjmvc.controller.users.path", "/users/*");
+		config.setProperty("sjmvc.controller.users.class",
+				MockController.class.getName());
+		dispatcher.configurationChanged(new ConfigurationSnapshot(config));
+
+		PathBasedRequestDispatcher reloaded = dispatcher.getDispatcher();
+		assertNotSame(reloaded, current);
+		assertEquals(reloaded.mappings.keySet().toString(), "[/users/*]");
+		assertEquals(reloaded.routes.match("/users/list").getMapping(),
+				reloaded.mappings.get("/users/*"));
+
+		// The previous dispatcher is not modified
+		assertEquals(current.mappings.keySet().toString(), "[/mock]");
+	}
+
+	@Test
+	public void testReplacedControllersAreDestroyed() throws Exception
+	{
+		dispatcher.configurationChanged(new ConfigurationSnapshot(
+				singleton("/closeable")));
+		MockCloseableController controller = (MockCloseableController) dispatcher
+				.getDispatcher().mappings.get("/closeable")
+				.getControllerFactory().getController();
+		assertFalse(controller.isClosed());
+
+		dispatcher.configurationChanged(new ConfigurationSnapshot(
+				singleton("/other")));
+		assertTrue(controller.isClosed());
+	}
+
+	@Test
+	public void testDestroyAfterProcessingRequests() throws Exception
+	{
+		dispatcher.configurationChanged(new ConfigurationSnapshot(
+				singleton("/closeable")));
+		MockCloseableController controller = (MockCloseableController) dispatcher
+				.getDispatcher().mappings.get("/closeable")
+				.getControllerFactory().getController();
+
+		ServletUnitClient client = new ServletRunner().newClient();
+		InvocationContext ic = client
+				.newInvocation("http://sjmvc.org/sjmvc/web/closeable");
+		HttpServletRequest request = ic.getRequest();
+
+		dispatcher.dispatch(request, ic.getResponse());
+		assertFalse(controller.isClosed());
+
+		dispatcher.destroy();
+		assertTrue(controller.isClosed());
+	}
+
+	@Test
+	public void testInvalidConfigurationChange()
+	{
+		PathBasedRequestDispatcher current = dispatcher.getDispatcher();
+
+		Properties config = new Properties();
+		config.setProperty("sjmvc.controller.users.path", "/users/*");
+		config.setProperty("sjmvc.controller.users.class",
+				"org.sjmvc.controller.Unexisting");
+		dispatcher.configurationChanged(new ConfigurationSnapshot(config));
+
+		assertSame(dispatcher.getDispatcher(), current);
+	}
+
+	@Test
+	public void testDiff()
+	{
+		Map<String, ResourceMapping> current = new HashMap<String, ResourceMapping>();
+		current.put("/same", mapping("/same", null));
+		current.put("/changed", mapping("/changed", null));
+		current.put("/removed", mapping("/removed", null));
+
+		Map<String, ResourceMapping> reloaded = new HashMap<String, ResourceMapping>();
+		reloaded.put("/changed", mapping("/changed", "layout.jsp"));
+		reloaded.put("/added", mapping("/added", null));
+
+		ResourceMapping singleton = mapping("/same", null);
+		singleton.setControllerFactory(new SingletonControllerFactory(
+				new ConstructorControllerFactory(MockController.class)));
+		reloaded.put("/same", singleton);
+
+		List<String> changes = ReloadingRequestDispatcher.diff(current,
+				reloaded);
+
+		String controller = MockController.class.getName();
+		assertEquals(changes.size(), 4);
+		assertTrue(changes.contains("Added /added -> " + controller));
+		assertTrue(changes.contains("Removed /removed -> " + controller));
+		assertTrue(changes.contains("Changed /changed -> " + controller
+				+ " to /changed -> " + controller + " (layout layout.jsp)"));
+		assertTrue(changes.contains("Changed /same -> " + controller
+				+ " to /same -> " + controller + " (singleton)"));
+	}
+
+	private static Properties singleton(final String path)
+	{
+		Properties config = new Properties();
+		config.setProperty("sjmvc.controller.closeable.path", path);
+		config.setProperty("sjmvc.controller.closeable.class",
+				MockCloseableController.class.getName());
+		config.setProperty("sjmvc.controller.closeable.scope", "singleton");
+		return config;
+	}
+
+	@SuppressWarnings({"unchecked", "rawtypes"})
+	private static ResourceMapping mapping(final String path,
+			final String layout)
+	{
+		ResourceMapping mapping = new ResourceMapping();
+		mapping.setPath(path);
+		mapping.setLayout(layout);
+		mapping.setControllerClass((Class) MockController.class);
+		return mapping;
+	}
+}
@@ -0,0 +1,156 @@
+/**
+ * Copyright (c) 2010 Ignasi Barrera
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package org.sjmvc.web.dispatch.path;
+
+import static org.sjmvc.web.dispatch.path.TrieRouteTableTest.mappings;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.sjmvc.web.ResourceMapping;
+import org.testng.annotations.Test;
+
+/**
+ * Unit tests for the {@link RoutePrecedence} class.
+ * 
+ * @author Ignasi Barrera
+ */
+public class RoutePrecedenceTest
+{
+	/** The mappings used to check the route tables. */
+	private static final String[] MAPPINGS = {"/api", "/api/users",
+			"/api/{x}/details", "/api/*/items", "/api/u?ers/items",
+			"/api/**/export", "/static/**/*.css", "/static/**/b/*.css",
+			"/docs/**", "/docs/**/b/c", "/docs/**/c"};
+
+	/** The paths used to check the route tables. */
+	private static final String[] PATHS = {"/api", "/api/", "/api/users",
+			"/api/users/details", "/api/orders/details", "/api/users/items",
+			"/api/uzers/items", "/api/orders/items", "/api/export",
+			"/api/a/b/export", "/api/users/export", "/static/main.css",
+			"/static/b/b/x.css", "/static/b/x.js", "/docs", "/docs/index",
+			"/docs/c/b/c", "/docs/b/c/c", "/docs/a/c", "/unmapped", "/"};
+
+	@Test
+	public void testCompare()
+	{
+		List<String> paths = new ArrayList<String>(Arrays.asList("/api",
+				"/**", "/api/**", "/api/{id}", "/api/*", "/api/users/",
+				"/api/users", "/api/users/{id}"));
+		Collections.shuffle(paths);
+		Collections.sort(paths, new RoutePrecedence(new AntPathMatcher()));
+
+		assertEquals(paths, Arrays.asList("/api/users/{id}", "/api/users/",
+				"/api/users", "/api/{id}", "/api/*", "/api/**", "/api", "/**"));
+	}
+
+	@Test
+	public void testAllRouteTablesResolveTheSameMapping()
+	{
+		List<RouteTable> tables = routeTables(mappings(MAPPINGS));
+
+		for (String path : PATHS)
+		{
+			String expected = resolve(tables.get(0), path);
+
+			for (RouteTable table : tables)
+			{
+				assertEquals(resolve(table, path), expected, table.getClass()
+						.getSimpleName() + " resolved " + path);
+			}
+		}
+	}
+
+	@Test
+	public void testLiteralSegmentsWinOverDeeperPatterns()
+	{
+		for (RouteTable table : routeTables(mappings(MAPPINGS)))
+		{
+			assertEquals(resolve(table, "/api/users/details"), "/api/users");
+			assertEquals(resolve(table, "/api/orders/details"),
+					"/api/{x}/details");
+			assertEquals(resolve(table, "/api/uzers/items"), "/api/u?ers/items");
+			assertEquals(resolve(table, "/api/a/b/export"), "/api/**/export");
+			assertEquals(resolve(table, "/static/b/b/x.css"),
+					"/static/**/b/*.css");
+			assertEquals(resolve(table, "/docs/c/b/c"), "/docs/**/b/c");
+			assertEquals(resolve(table, "/docs/a/c"), "/docs/**/c");
+		}
+	}
+
+	@Test
+	public void testMappingOrderIsIgnored()
+	{
+		List<ResourceMapping> mappings = mappings(MAPPINGS);
+		List<RouteTable> tables = routeTables(mappings);
+
+		for (int i = 0; i < mappings.size(); i++)
+		{
+			Collections.rotate(mappings, 1);
+
+			for (RouteTable table : routeTables(mappings))
+			{
+				for (String path : PATHS)
+				{
+					assertEquals(resolve(table, path),
+							resolve(tables.get(0), path));
+				}
+			}
+		}
+	}
+
+	/**
+	 * Build all the route tables that can be used with the
+	 * {@link AntPathMatcher}.
+	 */
+	private static List<RouteTable> routeTables(
+			final List<ResourceMapping> mappings)
+	{
+		AntPathMatcher pathMatcher = new AntPathMatcher();
+		RouteTable trie = new TrieRouteTable(pathMatcher, mappings);
+		RouteTable sorted = new SortedRouteTable(pathMatcher, mappings);
+
+		List<RouteTable> tables = new ArrayList<RouteTable>();
+		tables.add(trie);
+		tables.add(sorted);
+		tables.add(new CachingRouteTable(trie, 16));
+		tables.add(new CachingRouteTable(sorted, 16));
+		tables.add(new FilteringRouteTable(trie, pathMatcher, mappings));
+		tables.add(new FilteringRouteTable(sorted, pathMatcher, mappings));
+
+		assertTrue(((FilteringRouteTable) tables.get(4))
+				.isFilteringFirstSegment());
+
+		return tables;
+	}
+
+	private static String resolve(final RouteTable table, final String path)
+	{
+		RouteMatch match = table.match(path);
+		return match == null ? null : match.getMapping().getPath();
+	}
+}
@@ -0,0 +1,122 @@
+/**
+ * Copyright (c) 2010 Ignasi Barrera
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package org.sjmvc.web.dispatch.path;
+
+import static org.sjmvc.web.dispatch.path.TrieRouteTableTest.mappings;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertSame;
+import static org.testng.Assert.assertTrue;
+
+import java.util.Collections;
+import java.util.List;
+
+import org.sjmvc.web.ResourceMapping;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+/**
+ * Unit tests for the {@link SortedRouteTable} class.
+ * 
+ * @author Ignasi Barrera
+ */
+public class SortedRouteTableTest
+{
+	/** The route table to test. */
+	private SortedRouteTable routes;
+
+	@BeforeMethod
+	public void setUp()
+	{
+		routes = new SortedRouteTable(new AntPathMatcher(), mappings("/api",
+				"/**", "/api/*/items", "/api/users/{user}", "/api/users",
+				"/api/users/new", "/static/**/*.css"));
+	}
+
+	@Test
+	public void testMatchExactPath()
+	{
+		assertMatch("/api", "/api");
+		assertMatch("/api/users", "/api/users");
+		assertMatch("/api/users/new", "/api/users/new");
+
+		// Exact paths are resolved without creating new matches
+		assertSame(routes.match("/api/users"), routes.match("/api/users"));
+	}
+
+	@Test
+	public void testMatchMostSpecific()
+	{
+		assertMatch("/api/other", "/api");
+		assertMatch("/api/users/new/sub", "/api/users/new");
+		assertMatch("/api/users/17", "/api/users/{user}");
+		assertMatch("/api/orders/items", "/api/*/items");
+		assertMatch("/static/css/main.css", "/static/**/*.css");
+		assertMatch("/unmapped", "/**");
+	}
+
+	@Test
+	public void testMatchVariables()
+	{
+		RouteMatch match = routes.match("/api/users/17");
+		assertEquals(match.getVariables().size(), 1);
+		assertEquals(match.getVariables().get("user"), "17");
+
+		assertTrue(routes.match("/api/users").getVariables().isEmpty());
+	}
+
+	@Test
+	public void testMatchIgnoresMappingOrder()
+	{
+		List<ResourceMapping> mappings = mappings("/api/*", "/api/{id}",
+				"/api/users", "/api/users/", "/api");
+
+		for (int i = 0; i < mappings.size(); i++)
+		{
+			Collections.rotate(mappings, 1);
+			routes = new SortedRouteTable(new AntPathMatcher(), mappings);
+
+			assertMatch("/api", "/api");
+			assertMatch("/api/users", "/api/users/");
+			assertMatch("/api/users/1", "/api/users/");
+			assertMatch("/api/1", "/api/{id}");
+		}
+	}
+
+	@Test
+	public void testNoMatch()
+	{
+		routes = new SortedRouteTable(new AntPathMatcher(), mappings("/api",
+				"/api/users"));
+
+		assertNull(routes.match("/"));
+		assertNull(routes.match("/apis"));
+		assertNull(routes.match("/unmapped"));
+	}
+
+	private void assertMatch(String path, String expectedMapping)
+	{
+		assertEquals(routes.match(path).getMapping().getPath(),
+				expectedMapping);
+	}
+}
@@ -0,0 +1,162 @@
+/**
+ * Copyright (c) 2010 Ignasi Barrera
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package org.sjmvc.web.dispatch.path;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.sjmvc.config.ConfigurationException;
+import org.sjmvc.controller.Controller;
+import org.sjmvc.controller.MockController;
+import org.sjmvc.web.ResourceMapping;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+/**
+ * Unit tests for the {@link TrieRouteTable} class.
+ * 
+ * @author Ignasi Barrera
+ */
+public class TrieRouteTableTest
+{
+	/** The route table to test. */
+	private TrieRouteTable routes;
+
+	@BeforeMethod
+	public void setUp()
+	{
+		routes = new TrieRouteTable(new AntPathMatcher(), mappings("/api",
+				"/api/users", "/api/users/{user}", "/api/users/new",
+				"/api/*/items", "/api/u?ers/items", "/static/**/*.css",
+				"/docs/**/index"));
+	}
+
+	@Test
+	public void testMatchLiteral()
+	{
+		assertMatch("/api", "/api");
+		assertMatch("/api/", "/api");
+		assertMatch("/api/users", "/api/users");
+		assertMatch("/api/users/new", "/api/users/new");
+		assertMatch("/api/users/new/sub", "/api/users/new");
+	}
+
+	@Test
+	public void testMatchMostSpecific()
+	{
+		// Deeper routes win over shorter prefixes
+		assertMatch("/api/other", "/api");
+		assertMatch("/api/users/1", "/api/users/{user}");
+
+		// Literal segments win over patterns
+		assertMatch("/api/users/new", "/api/users/new");
+
+		// More explicit patterns win over generic ones
+		assertMatch("/api/uzers/items", "/api/u?ers/items");
+		assertMatch("/api/orders/items", "/api/*/items");
+
+		// Earlier literal segments win over later ones
+		assertMatch("/api/users/items", "/api/users/{user}");
+	}
+
+	@Test
+	public void testMatchBacktracking()
+	{
+		routes = new TrieRouteTable(new AntPathMatcher(), mappings("/a/b/c",
+				"/a/*/d"));
+
+		assertMatch("/a/b/c", "/a/b/c");
+		assertMatch("/a/b/d", "/a/*/d");
+		assertNull(routes.match("/a/b"));
+	}
+
+	@Test
+	public void testMatchAnyPath()
+	{
+		assertMatch("/static/main.css", "/static/**/*.css");
+		assertMatch("/static/css/theme/main.css", "/static/**/*.css");
+		assertMatch("/docs/index", "/docs/**/index");
+		assertMatch("/docs/a/b/index", "/docs/**/index");
+		assertNull(routes.match("/docs/a/b"));
+	}
+
+	@Test
+	public void testMatchVariables()
+	{
+		RouteMatch match = routes.match("/api/users/17");
+		assertEquals(match.getVariables().size(), 1);
+		assertEquals(match.getVariables().get("user"), "17");
+
+		assertTrue(routes.match("/api/users").getVariables().isEmpty());
+	}
+
+	@Test
+	public void testNoMatch()
+	{
+		assertNull(routes.match("/"));
+		assertNull(routes.match("/unmapped"));
+		assertNull(routes.match("/apis"));
+	}
+
+	@Test
+	public void testRootMapping()
+	{
+		routes = new TrieRouteTable(new AntPathMatcher(), mappings("", "/api"));
+
+		assertMatch("/", "");
+		assertMatch("/unmapped", "");
+		assertMatch("/api/test", "/api");
+	}
+
+	@Test(expectedExceptions = ConfigurationException.class)
+	public void testDuplicateRoute()
+	{
+		new TrieRouteTable(new AntPathMatcher(), mappings("/api", "/api/"));
+	}
+
+	private void assertMatch(String path, String expectedMapping)
+	{
+		assertEquals(routes.match(path).getMapping().getPath(),
+				expectedMapping);
+	}
+
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	static List<ResourceMapping> mappings(String... paths)
+	{
+		List<ResourceMapping> mappings = new ArrayList<ResourceMapping>();
+
+		for (String path : paths)
+		{
+			ResourceMapping mapping = new ResourceMapping();
+			mapping.setPath(path);
+			mapping.setControllerClass((Class<Controller>) (Class) MockController.class);
+			mappings.add(mapping);
+		}
+
+		return mappings;
+	}
+}